@@ -21,7 +21,9 @@ public class MineDisaster extends JavaPlugin {
         getCommand("disaster").setExecutor(new DisasterCommand(this));
         getCommand("disaster").setTabCompleter(new DisasterTab(this));
 
+        getServer().getPluginManager().registerEvents(meteorManager, this);
         getServer().getPluginManager().registerEvents(bacteriaManager, this);
+        getServer().getPluginManager().registerEvents(doomsdayManager, this);
         getLogger().info("[MineDisaster] 플러그인 활성화 완료");
     }
 
@@ -0,0 +1,280 @@
+package com.kakamine.minedisaster.bench;
+
+import com.kakamine.minedisaster.MineDisaster;
+import com.kakamine.minedisaster.disaster.ExplosionEngine;
+import com.kakamine.minedisaster.disaster.InfectionRegistry;
+import com.kakamine.minedisaster.disaster.MeteorShapes;
+import com.kakamine.minedisaster.util.BlockKeys;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.util.Vector;
+
+import java.util.*;
+
+/**
+ * /disaster bench 용 마이크로 벤치마크 모음
+ * - 월드를 건드리지 않는 순수 자료구조 벤치는 비동기로 돌리고 결과만 메인 스레드에서 전송
+ * - 월드를 읽어야 하는 벤치는 메인 스레드에서 바로 측정
+ */
+public final class DisasterBench {
+
+    /** 측정 결과를 버리지 않게 (JIT 가 계산을 지우지 못하도록) 모아 두는 곳 */
+    private static volatile long blackhole;
+
+    private DisasterBench() {}
+
+    /** 비동기로 실행 후 결과 줄들을 보낸다 */
+    private static void runAsync(MineDisaster plugin, CommandSender sender, String title,
+                                 java.util.function.Supplier<List<String>> body) {
+        sender.sendMessage("§7[Bench] " + title + " 측정 중...");
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            List<String> lines;
+            try {
+                lines = body.get();
+            } catch (Throwable t) {
+                lines = List.of("§c[Bench] 실패: " + t);
+            }
+            final List<String> out = lines;
+            Bukkit.getScheduler().runTask(plugin, () -> out.forEach(sender::sendMessage));
+        });
+    }
+
+    /* ---------------- 박테리아 감염 레지스트리 ---------------- */
+
+    /**
+     * 감염 수 N 별로 "한 틱" 비용 측정: perTick 번 랜덤 추출 + 같은 수 추가/제거(수명 만료 흉내)
+     * 기존 HashSet<Location> + stream().skip() 방식은 legacyMax 까지만 비교
+     */
+    public static void registry(MineDisaster plugin, CommandSender sender, int maxCells) {
+        final int max = Math.max(1_000, Math.min(maxCells, 4_000_000));
+        runAsync(plugin, sender, "감염 레지스트리(max=" + max + ")", () -> {
+            final int perTick = 200, ticks = 200, legacyMax = 100_000;
+            List<String> lines = new ArrayList<>();
+            lines.add("§6[Bench] 감염 레지스트리 §7(perTick=" + perTick + ", 단위=µs/틱)");
+            Random r = new Random(42);
+
+            for (int n = 1_000; n <= max; n *= 10) {
+                InfectionRegistry reg = new InfectionRegistry();
+                fillSurface(reg, n, r);
+                double regUs = timeRegistry(reg, perTick, ticks, r);
+
+                String legacy = "-";
+                if (n <= legacyMax) {
+                    Set<Location> set = new HashSet<>();
+                    for (int i = 0; i < reg.size(); i++) {
+                        long k = reg.get(i);
+                        set.add(new Location(null, BlockKeys.x(k), BlockKeys.y(k), BlockKeys.z(k)));
+                    }
+                    legacy = String.format("%.1f", timeLegacy(set, perTick, Math.max(5, ticks / 20), r));
+                }
+                lines.add(String.format("§e N=%,d §f레지스트리=%.1f §7기존=%s §8(섹션 %d)", n, regUs, legacy, reg.sectionCount()));
+                if (n < max && n * 10L > max) n = max / 10; // 마지막 단계는 max 로 맞춤
+            }
+            return lines;
+        });
+    }
+
+    /** 지표면처럼 얇은 층으로 채움(섹션 분포를 실제와 비슷하게) */
+    private static void fillSurface(InfectionRegistry reg, int n, Random r) {
+        int side = (int) Math.ceil(Math.sqrt(n));
+        for (int i = 0; reg.size() < n; i++) {
+            int x = (i % side) - side / 2;
+            int z = (i / side) - side / 2;
+            int y = 64 + r.nextInt(3) + (i / (side * side)) * 3;
+            reg.add(x, y, z);
+        }
+    }
+
+    private static double timeRegistry(InfectionRegistry reg, int perTick, int ticks, Random r) {
+        long sink = 0;
+        // 워밍업
+        for (int t = 0; t < ticks / 4; t++) sink += registryTick(reg, perTick, r);
+        long t0 = System.nanoTime();
+        for (int t = 0; t < ticks; t++) sink += registryTick(reg, perTick, r);
+        long dt = System.nanoTime() - t0;
+        blackhole = sink;
+        return dt / 1000.0 / ticks;
+    }
+
+    private static long registryTick(InfectionRegistry reg, int perTick, Random r) {
+        long acc = 0;
+        for (int i = 0; i < perTick; i++) {
+            long src = reg.random(r);
+            acc ^= src;
+            // 이웃 하나 감염 + 임의 하나 만료
+            long nb = BlockKeys.pack(BlockKeys.x(src) + 1, BlockKeys.y(src), BlockKeys.z(src));
+            if (reg.add(nb)) reg.remove(reg.random(r));
+        }
+        return acc;
+    }
+
+    private static double timeLegacy(Set<Location> set, int perTick, int ticks, Random r) {
+        long sink = 0;
+        long t0 = System.nanoTime();
+        for (int t = 0; t < ticks; t++) {
+            for (int i = 0; i < perTick; i++) {
+                Location src = set.stream().skip(r.nextInt(Math.max(1, set.size()))).findFirst().orElse(null);
+                if (src != null) sink += src.hashCode();
+            }
+        }
+        long dt = System.nanoTime() - t0;
+        blackhole = sink;
+        return dt / 1000.0 / ticks;
+    }
+
+    /* ---------------- 메테오 폭발 ---------------- */
+
+    /**
+     * power 4~20 에서 폭발 한 번 비용 비교 (같은 지점, 블록은 부수지 않음)
+     * - 플러그인: ExplosionEngine.explode(breakBlocks=false) → 광선 계산 + 엔티티 피해/넉백
+     * - 바닐라: createExplosion(breakBlocks=false) → 광선 계산 + 엔티티 피해/넉백
+     * 측정 지점은 플레이어 앞 48블록 지면 4칸 아래
+     * (power 20 의 피해 반경 40 밖이라 플레이어는 안전, 그 근처 몹은 양쪽 폭발 피해를 받음)
+     */
+    public static void explosion(MineDisaster plugin, Player player) {
+        World w = player.getWorld();
+        Vector dir = player.getLocation().getDirection().setY(0);
+        if (dir.lengthSquared() < 1e-6) dir = new Vector(1, 0, 0);
+        Location at = player.getLocation().add(dir.normalize().multiply(48));
+        at.setY(w.getHighestBlockYAt(at.getBlockX(), at.getBlockZ()) - 4);
+
+        final int reps = 5;
+        ExplosionEngine engine = new ExplosionEngine();
+        List<String> lines = new ArrayList<>();
+        lines.add("§6[Bench] 메테오 폭발 §7(" + at.getBlockX() + "," + at.getBlockY() + "," + at.getBlockZ() + ", " + reps + "회 평균, 단위=ms)");
+
+        for (int power = 4; power <= 20; power += 4) {
+            // 광선표 생성/워밍업
+            engine.explode(at, power, false, false);
+            w.createExplosion(at, power, false, false);
+
+            long t0 = System.nanoTime();
+            int blocks = 0;
+            for (int i = 0; i < reps; i++) blocks += engine.plan(w, at, power).size();
+            double planMs = (System.nanoTime() - t0) / 1e6 / reps;
+
+            t0 = System.nanoTime();
+            for (int i = 0; i < reps; i++) engine.explode(at, power, false, false);
+            double pluginMs = (System.nanoTime() - t0) / 1e6 / reps;
+
+            t0 = System.nanoTime();
+            for (int i = 0; i < reps; i++) w.createExplosion(at, power, false, false);
+            double vanillaMs = (System.nanoTime() - t0) / 1e6 / reps;
+
+            lines.add(String.format("§e power=%2d §f플러그인=%.2f §8(계산 %.2f) §7바닐라=%.2f §8(블록 %d)",
+                    power, pluginMs, planMs, vanillaMs, blocks / reps));
+        }
+        lines.forEach(player::sendMessage);
+    }
+
+    /* ---------------- 메테오 생성 할당량 ---------------- */
+
+    /**
+     * 메테오 10개 우박의 파트 배치 + 생성 위치 계산에서 할당되는 바이트 비교 (월드는 건드리지 않음)
+     * - 기존: 메테오마다 fibonacciSphere/randomPointInSolidSphere 로 점마다 Vector, 파트마다 Location
+     * - 템플릿: MeteorShapes 캐시 조회 후 재사용 Location 에 중심만 더함
+     * 파트 수/반경은 현재 config 기준 (meteor.explosion-power)
+     */
+    public static void meteorAlloc(MineDisaster plugin, CommandSender sender) {
+        var cfg = plugin.getConfig();
+        int power = Math.max(1, Math.min(cfg.getInt("meteor.explosion-power", 12), Math.max(10, cfg.getInt("meteor.explosion-max", 20))));
+        double scale = 1.0 + power * Math.max(0.0, cfg.getDouble("meteor.radius-scale-per-power", 0.18));
+        double surfaceR = Math.max(1.6, cfg.getDouble("meteor.base-surface-radius", 3.2)) * scale;
+        double coreR = Math.max(0.9, cfg.getDouble("meteor.base-core-radius", 2.0)) * scale;
+        int surfaceN = Math.max(32, Math.min(cfg.getInt("meteor.surface-pieces", 80), 320));
+        int coreN = Math.max(12, Math.min(cfg.getInt("meteor.core-pieces", 30), 160));
+        int fillN = (int) Math.round(surfaceN * Math.max(0.0, cfg.getDouble("meteor.fill-density", 1.2)) * Math.max(1.0, surfaceR / 3.0));
+        int total = surfaceN + coreN + fillN;
+        if (total > 220) {
+            double s = 220.0 / total;
+            surfaceN = Math.max(32, (int) Math.round(surfaceN * s));
+            coreN = Math.max(12, (int) Math.round(coreN * s));
+            fillN = Math.max(16, (int) Math.round(fillN * s));
+        }
+        int variants = Math.max(1, Math.min(cfg.getInt("meteor.shape.variants", 4), 16));
+        double jitter = Math.max(0.0, cfg.getDouble("meteor.shape.jitter", 0.15));
+        final int sN = surfaceN, cN = coreN, fN = fillN;
+
+        runAsync(plugin, sender, "메테오 생성 할당량", () -> {
+            var mx = (com.sun.management.ThreadMXBean) java.lang.management.ManagementFactory.getThreadMXBean();
+            if (!mx.isThreadAllocatedMemorySupported()) return List.of("§c[Bench] 이 JVM 은 스레드별 할당량 측정을 지원하지 않습니다.");
+            if (!mx.isThreadAllocatedMemoryEnabled()) mx.setThreadAllocatedMemoryEnabled(true);
+            long tid = Thread.currentThread().threadId();
+            final int meteors = 10, showers = 50;
+            Random r = new Random(7);
+            MeteorShapes shapes = new MeteorShapes();
+            double[] sink = new double[1];
+
+            // 워밍업 (JIT + 템플릿 채움)
+            for (int i = 0; i < 5; i++) {
+                legacyShower(meteors, surfaceR, coreR, sN, cN, fN, r, sink);
+                templateShower(shapes, meteors, surfaceR, coreR, sN, cN, fN, variants, jitter, r, sink);
+            }
+
+            long a0 = mx.getThreadAllocatedBytes(tid), t0 = System.nanoTime();
+            for (int i = 0; i < showers; i++) legacyShower(meteors, surfaceR, coreR, sN, cN, fN, r, sink);
+            long legacyBytes = (mx.getThreadAllocatedBytes(tid) - a0) / showers;
+            double legacyUs = (System.nanoTime() - t0) / 1000.0 / showers;
+
+            a0 = mx.getThreadAllocatedBytes(tid); t0 = System.nanoTime();
+            for (int i = 0; i < showers; i++) templateShower(shapes, meteors, surfaceR, coreR, sN, cN, fN, variants, jitter, r, sink);
+            long templateBytes = (mx.getThreadAllocatedBytes(tid) - a0) / showers;
+            double templateUs = (System.nanoTime() - t0) / 1000.0 / showers;
+
+            blackhole = Double.doubleToRawLongBits(sink[0]);
+            int parts = sN + cN + fN;
+            return List.of(
+                    "§6[Bench] 메테오 생성 할당량 §7(우박 " + meteors + "개 × 파트 " + parts + ", " + showers + "회 평균)",
+                    String.format("§e 기존 §f%,d B/우박 §7(%.0f B/파트, %.1f µs)", legacyBytes, legacyBytes / (double) (meteors * parts), legacyUs),
+                    String.format("§e 템플릿 §f%,d B/우박 §7(%.0f B/파트, %.1f µs)", templateBytes, templateBytes / (double) (meteors * parts), templateUs),
+                    "§7 템플릿 " + shapes.size() + "개 (히트 " + shapes.getHits() + ", 미스 " + shapes.getMisses() + ")");
+        });
+    }
+
+    /** 기존 방식 재현: 점마다 Vector, 파트마다 Location */
+    private static void legacyShower(int meteors, double surfaceR, double coreR, int surfaceN, int coreN, int fillN,
+                                     Random r, double[] sink) {
+        for (int m = 0; m < meteors; m++) {
+            Location center = new Location(null, r.nextDouble() * 64, 160, r.nextDouble() * 64);
+            List<Vector> pts = new ArrayList<>(legacySphere(surfaceR, surfaceN));
+            pts.addAll(legacySphere(coreR, coreN));
+            for (int k = 0; k < fillN; k++) {
+                double maxR = coreR * 0.9 + r.nextDouble() * (surfaceR - coreR * 0.9);
+                double theta = 2 * Math.PI * r.nextDouble(), phi = Math.acos(2 * r.nextDouble() - 1), rr = Math.cbrt(r.nextDouble()) * maxR;
+                pts.add(new Vector(rr * Math.sin(phi) * Math.cos(theta), rr * Math.cos(phi), rr * Math.sin(phi) * Math.sin(theta)));
+            }
+            for (Vector off : pts) {
+                Location at = center.clone().add(off);
+                sink[0] += at.getX();
+            }
+        }
+    }
+
+    private static List<Vector> legacySphere(double radius, int n) {
+        List<Vector> v = new ArrayList<>(n);
+        double ga = Math.PI * (3.0 - Math.sqrt(5.0));
+        for (int i = 0; i < n; i++) {
+            double y = 1.0 - 2.0 * ((double) i / Math.max(1, n - 1));
+            double rr = Math.sqrt(1 - y * y), phi = i * ga;
+            v.add(new Vector(Math.cos(phi) * rr * radius, y * radius, Math.sin(phi) * rr * radius));
+        }
+        return v;
+    }
+
+    /** 템플릿 방식: 캐시 조회 + 재사용 Location 이동 */
+    private static void templateShower(MeteorShapes shapes, int meteors, double surfaceR, double coreR, int surfaceN, int coreN,
+                                       int fillN, int variants, double jitter, Random r, double[] sink) {
+        Location at = new Location(null, 0, 0, 0);
+        for (int m = 0; m < meteors; m++) {
+            double cx = r.nextDouble() * 64, cy = 160, cz = r.nextDouble() * 64;
+            MeteorShapes.Shape shape = shapes.get(surfaceR, coreR, surfaceN, coreN, fillN, r.nextInt(variants), jitter);
+            for (int i = 0, n = shape.pieces(); i < n; i++) {
+                shape.offset(at, cx, cy, cz, i);
+                sink[0] += at.getX();
+            }
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.kakamine.minedisaster.command;
 
 import com.kakamine.minedisaster.MineDisaster;
+import com.kakamine.minedisaster.bench.DisasterBench;
+import com.kakamine.minedisaster.disaster.Outbreak;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.World;
@@ -28,14 +30,17 @@ public class DisasterCommand implements CommandExecutor {
         sender.sendMessage("§6====== §eMineDisaster 명령어 도움말 §6======");
         sender.sendMessage("§e/" + label + " meteor [개수] [폭발력]§7 - §f바라보는 방향으로 유성 떨어뜨리기");
         sender.sendMessage("   §8예) §7/" + label + " meteor 3 12");
+        sender.sendMessage("§e/" + label + " meteor stats§7 - §f낙하 중 파트/파티클 현황");
         sender.sendMessage("§e/" + label + " stop meteor§7 - §f메테오 관련 엔티티/작업 정리");
-        sender.sendMessage("§e/" + label + " bacteria [반경] [틱당감염]§7 - §f현재 위치에서 박테리아 확산 시작");
-        sender.sendMessage("   §8예) §7/" + label + " bacteria 6 120");
-        sender.sendMessage("§e/" + label + " stop bacteria§7 - §f박테리아 중지 및 스컬크 흔적 제거");
+        sender.sendMessage("§e/" + label + " bacteria [반경] [틱당감염] [chance=] [lifetime=] [mode=] [visual=]§7 - §f현재 위치에서 박테리아 확산 시작");
+        sender.sendMessage("   §8예) §7/" + label + " bacteria 6 120 mode=frontier");
+        sender.sendMessage("§e/" + label + " bacteria <list|stats|stop <id>>§7 - §f발병 목록/현황/개별 중지");
+        sender.sendMessage("§e/" + label + " stop bacteria§7 - §f모든 박테리아 중지 및 스컬크 흔적 제거");
         sender.sendMessage("§e/" + label + " doomsday <start|stop|set|auto|info> [값]§7 - §f지구 멸망 제어");
         sender.sendMessage("   §8예) §7/" + label + " doomsday set 1.0");
-        sender.sendMessage("§e/" + label + " earthquake <start|stop> [규모] [반경] [초]§7 - §f지진 제어");
+        sender.sendMessage("§e/" + label + " earthquake <start|stop|list> [규모] [반경] [초]§7 - §f지진 제어 (stop <id> 로 하나만)");
         sender.sendMessage("   §8예) §7/" + label + " earthquake start 5.0 24 15");
+        sender.sendMessage("§e/" + label + " bench <registry|explosion|meteor-alloc> [크기]§7 - §f성능 측정");
         sender.sendMessage("§e/" + label + " reload§7 - §f설정 리로드");
     }
 
@@ -50,6 +55,35 @@ public class DisasterCommand implements CommandExecutor {
         // ─────────── 메테오 ───────────
         if (args[0].equalsIgnoreCase("meteor")) {
             if (!checkPerm(sender, "minedisaster.meteor")) return true;
+            if (args.length >= 2 && args[1].equalsIgnoreCase("stats")) {
+                var mm = plugin.getMeteorManager();
+                sender.sendMessage("§c[MineDisaster] 메테오: §f활성=" + mm.getActiveMeteors() + " §f파트=" + mm.getTrackedParts()
+                        + (mm.getDisplayBodies() > 0 ? " §f디스플레이=" + mm.getDisplayBodies() + "개/" + mm.getDisplayPieces() + "조각" : "")
+                        + " §7직전틱 파트=" + mm.getLastTickParts() + " 파티클=" + mm.getLastTickParticles()
+                        + " §7최대파트=" + mm.getPeakParts() + " 누적파티클=" + mm.getTotalParticles()
+                        + " §7생성=" + mm.getLastTickSpawned() + "/틱(최대 " + mm.getPeakTickSpawned() + ")"
+                        + (mm.getPendingSpawns() > 0 ? " 대기=" + mm.getPendingSpawns() : "")
+                        + (mm.getDroppedSpawns() > 0 ? " 버림=" + mm.getDroppedSpawns() : "")
+                        + " §7예측충돌=" + mm.getPredictedImpacts() + "회(평균 " + String.format("%.1f", mm.getMeanImpactTicks()) + "틱"
+                        + (mm.getPredictionMisses() > 0 ? ", 시간초과 " + mm.getPredictionMisses() : "") + ")"
+                        + (mm.isTickerRunning() ? " §a(진행 중)" : " §8(정지)"));
+                if (mm.getImpactPlans() > 0) {
+                    sender.sendMessage("§7 충돌 후처리: §f" + mm.getImpactPlans() + "회/" + mm.getImpactBatches() + "묶음 §7스냅샷=" + String.format("%.2f", mm.getImpactSnapshotMs())
+                            + "ms 계획(비동기)=" + String.format("%.2f", mm.getImpactPlanMs()) + "ms 적용(메인)=" + String.format("%.2f", mm.getImpactApplyMs())
+                            + "ms §7변경=" + mm.getImpactWrites() + " 합쳐서 아낀 쓰기=" + mm.getImpactAvoidedWrites()
+                            + (mm.getImpactStale() > 0 ? " 건너뜀=" + mm.getImpactStale() : ""));
+                }
+                if (mm.getLiveDebris() > 0 || mm.getLandedDebris() + mm.getExpiredDebris() > 0) {
+                    sender.sendMessage("§7 파편: §f" + mm.getLiveDebris() + " §7(최대 " + mm.getPeakDebris() + ") 착지=" + mm.getLandedDebris()
+                            + " 만료=" + mm.getExpiredDebris() + (mm.getShedDebris() > 0 ? " 상한초과제거=" + mm.getShedDebris() : ""));
+                }
+                var ex = mm.getExplosionEngine();
+                if (ex.getExplosions() > 0) {
+                    sender.sendMessage("§7 폭발 엔진: §f" + ex.getExplosions() + "회 §7블록=" + ex.getBlocksBroken() + " 엔티티=" + ex.getEntitiesHit()
+                            + " 계산=" + String.format("%.2f", ex.getMeanPlanMs()) + "ms 적용=" + String.format("%.2f", ex.getMeanApplyMs()) + "ms");
+                }
+                return true;
+            }
             if (!(sender instanceof Player p)) {
                 sender.sendMessage("§c플레이어만 사용할 수 있습니다.");
                 return true;
@@ -87,6 +121,38 @@ public class DisasterCommand implements CommandExecutor {
         // ─────────── 박테리아 ───────────
         if (args[0].equalsIgnoreCase("bacteria")) {
             if (!checkPerm(sender, "minedisaster.bacteria")) return true;
+            var bm = plugin.getBacteriaManager();
+            if (args.length >= 2 && args[1].equalsIgnoreCase("stats")) {
+                sender.sendMessage("§2[MineDisaster] 박테리아: §f발병=" + bm.getOutbreaks().size() + " §f감염=" + bm.getInfectedCount()
+                        + " §7원복대기=" + bm.getPendingExpiry() + " §7밀린원복=" + bm.getExpiryBacklog()
+                        + " §7예산=" + bm.getGlobalBudget() + "/회"
+                        + " §7처리량=" + String.format("%.2f", bm.getInfectionsPerMs()) + "/ms"
+                        + (bm.getCleanupRemaining() > 0 ? " §7정리대기=" + bm.getCleanupRemaining() : "")
+                        + (bm.getVisualSentBatches() > 0 ? " §7보이기전송=" + bm.getVisualSentBlocks() + "블록/" + bm.getVisualSentBatches() + "회" : "")
+                        + (bm.isRunning() ? " §a(진행 중)" : " §8(정지)"));
+                return true;
+            }
+            if (args.length >= 2 && args[1].equalsIgnoreCase("list")) {
+                if (bm.getOutbreaks().isEmpty()) { sender.sendMessage("§7[MineDisaster] 진행 중인 박테리아가 없습니다."); return true; }
+                sender.sendMessage("§2[MineDisaster] 박테리아 발병 목록 §7(전체 예산 " + bm.getGlobalBudget() + "/회)");
+                for (var o : bm.getOutbreaks()) {
+                    Location c = o.getOrigin();
+                    sender.sendMessage("§e #" + o.getId() + " §f" + o.getWorld().getName() + " " + c.getBlockX() + "," + c.getBlockY() + "," + c.getBlockZ()
+                            + " §7r=" + o.getRadius() + " 감염=" + o.getInfectedCount()
+                            + " 모드=" + o.getSpreadMode() + (o.getSpreadMode().equals("frontier") ? "(" + o.getFrontierSize() + ")" : "")
+                            + (o.isVisual() ? " §b보이기§7" : "")
+                            + " 몫=" + o.getLastShare() + "/" + o.getPerTickCap()
+                            + " 확률=" + o.getSpreadChance() + " 수명=" + o.getLifetimeTicks()
+                            + " " + String.format("%.2f", o.getInfectionsPerMs()) + "/ms §8(" + o.getAgeSeconds() + "s)");
+                }
+                return true;
+            }
+            if (args.length >= 2 && args[1].equalsIgnoreCase("stop")) {
+                if (args.length < 3) { sender.sendMessage("§e사용법: /" + label + " bacteria stop <id>"); return true; }
+                int id = parseInt(args[2], -1);
+                if (!bm.stop(id, sender)) sender.sendMessage("§c해당 id 의 박테리아가 없습니다: §7" + args[2]);
+                return true;
+            }
             if (!(sender instanceof Player p)) {
                 sender.sendMessage("§c플레이어만 사용할 수 있습니다.");
                 return true;
@@ -94,18 +160,34 @@ public class DisasterCommand implements CommandExecutor {
 
             int radius = 4;
             int perTick = 0; // 0이면 config 값 사용
+            Outbreak.Overrides ov = new Outbreak.Overrides();
 
             if (args.length >= 2) try { radius = Math.max(0, Integer.parseInt(args[1])); } catch (NumberFormatException ignored) {}
             if (args.length >= 3) try { perTick = Math.max(0, Integer.parseInt(args[2])); } catch (NumberFormatException ignored) {}
+            if (perTick > 0) ov.perTick = perTick;
+            // 추가 덮어쓰기: chance=0.5 lifetime=300 mode=frontier max=5000 visual=true
+            for (int i = 3; i < args.length; i++) {
+                String[] kv = args[i].split("=", 2);
+                if (kv.length < 2) continue;
+                switch (kv[0].toLowerCase()) {
+                    case "chance" -> ov.spreadChance = parseDouble(kv[1], 0.45);
+                    case "lifetime" -> ov.lifetimeTicks = parseInt(kv[1], 200);
+                    case "mode" -> ov.frontier = kv[1].equalsIgnoreCase("frontier");
+                    case "max" -> ov.maxActive = parseInt(kv[1], 0);
+                    case "visual" -> ov.visual = Boolean.parseBoolean(kv[1]);
+                    default -> sender.sendMessage("§7알 수 없는 옵션 무시: " + kv[0]);
+                }
+            }
 
-            plugin.getBacteriaManager().startInfection(p.getLocation(), radius, (perTick>0?perTick:null), 0);
-            sender.sendMessage("§2[MineDisaster] 박테리아 시작: §fradius=" + radius + " §7perTick=" + (perTick>0?perTick:"(config)"));
+            int id = bm.startInfection(p.getLocation(), radius, ov, 0);
+            if (id < 0) { sender.sendMessage("§c동시 발병 상한에 도달했습니다. §7/" + label + " bacteria list"); return true; }
+            sender.sendMessage("§2[MineDisaster] 박테리아 #" + id + " 시작: §fradius=" + radius + " §7perTick=" + (perTick>0?perTick:"(config)"));
             return true;
         }
         if (args[0].equalsIgnoreCase("stop") && args.length >= 2 && args[1].equalsIgnoreCase("bacteria")) {
             if (!checkPerm(sender, "minedisaster.bacteria")) return true;
-            plugin.getBacteriaManager().cancelAll();
-            sender.sendMessage("§a[MineDisaster] 박테리아 정지 + 흔적 제거 완료.");
+            sender.sendMessage("§a[MineDisaster] 박테리아 정지.");
+            plugin.getBacteriaManager().cancelAll(sender);
             return true;
         }
 
@@ -145,6 +227,17 @@ public class DisasterCommand implements CommandExecutor {
                     long day = (w.getFullTime() / 24000L);
                     sender.sendMessage("§6[MineDisaster] 정보: §7World day=" + day + " §7Severity=" + String.format("%.3f", cur) +
                             (plugin.getDoomsdayManager().isManualMode() ? " §c(MANUAL)" : " §a(AUTO)"));
+                    sender.sendMessage("§7 샘플링 청크=" + plugin.getDoomsdayManager().getActiveChunkCount(w)
+                            + " 누적 방문=" + plugin.getDoomsdayManager().getChunksVisited());
+                    var dm = plugin.getDoomsdayManager();
+                    sender.sendMessage("§7 비동기: 묶음=" + dm.getBatches()
+                            + " 스냅샷=" + String.format("%.2f", dm.getMeanSnapshotMs()) + "ms 계산=" + String.format("%.2f", dm.getMeanPlanMs())
+                            + "ms 적용=" + String.format("%.2f", dm.getMeanApplyMs()) + "ms"
+                            + " §7적용=" + dm.getApplied() + " 건너뜀=" + dm.getStale() + " 대기=" + dm.getBacklog());
+                    sender.sendMessage("§7 샘플 적중률=" + String.format("%.1f", dm.getHitRate() * 100) + "% ("
+                            + dm.getSampleHits() + "/" + dm.getSamplesTaken() + ") 포화로 건너뛴 청크=" + dm.getChunksSkipped());
+                    sender.sendMessage("§7 따라잡기: 청크=" + dm.getCatchUpChunks() + " 라운드=" + dm.getCatchUpRounds()
+                            + " 대기=" + dm.getCatchUpBacklog());
                 }
                 default -> sendHelp(sender, label);
             }
@@ -154,23 +247,74 @@ public class DisasterCommand implements CommandExecutor {
         // ─────────── 지진 ───────────
         if (args[0].equalsIgnoreCase("earthquake")) {
             if (!checkPerm(sender, "minedisaster.earthquake")) return true;
-            if (!(sender instanceof Player p)) { sender.sendMessage("§c플레이어만 가능합니다."); return true; }
-
-            if (args.length < 2) { sender.sendMessage("§e사용법: /" + label + " earthquake <start|stop> [규모] [반경] [초]"); return true; }
+            if (args.length < 2) { sender.sendMessage("§e사용법: /" + label + " earthquake <start|stop|list> [규모] [반경] [초] | stop <id>"); return true; }
 
+            var em = plugin.getEarthquakeManager();
             switch (args[1].toLowerCase()) {
                 case "start" -> {
+                    if (!(sender instanceof Player p)) { sender.sendMessage("§c플레이어만 가능합니다."); return true; }
                     double mag = (args.length >= 3) ? parseDouble(args[2], 5.0) : 5.0;
                     int rad    = (args.length >= 4) ? parseInt(args[3], 24)  : 24;
                     int sec    = (args.length >= 5) ? parseInt(args[4], 15)  : 15;
-                    plugin.getEarthquakeManager().start(p.getLocation(), mag, rad, sec);
-                    sender.sendMessage("§6지진 시작: §fm=" + mag + " §7r=" + rad + " §7t=" + sec + "s");
+                    int id = em.start(p.getLocation(), mag, rad, sec);
+                    if (id < 0) { sender.sendMessage("§c동시 지진 상한에 도달했습니다."); return true; }
+                    sender.sendMessage("§6지진 시작: §f#" + id + " m=" + mag + " §7r=" + rad + " §7t=" + sec + "s"
+                            + (em.pendingAftershocks(id) > 0 ? " §7여진 " + em.pendingAftershocks(id) + "회 예정" : ""));
                 }
                 case "stop" -> {
-                    plugin.getEarthquakeManager().stopAll();
-                    sender.sendMessage("§a모든 지진 종료");
+                    if (args.length >= 3) {
+                        int id = parseInt(args[2], -1);
+                        int n = em.stop(id);
+                        sender.sendMessage(n > 0 ? "§a지진 #" + id + " 종료 §7(예정 여진 포함 " + n + "개)" : "§c진행 중이거나 예정된 지진 #" + args[2] + " 이(가) 없습니다.");
+                    } else {
+                        em.stopAll();
+                        sender.sendMessage("§a모든 지진 종료");
+                    }
+                }
+                case "list" -> {
+                    if (!em.isRunning()) { sender.sendMessage("§7진행 중인 지진이 없습니다."); return true; }
+                    var pending = em.getPendingAftershocks();
+                    int pendingTotal = 0;
+                    for (var pa : pending) pendingTotal += pa.count();
+                    sender.sendMessage("§6[MineDisaster] 지진 " + em.getQuakes().size() + "개"
+                            + (pendingTotal > 0 ? " §7예정 여진 " + pendingTotal + "개" : ""));
+                    for (var q : em.getQuakes()) {
+                        Location c = q.getCenter();
+                        sender.sendMessage("§e #" + q.getId() + " §f" + q.getWorld().getName() + " (" + c.getBlockX() + ", " + c.getBlockZ() + ")"
+                                + String.format(" §fm=%.1f", q.getMagnitude()) + " §7r=" + q.getRadius() + " 남은 " + q.getRemainingSeconds() + "s"
+                                + " 패킷=" + q.getShakePackets()
+                                + (q.isAftershock() ? " §8(#" + q.getParent() + " 여진)" : "")
+                                + (em.pendingAftershocks(q.getId()) > 0 ? " §7여진 예정 " + em.pendingAftershocks(q.getId()) : ""));
+                    }
+                    // 본진은 끝났지만 여진이 남은 경우
+                    for (var pa : pending) {
+                        boolean running = false;
+                        for (var q : em.getQuakes()) if (q.getId() == pa.parent()) { running = true; break; }
+                        if (!running) sender.sendMessage("§e #" + pa.parent() + " §8(본진 종료) §7여진 예정 " + pa.count() + " §8(다음 " + pa.nextSeconds() + "s 후)");
+                    }
+                    sender.sendMessage("§7 흔들림(" + plugin.getConfig().getString("earthquake.shake.mode", "velocity") + "): 패킷=" + em.getShakePackets()
+                            + " 적용회차=" + em.getShakeTicks());
+                    long[] cs = em.getCollapseStats();
+                    if (cs[0] > 0) sender.sendMessage("§7 구조 붕괴: 점검=" + cs[0] + " 덩어리=" + cs[1] + " 낙하블록=" + cs[2] + " 엔티티=" + cs[4] + " 대기=" + cs[3]);
+                }
+                default -> sender.sendMessage("§e사용법: /" + label + " earthquake <start|stop|list> [규모] [반경] [초] | stop <id>");
+            }
+            return true;
+        }
+
+        // ─────────── 벤치마크 ───────────
+        if (args[0].equalsIgnoreCase("bench")) {
+            if (!checkPerm(sender, "minedisaster.bench")) return true;
+            if (args.length < 2) { sender.sendMessage("§e사용법: /" + label + " bench <registry|explosion|meteor-alloc> [크기]"); return true; }
+
+            switch (args[1].toLowerCase()) {
+                case "registry" -> DisasterBench.registry(plugin, sender, (args.length >= 3) ? parseInt(args[2], 1_000_000) : 1_000_000);
+                case "explosion" -> {
+                    if (!(sender instanceof Player p)) { sender.sendMessage("§c플레이어만 사용할 수 있습니다."); return true; }
+                    DisasterBench.explosion(plugin, p);
                 }
-                default -> sender.sendMessage("§e사용법: /" + label + " earthquake <start|stop> [규모] [반경] [초]");
+                case "meteor-alloc" -> DisasterBench.meteorAlloc(plugin, sender);
+                default -> sender.sendMessage("§e사용법: /" + label + " bench <registry|explosion|meteor-alloc> [크기]");
             }
             return true;
         }
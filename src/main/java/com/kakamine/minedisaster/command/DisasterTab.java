@@ -5,7 +5,9 @@ import org.bukkit.command.*;
 import java.util.*;
 
 public class DisasterTab implements TabCompleter {
-    public DisasterTab(MineDisaster plugin) {}
+    private final MineDisaster plugin;
+
+    public DisasterTab(MineDisaster plugin) { this.plugin = plugin; }
 
     @Override
     public List<String> onTabComplete(CommandSender sender, Command cmd, String alias, String[] args) {
@@ -13,7 +15,7 @@ public class DisasterTab implements TabCompleter {
 
         // 1번째 인자
         if (args.length == 1)
-            return prefix(List.of("meteor", "bacteria", "doomsday", "earthquake", "stop", "reload"), args[0]);
+            return prefix(List.of("meteor", "bacteria", "doomsday", "earthquake", "stop", "bench", "reload"), args[0]);
 
         // ─────────── stop ───────────
         if (args[0].equalsIgnoreCase("stop")) {
@@ -32,23 +34,39 @@ public class DisasterTab implements TabCompleter {
         // ─────────── meteor ───────────
         if (args[0].equalsIgnoreCase("meteor")) {
             if (args.length == 2)
-                return prefix(List.of("1", "3", "5", "7", "10"), args[1]);
-            if (args.length == 3)
+                return prefix(List.of("stats", "1", "3", "5", "7", "10"), args[1]);
+            if (args.length == 3 && !args[1].equalsIgnoreCase("stats"))
                 return prefix(List.of("5", "8", "10", "12", "15", "20"), args[2]);
         }
 
         // ─────────── bacteria ───────────
         if (args[0].equalsIgnoreCase("bacteria")) {
             if (args.length == 2)
-                return prefix(List.of("3", "5", "8", "10"), args[1]);
+                return prefix(List.of("list", "stats", "stop", "3", "5", "8", "10"), args[1]);
+            if (args.length == 3 && args[1].equalsIgnoreCase("stop")) {
+                List<String> ids = new ArrayList<>();
+                plugin.getBacteriaManager().getOutbreaks().forEach(o -> ids.add(String.valueOf(o.getId())));
+                return prefix(ids, args[2]);
+            }
             if (args.length == 3)
                 return prefix(List.of("80", "100", "120", "150"), args[2]);
+            if (args.length >= 4 && !List.of("list", "stats", "stop").contains(args[1].toLowerCase()))
+                return prefix(List.of("chance=", "lifetime=", "mode=frontier", "mode=random", "max=", "visual=true"), args[args.length - 1]);
         }
 
         // ─────────── earthquake ───────────
         if (args[0].equalsIgnoreCase("earthquake")) {
             if (args.length == 2)
-                return prefix(List.of("start", "stop"), args[1]);
+                return prefix(List.of("start", "stop", "list"), args[1]);
+            if (args.length == 3 && args[1].equalsIgnoreCase("stop")) {
+                List<String> ids = new ArrayList<>();
+                for (var q : plugin.getEarthquakeManager().getQuakes()) ids.add(String.valueOf(q.getId()));
+                for (var pa : plugin.getEarthquakeManager().getPendingAftershocks()) {
+                    String id = String.valueOf(pa.parent());
+                    if (!ids.contains(id)) ids.add(id);
+                }
+                return prefix(ids, args[2]);
+            }
             if (args.length == 3 && args[1].equalsIgnoreCase("start"))
                 return prefix(List.of("3.0", "5.0", "7.0"), args[2]);
             if (args.length == 4 && args[1].equalsIgnoreCase("start"))
@@ -57,6 +75,14 @@ public class DisasterTab implements TabCompleter {
                 return prefix(List.of("10", "15", "20", "30"), args[4]);
         }
 
+        // ─────────── bench ───────────
+        if (args[0].equalsIgnoreCase("bench")) {
+            if (args.length == 2)
+                return prefix(List.of("registry", "explosion", "meteor-alloc"), args[1]);
+            if (args.length == 3 && args[1].equalsIgnoreCase("registry"))
+                return prefix(List.of("100000", "1000000", "4000000"), args[2]);
+        }
+
         return List.of();
     }
 
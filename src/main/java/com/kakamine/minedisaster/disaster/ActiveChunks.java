@@ -0,0 +1,224 @@
+package com.kakamine.minedisaster.disaster;
+
+import com.kakamine.minedisaster.util.BlockKeys;
+import com.kakamine.minedisaster.util.LongIntMap;
+import org.bukkit.Chunk;
+import org.bukkit.NamespacedKey;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.persistence.PersistentDataType;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 지구 멸망 활성 청크 집합 (월드 하나)
+ * - 로드된 청크(ChunkLoad/UnloadEvent) ∩ 플레이어 scan-radius 원 안 = 샘플링 대상
+ * - 청크마다 "주변 플레이어 수"를 세어 두고, 플레이어가 다른 청크로 옮길 때만 원 두 개를 갱신
+ *   → 같은 지역에 플레이어가 몰려도 청크는 한 번만 들어감
+ * - 대상은 촘촘한 long 배열(키 = BlockKeys.chunk) + 키→칸 맵, 제거는 마지막 원소와 자리 바꿈
+ * - 틱을 넘어 유지되는 라운드로빈 커서로 고르게 순회
+ * - 청크별 수확률(샘플 중 변경이 난 비율의 지수이동평균, 0~1): 로드된 청크만 메모리에 두고
+ *   바뀔 때마다 청크 PDC 에 써 둠 → 언로드/재시작 뒤에도 이어감
+ * - 로드된 청크는 따라잡기 대기열에 넣어 두고 틱마다 몇 개씩 꺼내 감 (처음 이미 로드돼 있던 청크 포함)
+ *   꺼내기 전까지는 catchUpPending → 샘플링이 처리 시점을 덮어써 밀린 시간을 지우지 않도록
+ */
+final class ActiveChunks {
+
+    final World world;
+    private final LongIntMap loaded = new LongIntMap(256, 0);
+    private final LongIntMap near = new LongIntMap(256, 0);   // 청크 → 원 안에 있는 플레이어 수
+    private final Map<UUID, long[]> players = new HashMap<>(); // 플레이어 → [중심 청크, 마지막 갱신 회차]
+    private int radius = -1;
+    private long round;
+
+    private long[] keys = new long[256];
+    private final LongIntMap slot = new LongIntMap(256, -1);
+    private int size, cursor;
+
+    private static final int UNKNOWN = -1; // 0~1 float 비트는 음수가 될 수 없음
+    private final NamespacedKey yieldKey;
+    private final LongIntMap yields = new LongIntMap(256, UNKNOWN); // 청크 → Float 비트
+
+    // 따라잡기 대기 (로드 순서대로, 꺼낼 때 아직 대기 중인지 확인)
+    private long[] catchUp = new long[64];
+    private int cuHead, cuSize;
+    private final LongIntMap awaiting = new LongIntMap(64, 0);
+
+    ActiveChunks(World world, NamespacedKey yieldKey) {
+        this.world = world;
+        this.yieldKey = yieldKey;
+        for (Chunk c : world.getLoadedChunks()) {
+            long k = BlockKeys.chunk(c.getX(), c.getZ());
+            loaded.put(k, 1);
+            queueCatchUp(k);
+        }
+    }
+
+    void chunkLoaded(int cx, int cz) {
+        long k = BlockKeys.chunk(cx, cz);
+        loaded.put(k, 1);
+        if (near.get(k) > 0) add(k);
+        queueCatchUp(k);
+    }
+
+    private void queueCatchUp(long k) {
+        if (awaiting.put(k, 1) != 0) return;
+        if (cuSize == catchUp.length) {
+            long[] n = new long[catchUp.length << 1];
+            for (int i = 0; i < cuSize; i++) n[i] = catchUp[(cuHead + i) % catchUp.length];
+            catchUp = n;
+            cuHead = 0;
+        }
+        catchUp[(cuHead + cuSize) % catchUp.length] = k;
+        cuSize++;
+    }
+
+    /** 따라잡기 대기 중 다음 로드된 청크 키, 없으면 LongIntMap.EMPTY */
+    long pollCatchUp() {
+        while (cuSize > 0) {
+            long k = catchUp[cuHead];
+            cuHead = (cuHead + 1) % catchUp.length;
+            cuSize--;
+            if (awaiting.remove(k) != 0) return k; // 언로드 때 빠졌으면 0
+        }
+        return LongIntMap.EMPTY;
+    }
+
+    /** 아직 따라잡기 전인 청크 (처리 시점을 기록하면 안 됨) */
+    boolean catchUpPending(long k) { return awaiting.get(k) != 0; }
+
+    int catchUpBacklog() { return awaiting.size(); }
+
+    /** 따라잡기를 끈 경우: 대기열을 비움 */
+    void clearCatchUp() {
+        cuHead = cuSize = 0;
+        awaiting.clear();
+    }
+
+    void chunkUnloaded(int cx, int cz) {
+        long k = BlockKeys.chunk(cx, cz);
+        loaded.remove(k);
+        yields.remove(k);
+        awaiting.remove(k);
+        remove(k);
+    }
+
+    /** 플레이어 위치 반영 (청크가 바뀐 플레이어만 원 갱신, 사라진 플레이어는 원 제거) */
+    void updatePlayers(Iterable<Player> online, int scanRadius) {
+        if (scanRadius != radius) {
+            // 반경이 바뀌면 처음부터 다시
+            for (long[] e : players.values()) disc(e[0], -1);
+            players.clear();
+            radius = scanRadius;
+        }
+        round++;
+        for (Player p : online) {
+            long c = BlockKeys.chunk(p.getLocation().getBlockX() >> 4, p.getLocation().getBlockZ() >> 4);
+            long[] e = players.get(p.getUniqueId());
+            if (e == null) {
+                players.put(p.getUniqueId(), new long[]{c, round});
+                disc(c, +1);
+            } else {
+                if (e[0] != c) { disc(e[0], -1); disc(c, +1); e[0] = c; }
+                e[1] = round;
+            }
+        }
+        for (Iterator<long[]> it = players.values().iterator(); it.hasNext(); ) {
+            long[] e = it.next();
+            if (e[1] != round) { disc(e[0], -1); it.remove(); }
+        }
+    }
+
+    private void disc(long center, int delta) {
+        int bx = BlockKeys.chunkX(center), bz = BlockKeys.chunkZ(center);
+        int r2 = radius * radius;
+        for (int dx = -radius; dx <= radius; dx++) {
+            for (int dz = -radius; dz <= radius; dz++) {
+                if (dx * dx + dz * dz > r2) continue;
+                long k = BlockKeys.chunk(bx + dx, bz + dz);
+                int n = near.addTo(k, delta);
+                if (n <= 0) { near.remove(k); remove(k); }
+                else if (n == delta && loaded.get(k) != 0) add(k);
+            }
+        }
+    }
+
+    private void add(long k) {
+        if (slot.get(k) >= 0) return;
+        if (size == keys.length) keys = Arrays.copyOf(keys, size << 1);
+        keys[size] = k;
+        slot.put(k, size);
+        size++;
+    }
+
+    private void remove(long k) {
+        int s = slot.remove(k);
+        if (s < 0) return;
+        int last = --size;
+        if (s < cursor) {
+            // 이번 바퀴에 이미 본 구간 [0, cursor) 과 아직 안 본 구간을 섞지 않도록 두 번 옮김
+            int c = --cursor;
+            if (c != s) move(c, s);
+            if (last != c) move(last, c);
+        } else if (s != last) {
+            move(last, s);
+        }
+    }
+
+    private void move(int from, int to) {
+        keys[to] = keys[from];
+        slot.put(keys[to], to);
+    }
+
+    int size() { return size; }
+
+    /** 라운드로빈 다음 청크 키 (size() > 0 일 때만) */
+    long next() {
+        if (cursor >= size) cursor = 0;
+        return keys[cursor++];
+    }
+
+    /** 수확률 (처음 보는 청크는 PDC, 없으면 initial) */
+    float yieldOf(long k, float initial) {
+        int bits = yields.get(k);
+        if (bits != UNKNOWN) return Float.intBitsToFloat(bits);
+        float v = initial;
+        int cx = BlockKeys.chunkX(k), cz = BlockKeys.chunkZ(k);
+        if (world.isChunkLoaded(cx, cz)) {
+            Float stored = world.getChunkAt(cx, cz).getPersistentDataContainer().get(yieldKey, PersistentDataType.FLOAT);
+            if (stored != null) v = stored;
+            yields.put(k, Float.floatToIntBits(v));
+        }
+        return v;
+    }
+
+    /**
+     * 샘플 결과 반영: 샘플 하나당 alpha 만큼 적중률 쪽으로 이동
+     * @param samples 규칙까지 간 샘플 수
+     * @param hits    그중 블록이 바뀐 샘플 수
+     */
+    void recordYield(long k, int samples, int hits, double alpha, float initial) {
+        if (samples <= 0) return;
+        int cx = BlockKeys.chunkX(k), cz = BlockKeys.chunkZ(k);
+        if (!world.isChunkLoaded(cx, cz)) return;
+        float cur = yieldOf(k, initial);
+        double a = 1.0 - Math.pow(1.0 - alpha, samples);
+        float next = (float) Math.max(0.0, Math.min(1.0, cur + a * ((double) hits / samples - cur)));
+        yields.put(k, Float.floatToIntBits(next));
+        world.getChunkAt(cx, cz).getPersistentDataContainer().set(yieldKey, PersistentDataType.FLOAT, next);
+    }
+
+    void clear() {
+        yields.clear();
+        clearCatchUp();
+        near.clear();
+        players.clear();
+        slot.clear();
+        size = cursor = 0;
+        radius = -1;
+    }
+}
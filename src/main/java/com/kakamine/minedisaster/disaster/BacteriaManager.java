@@ -1,13 +1,18 @@
 package com.kakamine.minedisaster.disaster;
 
 import com.kakamine.minedisaster.MineDisaster;
+import com.kakamine.minedisaster.util.BlockKeys;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.World;
 import org.bukkit.block.Block;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.command.CommandSender;
+import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
-import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.scheduler.BukkitTask;
 
 import java.util.*;
 
@@ -15,40 +20,73 @@ import java.util.*;
  * 예전 스타일 박테리아(랜덤 확산) + 흔적 정리
  * - 공기/베드락/커맨드블록/구조블록/포털 등 파괴 불가·특수 블록은 제외
  * - setType(..., true)로 물리 상호작용 유도
+ * - 여러 발병(Outbreak)을 동시에 진행, 공용 티커 하나가 전체 작업 예산을 공평하게 나눔
+ * - visual 발병은 월드를 바꾸지 않고 주변 플레이어에게 가짜 블록만 전송
  */
 public class BacteriaManager implements Listener {
 
     private final MineDisaster plugin;
-    private final Set<Location> infected = new HashSet<>(); // 감염된 블록 좌표(정수)
     private final Random random = new Random();
 
-    private BukkitRunnable task;
-    private boolean running = false;
+    // 진행 중인 발병 (id 순)
+    private final Map<Integer, Outbreak> outbreaks = new LinkedHashMap<>();
+    private int nextId = 1;
+    private BukkitTask task;
+    private int ticks;
+    private int rotate; // 나머지 몫을 받을 시작 위치(틱마다 회전)
+
+    // 정지 시 흔적 정리(틱당 시간 예산)
+    private final RestorationPipeline cleanup;
+    // 보이기 전용 감염 전송
+    private final InfectionVisuals visuals;
+
+    private static final int[] DX = {1,-1,0,0,0,0};
+    private static final int[] DY = {0,0,1,-1,0,0};
+    private static final int[] DZ = {0,0,0,0,1,-1};
+    private final int[] order = {0,1,2,3,4,5};
 
     // config 캐시
     private Material infectionBlock;
+    private BlockData infectionData;
     private Material replaceAfter;
     private int lifetimeTicks;
     private int tickInterval;
     private int perTick;
     private double spreadChance;
     private int maxActive; // 0이면 무제한
+    private int expirePerTick; // 틱당 최대 원복 수(전체 발병 합)
+    private boolean frontierMode; // spread-mode: frontier
+    private int globalBudget; // 확산 틱당 전체 작업량(모든 발병 합)
+    private int maxOutbreaks;
+    private boolean visualDefault;
     private Set<Material> targetBlocks;
 
     public BacteriaManager(MineDisaster plugin) {
         this.plugin = plugin;
+        this.cleanup = new RestorationPipeline(plugin);
+        this.visuals = new InfectionVisuals(this::forEachVisualInChunk);
         reloadTypes();
     }
 
     /** config.yml 값 다시 읽기 */
     public void reloadTypes() {
         infectionBlock = Material.matchMaterial(plugin.getConfig().getString("bacteria.infection-block", "SCULK"));
+        infectionData  = infectionBlock.createBlockData();
         replaceAfter   = Material.matchMaterial(plugin.getConfig().getString("bacteria.replace-after", "AIR"));
         lifetimeTicks  = plugin.getConfig().getInt("bacteria.lifetime-ticks", 200);
         tickInterval   = plugin.getConfig().getInt("bacteria.tick-interval", 5);
         perTick        = plugin.getConfig().getInt("bacteria.per-tick", 120);
         spreadChance   = plugin.getConfig().getDouble("bacteria.spread-chance", 0.45);
         maxActive      = plugin.getConfig().getInt("bacteria.max-active", 0);
+        expirePerTick  = Math.max(1, plugin.getConfig().getInt("bacteria.expire-per-tick", 2000));
+        frontierMode   = plugin.getConfig().getString("bacteria.spread-mode", "random").equalsIgnoreCase("frontier");
+        globalBudget   = Math.max(1, plugin.getConfig().getInt("bacteria.global-budget", 200));
+        maxOutbreaks   = Math.max(1, plugin.getConfig().getInt("bacteria.max-outbreaks", 20));
+        visualDefault  = plugin.getConfig().getBoolean("bacteria.visual.enabled", false);
+        visuals.configure(plugin.getConfig().getInt("bacteria.visual.radius-chunks", 8),
+                          plugin.getConfig().getInt("bacteria.visual.resend-delay-ticks", 10));
+        cleanup.configure(plugin.getConfig().getDouble("bacteria.cleanup.budget-ms", 5.0),
+                          plugin.getConfig().getBoolean("bacteria.cleanup.apply-physics", true));
 
         targetBlocks = new HashSet<>();
         List<String> list = plugin.getConfig().getStringList("bacteria.target-blocks");
@@ -63,8 +101,8 @@ public class BacteriaManager implements Listener {
     }
 
     /** 정수 좌표 키 */
-    private Location keyOf(Block b) {
-        return new Location(b.getWorld(), b.getX(), b.getY(), b.getZ());
+    private long keyOf(Block b) {
+        return BlockKeys.pack(b.getX(), b.getY(), b.getZ());
     }
 
     /** 감염 가능한 블록인지 (공기/파괴불가/특수 제외 + 타깃 화이트리스트 충족) */
@@ -89,15 +127,32 @@ public class BacteriaManager implements Listener {
         return targetBlocks.isEmpty() || targetBlocks.contains(m);
     }
 
-    /** 박테리아 시작 */
+    /** 박테리아 시작 (기존 호출 호환) */
     public void startInfection(Location start, int radius, Integer perTickOverride, int startDelay) {
-        if (running) cancelAll();
+        Outbreak.Overrides ov = new Outbreak.Overrides();
+        ov.perTick = perTickOverride;
+        startInfection(start, radius, ov, startDelay);
+    }
 
-        running = true;
-        infected.clear();
+    /**
+     * 새 발병 시작 (기존 발병은 그대로 진행)
+     * @return 발병 id, 동시 발병 상한이면 -1
+     */
+    public int startInfection(Location start, int radius, Outbreak.Overrides ov, int startDelay) {
+        if (outbreaks.size() >= maxOutbreaks) return -1;
+        if (ov == null) ov = new Outbreak.Overrides();
 
         final World world = start.getWorld();
-        final int workPerTick = (perTickOverride != null && perTickOverride > 0) ? perTickOverride : perTick;
+        final int workPerTick = (ov.perTick != null && ov.perTick > 0) ? ov.perTick : perTick;
+        final Outbreak o = new Outbreak(nextId++, start, radius, Math.max(1, workPerTick),
+                ov.spreadChance != null ? Math.max(0.0, Math.min(1.0, ov.spreadChance)) : spreadChance,
+                ov.lifetimeTicks != null ? Math.max(1, ov.lifetimeTicks) : lifetimeTicks,
+                ov.frontier != null ? ov.frontier : frontierMode,
+                ov.maxActive != null ? ov.maxActive : maxActive,
+                ov.visual != null ? ov.visual : visualDefault,
+                Math.max(0, startDelay));
+        o.expireFn = key -> expire(o, key);
+        outbreaks.put(o.id, o);
 
         // 시드 배치
         int seeds = Math.max(1, radius * 2);
@@ -109,97 +164,270 @@ public class BacteriaManager implements Listener {
             int y = world.getHighestBlockYAt(x, z) - 1;
             Block base = world.getBlockAt(x, y, z);
             if (isInfectable(base)) {
-                tryInfect(base);
+                tryInfect(o, base);
             }
         }
-        if (infected.isEmpty()) {
+        if (o.infected.isEmpty()) {
             int x = start.getBlockX(), z = start.getBlockZ();
             int y = world.getHighestBlockYAt(x, z) - 1;
-            tryInfect(world.getBlockAt(x, y, z));
+            tryInfect(o, world.getBlockAt(x, y, z));
         }
 
-        task = new BukkitRunnable() {
-            @Override public void run() {
-                if (!running) return;
+        if (task == null) {
+            ticks = 0;
+            task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+        }
+        plugin.getLogger().info("박테리아 시작 #" + o.id + ": radius=" + radius + ", perTick=" + o.perTickCap
+                + ", mode=" + o.getSpreadMode() + (o.visual ? ", visual" : "") + ", world=" + world.getName());
+        return o.id;
+    }
+
+    /** 공용 티커: 수명 만료(매 틱) + 확산(tick-interval 마다), 둘 다 전체 예산을 발병끼리 나눔 */
+    private void tick() {
+        if (outbreaks.isEmpty()) {
+            visuals.flush(infectionData); // 마지막 되돌리기 전송
+            task.cancel();
+            task = null;
+            return;
+        }
+        final Outbreak[] list = outbreaks.values().toArray(new Outbreak[0]);
+        final int n = list.length;
+        final int[] want = new int[n];
+        final int[] got = new int[n];
+        rotate = (rotate + 1) % n;
+
+        // 1) 수명 만료
+        for (int i = 0; i < n; i++) {
+            Outbreak o = list[i];
+            if (o.delayTicks > 0) continue;
+            o.expiry.tick();
+            want[i] = o.expiry.backlog();
+        }
+        fairSplit(expirePerTick, want, got, rotate);
+        for (int i = 0; i < n; i++) {
+            if (got[i] > 0) list[i].expiry.drain(got[i], list[i].expireFn);
+        }
+
+        // 2) 확산
+        if (ticks++ % Math.max(1, tickInterval) != 0) {
+            for (Outbreak o : list) if (o.delayTicks > 0) o.delayTicks--;
+            tickVisuals(list);
+            return;
+        }
+        for (int i = 0; i < n; i++) {
+            Outbreak o = list[i];
+            boolean blocked = o.delayTicks > 0 || !o.hasSources()
+                    || (o.maxActive > 0 && o.infected.size() >= o.maxActive);
+            want[i] = blocked ? 0 : o.perTickCap;
+            got[i] = 0;
+            if (o.delayTicks > 0) o.delayTicks--;
+        }
+        fairSplit(globalBudget, want, got, rotate);
+        for (int i = 0; i < n; i++) {
+            list[i].lastShare = got[i];
+            if (got[i] > 0) spread(list[i], got[i]);
+        }
+        tickVisuals(list);
+    }
 
-                if (maxActive > 0 && infected.size() >= maxActive) return;
+    /** 보이기 발병이 있는 월드의 시야 갱신 + 이번 틱 변경분 묶음 전송 */
+    private void tickVisuals(Outbreak[] list) {
+        Set<World> worlds = null;
+        for (Outbreak o : list) {
+            if (!o.visual) continue;
+            if (worlds == null) worlds = new HashSet<>(2);
+            worlds.add(o.world);
+        }
+        if (worlds != null) visuals.tick(worlds, infectionData);
+    }
 
-                // 감염원 중 하나를 골라 이웃 전파
-                for (int i = 0; i < workPerTick; i++) {
-                    if (infected.isEmpty()) break;
+    /** InfectionVisuals 재전송용: 해당 청크의 보이기 감염 좌표 */
+    private void forEachVisualInChunk(World w, int cx, int cz, java.util.function.LongConsumer fn) {
+        int minSy = w.getMinHeight() >> 4, maxSy = (w.getMaxHeight() - 1) >> 4;
+        for (Outbreak o : outbreaks.values()) {
+            if (o.visual && o.world == w) o.infected.forEachInChunk(cx, cz, minSy, maxSy, fn);
+        }
+    }
 
-                    Location src = infected.stream()
-                            .skip(random.nextInt(Math.max(1, infected.size())))
-                            .findFirst().orElse(null);
-                    if (src == null) break;
+    @EventHandler
+    public void onQuit(PlayerQuitEvent e) {
+        visuals.forget(e.getPlayer().getUniqueId());
+    }
 
-                    Block b = world.getBlockAt(src);
-                    spreadFrom(b);
+    /**
+     * budget 을 want 한도 안에서 공평하게 분배(물 채우기 방식)
+     * - 다 못 쓰는 쪽의 남은 몫은 다른 발병에게 다시 나눔
+     * - 나누어 떨어지지 않는 나머지는 start 부터 돌아가며 1씩
+     */
+    static void fairSplit(int budget, int[] want, int[] got, int start) {
+        final int n = want.length;
+        int hungry = 0;
+        for (int i = 0; i < n; i++) if (want[i] > got[i]) hungry++;
+        int left = budget;
+        while (left > 0 && hungry > 0) {
+            int share = left / hungry;
+            if (share == 0) {
+                for (int k = 0; k < n && left > 0; k++) {
+                    int i = (start + k) % n;
+                    if (want[i] > got[i]) { got[i]++; left--; }
                 }
+                break;
+            }
+            for (int i = 0; i < n; i++) {
+                int need = want[i] - got[i];
+                if (need <= 0) continue;
+                int give = Math.min(need, share);
+                got[i] += give;
+                left -= give;
+                if (got[i] >= want[i]) hungry--;
             }
-        };
-        task.runTaskTimer(plugin, Math.max(0, startDelay), Math.max(1, tickInterval));
-        plugin.getLogger().info("박테리아 시작: radius=" + radius + ", perTick=" + workPerTick + ", world=" + world.getName());
+        }
     }
 
-    /** 특정 블록을 감염 시도 */
-    private void tryInfect(Block block) {
-        if (!isInfectable(block)) return;
-        if (random.nextDouble() >= spreadChance) return;
+    /** 발병 하나에서 work 번 감염원 추출 → 이웃 전파 (프런티어 모드면 프런티어에서만) */
+    private void spread(Outbreak o, int work) {
+        final InfectionRegistry pool = o.frontierMode ? o.frontier : o.infected;
+        final long before = o.infectionCount;
+        final long t0 = System.nanoTime();
+        for (int i = 0; i < work; i++) {
+            if (pool.isEmpty()) break;
+
+            long src = pool.random(random);
+            int remaining = spreadFrom(o, src);
+            // 주변이 모두 감염/불가 → 포화, 프런티어에서 은퇴
+            if (o.frontierMode && remaining == 0) o.frontier.remove(src);
+        }
+        o.spreadNanos += System.nanoTime() - t0;
+        o.spreadInfections += o.infectionCount - before;
+    }
+
+    /** 특정 블록을 감염 시도. @return 감염되었으면 true */
+    private boolean tryInfect(Outbreak o, Block block) {
+        if (!isInfectable(block)) return false;
+        if (random.nextDouble() >= o.spreadChance) return false;
 
-        block.setType(infectionBlock, true);
-        Location key = keyOf(block);
-        infected.add(key);
+        long key = keyOf(block);
+        if (!o.infected.add(key)) return false;
+        if (o.visual) visuals.show(o.world, key);
+        else block.setType(infectionBlock, true);
+        if (o.frontierMode) o.frontier.add(key);
+        o.infectionCount++;
 
         // lifetime 이후 원복
-        Bukkit.getScheduler().runTaskLater(plugin, () -> {
-            Block b = block.getWorld().getBlockAt(block.getX(), block.getY(), block.getZ());
-            if (b.getType() == infectionBlock) {
-                b.setType(replaceAfter, true);
-            }
-            infected.remove(key);
-        }, lifetimeTicks);
+        o.expiry.schedule(key, o.lifetimeTicks);
+        return true;
     }
 
-    /** 6방향 이웃 전파 */
-    private void spreadFrom(Block src) {
-        World w = src.getWorld();
-        int x = src.getX(), y = src.getY(), z = src.getZ();
+    /** 수명이 끝난 감염 블록 원복 */
+    private void expire(Outbreak o, long key) {
+        if (!o.infected.remove(key)) return;
+        o.frontier.remove(key);
+        if (o.visual) {
+            if (!isInfectedByAny(o.world, key)) visuals.hide(o.world, key);
+            return;
+        }
+        Block b = o.world.getBlockAt(BlockKeys.x(key), BlockKeys.y(key), BlockKeys.z(key));
+        if (b.getType() == infectionBlock) {
+            b.setType(replaceAfter, true);
+        }
+    }
 
-        int[][] dirs = { {1,0,0},{-1,0,0},{0,1,0},{0,-1,0},{0,0,1},{0,0,-1} };
-        for (int i = 0; i < dirs.length; i++) {
-            int j = random.nextInt(dirs.length);
-            int[] tmp = dirs[i]; dirs[i] = dirs[j]; dirs[j] = tmp;
+    /** 6방향 이웃 전파. @return 시도 후에도 감염 가능한 채로 남은 이웃 수 */
+    private int spreadFrom(Outbreak o, long src) {
+        World w = o.world;
+        int x = BlockKeys.x(src), y = BlockKeys.y(src), z = BlockKeys.z(src);
+
+        for (int i = 0; i < order.length; i++) {
+            int j = random.nextInt(order.length);
+            int tmp = order[i]; order[i] = order[j]; order[j] = tmp;
         }
 
-        for (int[] d : dirs) {
-            int nx = x + d[0], ny = y + d[1], nz = z + d[2];
+        int remaining = 0;
+        for (int d : order) {
+            int ny = y + DY[d];
             if (ny < w.getMinHeight() || ny >= w.getMaxHeight()) continue;
-            Block nb = w.getBlockAt(nx, ny, nz);
-            if (isInfectable(nb)) {
-                tryInfect(nb);
-            }
+            // 보이기 모드는 월드 블록이 그대로라 레지스트리로 이미 감염된 칸을 거름
+            if (o.infected.contains(x + DX[d], ny, z + DZ[d])) continue;
+            Block nb = w.getBlockAt(x + DX[d], ny, z + DZ[d]);
+            if (isInfectable(nb) && !tryInfect(o, nb)) remaining++;
+        }
+        return remaining;
+    }
+
+    /** 같은 월드의 진행 중인 발병 중 하나라도 이 칸을 감염 중인지 */
+    private boolean isInfectedByAny(World w, long key) {
+        for (Outbreak o : outbreaks.values()) {
+            if (o.world == w && o.infected.contains(key)) return true;
         }
+        return false;
+    }
+
+    /**
+     * 발병 하나 중지 + 흔적 정리
+     * - 정리는 청크 단위로 묶어 틱당 시간 예산 안에서 진행(sender 에게 진행 상황 전송)
+     * - 정리 시점에 다른 발병이 감염 중인 칸은 건너뜀
+     * @return 해당 id 가 없으면 false
+     */
+    public boolean stop(int id, CommandSender sender) {
+        Outbreak o = outbreaks.remove(id);
+        if (o == null) return false;
+
+        final World w = o.world;
+        final long[] cells = o.infected.toArray();
+        o.infected.clear();
+        o.frontier.clear();
+        o.expiry.clear();
+        if (o.visual) {
+            // 월드는 그대로이므로 플레이어 화면만 실제 블록으로 되돌림
+            for (long key : cells) if (!isInfectedByAny(w, key)) visuals.hide(w, key);
+            visuals.flush(infectionData);
+            if (sender != null) sender.sendMessage("§a[MineDisaster] 보이기 감염 #" + id + " 해제: §f" + cells.length + "블록");
+        } else {
+            cleanup.enqueue(w, cells, infectionBlock, replaceAfter, sender, key -> isInfectedByAny(w, key));
+        }
+
+        plugin.getLogger().info("박테리아 #" + id + " 정지, 흔적 정리 예약: " + cells.length + "블록");
+        return true;
     }
 
     /** 모든 감염 중지 + 흔적 정리 */
-    public void cancelAll() {
-        running = false;
-        if (task != null) task.cancel();
-        task = null;
-
-        Bukkit.getScheduler().runTask(plugin, () -> {
-            for (Location loc : infected) {
-                Block b = loc.getBlock();
-                if (b.getType() == infectionBlock) {
-                    b.setType(replaceAfter, true);
-                }
-            }
-            infected.clear();
-        });
+    public void cancelAll() { cancelAll(null); }
 
-        plugin.getLogger().info("박테리아 정지 및 흔적 정리 완료");
+    /** 모든 발병 중지 + 흔적 정리 */
+    public void cancelAll(CommandSender sender) {
+        for (Integer id : new ArrayList<>(outbreaks.keySet())) stop(id, sender);
+        if (task != null) { task.cancel(); task = null; }
     }
 
-    public boolean isRunning() { return running; }
+    public boolean isRunning() { return !outbreaks.isEmpty(); }
+    public Collection<Outbreak> getOutbreaks() { return Collections.unmodifiableCollection(outbreaks.values()); }
+    public int getGlobalBudget() { return globalBudget; }
+    public int getInfectedCount() {
+        int n = 0;
+        for (Outbreak o : outbreaks.values()) n += o.infected.size();
+        return n;
+    }
+    /** 보이기 모드로 전송한 블록 변경 수 / 묶음 수 */
+    public long getVisualSentBlocks() { return visuals.getSentBlocks(); }
+    public long getVisualSentBatches() { return visuals.getSentBatches(); }
+    /** 정리 대기 중인 흔적 수 */
+    public int getCleanupRemaining() { return cleanup.remaining(); }
+    /** 원복 대기(아직 수명 남음) */
+    public int getPendingExpiry() {
+        int n = 0;
+        for (Outbreak o : outbreaks.values()) n += o.expiry.pending();
+        return n;
+    }
+    /** 수명은 끝났지만 틱당 상한 때문에 밀린 원복 수 */
+    public int getExpiryBacklog() {
+        int n = 0;
+        for (Outbreak o : outbreaks.values()) n += o.expiry.backlog();
+        return n;
+    }
+    /** 전체 처리량(감염/ms, 확산 루프 시간 기준) */
+    public double getInfectionsPerMs() {
+        long inf = 0, ns = 0;
+        for (Outbreak o : outbreaks.values()) { inf += o.spreadInfections; ns += o.spreadNanos; }
+        return ns == 0 ? 0.0 : inf / (ns / 1_000_000.0);
+    }
 }
@@ -0,0 +1,183 @@
+package com.kakamine.minedisaster.disaster;
+
+import com.kakamine.minedisaster.MineDisaster;
+import com.kakamine.minedisaster.util.BlockKeys;
+import com.kakamine.minedisaster.util.LongIntMap;
+import com.kakamine.minedisaster.util.TimerWheel;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.entity.FallingBlock;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * 메테오 파편 수명 관리
+ * - 살아 있는 파편은 전역 상한(max-live) 크기의 원형 배열에 생성 순서대로 보관, 가득 차면 가장 오래된 것부터 제거
+ * - 만료는 타이머 휠 하나(키 = 생성 순번), 파편마다 runTaskLater 를 두지 않음
+ * - 착지 처리(네더랙 변환/점화)는 이벤트에서 위치만 모아 두고 틱당 한 번에 적용
+ */
+final class DebrisManager {
+
+    private final MineDisaster plugin;
+    private final Random rnd = new Random();
+
+    // 원형 배열: 순번 seq 의 칸 = seq % cap, [headSeq, tailSeq) 가 살아 있을 수 있는 범위
+    private FallingBlock[] ring = new FallingBlock[0];
+    private long headSeq, tailSeq;
+    private int live;
+    private final LongIntMap slotByEntity = new LongIntMap(-1); // 엔티티 id → 칸
+    private final TimerWheel expiry = new TimerWheel();
+
+    // 이번 틱에 착지한 위치
+    private World[] landWorlds = new World[64];
+    private long[] landKeys = new long[64];
+    private int landSize;
+
+    private BukkitTask task;
+
+    // 통계
+    private long spawned, shed, expired, landed;
+    private int peak;
+
+    DebrisManager(MineDisaster plugin) {
+        this.plugin = plugin;
+    }
+
+    private int slot(long seq) { return (int) (seq % ring.length); }
+
+    /** 상한 반영 (비어 있을 때만 크기 변경) */
+    private void ensureCapacity() {
+        int cap = Math.max(16, plugin.getConfig().getInt("meteor.debris.max-live", 400));
+        if (cap != ring.length && live == 0) {
+            ring = new FallingBlock[cap];
+            headSeq = tailSeq = 0;
+            expiry.clear();
+        }
+    }
+
+    void add(FallingBlock fb, int lifetimeTicks) {
+        ensureCapacity();
+        if (tailSeq - headSeq == ring.length) shedOldest();
+
+        long seq = tailSeq++;
+        int s = slot(seq);
+        ring[s] = fb;
+        slotByEntity.put(fb.getEntityId(), s);
+        expiry.schedule(seq, lifetimeTicks);
+        live++;
+        spawned++;
+        if (live > peak) peak = live;
+        if (task == null) task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+    }
+
+    boolean isDebris(FallingBlock fb) {
+        int s = slotByEntity.get(fb.getEntityId());
+        return s >= 0 && ring[s] == fb;
+    }
+
+    /** 착지 이벤트: 엔티티는 블록이 되므로 추적에서 빼고 위치만 모아 둠 */
+    void onLand(FallingBlock fb, Block placed) {
+        int s = slotByEntity.get(fb.getEntityId());
+        if (s < 0 || ring[s] != fb) return;
+        release(s);
+
+        if (landSize == landKeys.length) {
+            landKeys = Arrays.copyOf(landKeys, landSize << 1);
+            landWorlds = Arrays.copyOf(landWorlds, landSize << 1);
+        }
+        landWorlds[landSize] = placed.getWorld();
+        landKeys[landSize] = BlockKeys.pack(placed.getX(), placed.getY(), placed.getZ());
+        landSize++;
+    }
+
+    /** 엔티티가 다른 이유로 사라짐 (만료/상한 제거 때는 이미 빠져 있음) */
+    void invalidate(FallingBlock fb) {
+        int s = slotByEntity.get(fb.getEntityId());
+        if (s >= 0 && ring[s] == fb) release(s);
+    }
+
+    private void release(int s) {
+        FallingBlock fb = ring[s];
+        ring[s] = null;
+        slotByEntity.remove(fb.getEntityId());
+        live--;
+        while (headSeq < tailSeq && ring[slot(headSeq)] == null) headSeq++;
+    }
+
+    private void shedOldest() {
+        while (headSeq < tailSeq) {
+            int s = slot(headSeq);
+            FallingBlock fb = ring[s];
+            if (fb == null) { headSeq++; continue; }
+            release(s);
+            if (fb.isValid()) fb.remove();
+            shed++;
+            return;
+        }
+    }
+
+    private void tick() {
+        expiry.tick();
+        expiry.drain(Integer.MAX_VALUE, seq -> {
+            if (seq < headSeq) return; // 이미 밀려나 제거됨
+            int s = slot(seq);
+            FallingBlock fb = ring[s];
+            if (fb == null) return;    // 착지함
+            release(s);
+            if (fb.isValid()) fb.remove();
+            expired++;
+        });
+
+        if (landSize > 0) applyLandings();
+
+        if (live == 0 && landSize == 0) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    private void applyLandings() {
+        double igniteChance = plugin.getConfig().getDouble("meteor.debris.ignite-on-land-chance", 0.55);
+        double toNeth = plugin.getConfig().getDouble("meteor.debris.turn-to-netherrack-chance", 0.25);
+        for (int i = 0; i < landSize; i++) {
+            long k = landKeys[i];
+            Block placed = landWorlds[i].getBlockAt(BlockKeys.x(k), BlockKeys.y(k), BlockKeys.z(k));
+            landWorlds[i] = null;
+            if (placed.getType().isAir()) continue;
+            if (rnd.nextDouble() < toNeth && placed.getType() != Material.BEDROCK) placed.setType(Material.NETHERRACK, true);
+            if (rnd.nextDouble() < igniteChance) {
+                Block up = placed.getRelative(0, 1, 0);
+                if (up.getType().isAir()) up.setType(Material.FIRE, true);
+            }
+        }
+        landed += landSize;
+        landSize = 0;
+    }
+
+    int getLive() { return live; }
+    int getPeak() { return peak; }
+    long getSpawned() { return spawned; }
+    long getShed() { return shed; }
+    long getExpired() { return expired; }
+    long getLanded() { return landed; }
+
+    /** 모든 파편 제거 */
+    void clear() {
+        for (int i = 0; i < ring.length; i++) {
+            FallingBlock fb = ring[i];
+            if (fb != null && fb.isValid()) fb.remove();
+            ring[i] = null;
+        }
+        slotByEntity.clear();
+        expiry.clear();
+        headSeq = tailSeq = 0;
+        live = 0;
+        Arrays.fill(landWorlds, 0, landSize, null);
+        landSize = 0;
+        if (task != null) { task.cancel(); task = null; }
+    }
+}
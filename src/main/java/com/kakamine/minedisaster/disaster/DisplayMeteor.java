@@ -0,0 +1,175 @@
+package com.kakamine.minedisaster.disaster;
+
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.entity.BlockDisplay;
+import org.bukkit.entity.Display;
+import org.bukkit.util.Transformation;
+import org.bukkit.util.Vector;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+
+import java.util.UUID;
+
+/**
+ * BlockDisplay 로 그리는 메테오 본체
+ * - 위치/속도는 플러그인이 직접 적분 (FallingBlock 과 같은 중력 0.04, 감쇠 0.98)
+ * - 표면/코어/채움 조각은 모두 본체 중심에 놓인 디스플레이이고 모양은 Transformation 의 평행이동/크기로만 표현
+ *   → 이동할 때는 조각마다 같은 위치로 teleport 만 하고 클라이언트가 teleportDuration 으로 보간
+ * - 조각 수는 가장 가까운 플레이어 거리에 따라 단계(LOD)별로 정함
+ */
+final class DisplayMeteor {
+
+    static final double GRAVITY = 0.04;
+    static final double DRAG = 0.98;
+
+    /** LOD 단계별 조각 수 / 거리 기준 */
+    static final class Lod {
+        final int nearPieces, midPieces, farPieces;
+        final double nearDist, farDist;
+        final float viewRange;
+
+        Lod(int nearPieces, int midPieces, int farPieces, double nearDist, double farDist, float viewRange) {
+            this.nearPieces = nearPieces;
+            this.midPieces = midPieces;
+            this.farPieces = farPieces;
+            this.nearDist = nearDist;
+            this.farDist = farDist;
+            this.viewRange = viewRange;
+        }
+
+        int tier(double dist) {
+            return dist <= nearDist ? 0 : dist <= farDist ? 1 : 2;
+        }
+
+        int pieces(int tier) {
+            return tier == 0 ? nearPieces : tier == 1 ? midPieces : farPieces;
+        }
+    }
+
+    final UUID id;
+    final World world;
+    double x, y, z;
+    double vx, vy, vz;
+    final double surfaceR, coreR;
+    final BlockData surface, core, fill;
+    final MeteorTicker.Trail trail;
+    final int power;
+    private final Lod lod;
+
+    BlockDisplay[] pieces = new BlockDisplay[0];
+    int tier = -1;
+    int age;
+
+    DisplayMeteor(UUID id, Location spawn, Vector vel, double surfaceR, double coreR,
+                  Material surface, Material core, Material fill, MeteorTicker.Trail trail, Lod lod, int power) {
+        this.id = id;
+        this.world = spawn.getWorld();
+        this.x = spawn.getX(); this.y = spawn.getY(); this.z = spawn.getZ();
+        this.vx = vel.getX(); this.vy = vel.getY(); this.vz = vel.getZ();
+        this.surfaceR = surfaceR;
+        this.coreR = coreR;
+        this.surface = surface.createBlockData();
+        this.core = core.createBlockData();
+        this.fill = fill.createBlockData();
+        this.trail = trail;
+        this.lod = lod;
+        this.power = power;
+    }
+
+    Location location() { return new Location(world, x, y, z); }
+
+    int pieceCount() { return pieces.length; }
+
+    /**
+     * 한 틱 적분 + 충돌 검사
+     * @return 지면/블록에 닿았으면 true (x,y,z 는 마지막 빈 칸 위치)
+     */
+    boolean step() {
+        age++;
+        vy -= GRAVITY;
+        double nx = x + vx, ny = y + vy, nz = z + vz;
+        // 한 틱 이동 거리가 1블록을 넘을 수 있으므로 구간을 나눠 검사
+        int samples = Math.max(1, (int) Math.ceil(Math.sqrt(vx * vx + vy * vy + vz * vz)));
+        for (int s = 1; s <= samples; s++) {
+            double t = (double) s / samples;
+            double px = x + vx * t, py = y + vy * t, pz = z + vz * t;
+            if (py < world.getMinHeight() || solid(px, py, pz)) return true;
+        }
+        x = nx; y = ny; z = nz;
+        vx *= DRAG; vy *= DRAG; vz *= DRAG;
+        return false;
+    }
+
+    private boolean solid(double px, double py, double pz) {
+        return world.getBlockAt((int) Math.floor(px), (int) Math.floor(py), (int) Math.floor(pz)).getType().isSolid();
+    }
+
+    /** 가장 가까운 플레이어 거리로 LOD 단계 재평가, 바뀌면 조각을 다시 만듦 */
+    void updateLod(int teleportDuration) {
+        double best = Double.MAX_VALUE;
+        Location here = location();
+        for (var p : world.getPlayers()) best = Math.min(best, p.getLocation().distanceSquared(here));
+        int t = lod.tier(Math.sqrt(best));
+        if (t == tier) return;
+        tier = t;
+        rebuild(lod.pieces(t), teleportDuration);
+    }
+
+    private void rebuild(int total, int teleportDuration) {
+        removePieces();
+        int coreN = Math.max(1, total / 5);
+        int shellN = Math.max(4, total - coreN - 1);
+        BlockDisplay[] out = new BlockDisplay[shellN + coreN + 1];
+        Location here = location();
+        int k = 0;
+
+        // 채움: 중심의 큰 블록 하나 (표면 틈으로 보이는 안쪽, 모서리가 껍질 밖으로 나오지 않는 크기)
+        float fillSide = (float) (surfaceR * 1.1);
+        out[k++] = spawnPiece(here, fill, 0, 0, 0, fillSide, teleportDuration, false);
+
+        // 코어
+        float coreSide = (float) Math.max(0.6, coreR * 0.9);
+        for (Vector off : MeteorManager.fibonacciSphere(coreR * 0.45, coreN))
+            out[k++] = spawnPiece(here, core, off.getX(), off.getY(), off.getZ(), coreSide, teleportDuration, false);
+
+        // 표면: 조각 수가 적을수록 큰 조각으로 같은 껍질을 덮음
+        float shellSide = (float) Math.max(0.8, Math.sqrt(4 * Math.PI * surfaceR * surfaceR / shellN) * 1.15);
+        double shellR = Math.max(coreR, surfaceR - shellSide * 0.5);
+        for (Vector off : MeteorManager.fibonacciSphere(shellR, shellN))
+            out[k++] = spawnPiece(here, surface, off.getX(), off.getY(), off.getZ(), shellSide, teleportDuration, true);
+
+        pieces = out;
+    }
+
+    private BlockDisplay spawnPiece(Location at, BlockData data, double ox, double oy, double oz, float side,
+                                    int teleportDuration, boolean glow) {
+        float h = side * 0.5f;
+        Transformation tf = new Transformation(
+                new Vector3f((float) ox - h, (float) oy - h, (float) oz - h),
+                new Quaternionf(),
+                new Vector3f(side, side, side),
+                new Quaternionf());
+        return world.spawn(at, BlockDisplay.class, d -> {
+            d.setBlock(data);
+            d.setTransformation(tf);
+            d.setTeleportDuration(teleportDuration);
+            d.setViewRange(lod.viewRange);
+            d.setPersistent(false);
+            if (glow) d.setBrightness(new Display.Brightness(15, 15));
+        });
+    }
+
+    /** 모든 조각을 현재 위치로 이동 (클라이언트 보간) */
+    void sync() {
+        Location here = location();
+        for (BlockDisplay d : pieces) if (d.isValid()) d.teleport(here);
+    }
+
+    void removePieces() {
+        for (BlockDisplay d : pieces) if (d != null && d.isValid()) d.remove();
+        pieces = new BlockDisplay[0];
+    }
+}
@@ -2,14 +2,28 @@ package com.kakamine.minedisaster.disaster;
 
 import com.kakamine.minedisaster.MineDisaster;
 import org.bukkit.*;
-import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+import org.bukkit.persistence.PersistentDataType;
 import org.bukkit.scheduler.BukkitTask;
-import org.bukkit.block.Biome;
 
+import com.kakamine.minedisaster.util.BlockKeys;
+import com.kakamine.minedisaster.util.LongIntMap;
+import com.kakamine.minedisaster.util.LongObjectMap;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Random;
+import java.util.Set;
+import java.util.logging.Level;
 
-public class DoomsdayManager {
+public class DoomsdayManager implements Listener {
     private final MineDisaster plugin;
     private BukkitTask task;
     private final Random rnd = new Random();
@@ -29,22 +43,47 @@ public class DoomsdayManager {
 
     private int tickCount = 0;
 
-    // 물 증발 가속 파라미터
-    private double waterSpeedMult = 2.5;  // 증발 확률 배수
-    private int waterMaxSteps = 4;        // 일반 증발: 한 샘플에서 최대 제거 블록 수
-    private int waterExtraDepth = 2;      // 일반 증발: 표면 아래로 더 파고들 깊이
-    private int waterLateralTries = 2;    // 일반 증발: 수평 제거 시도
-
-    // ★ 오션 전용 패치 증발 파라미터
-    private boolean oceanModeEnabled = true;
-    private int oceanPatchRadius = 2;         // 반경 2 → 5×5
-    private int oceanVerticalSteps = 4;       // 아래로 몇 칸까지 지울지
-    private int oceanPatchBudget = 24;        // 패치 하나에서 지울 수 있는 최대 블록 수
-    private double oceanSpeedMult = 3.0;      // 오션 패치 시 추가 가속 배수
-    private int oceanSeaWindow = 2;           // 해수면 ±2 높이에서만 패치 우선 적용
+    // 월드별 샘플링 대상 청크 (플레이어 주변 ∩ 로드됨, 중복 없음) + 라운드로빈 커서
+    private final Map<World, ActiveChunks> active = new HashMap<>();
+    private long chunksVisited;
+
+    // 비동기 표면 처리: 메인에서 스냅샷 → 워커에서 규칙 계산 → 메인에서 ms 예산 안에 나눠 적용
+    private int snapshotsPerTick = 24;
+    private double applyBudgetMs = 2.0;
+    private int maxBacklog = 4096;
+    private BukkitTask applyTask;
+    private final Set<World> planning = new HashSet<>();       // 계산 중인 월드 (월드당 하나만)
+    private final ArrayDeque<Batch> ready = new ArrayDeque<>(); // 적용 대기
+    private record Batch(World world, SnapshotSurface.Plan plan) {}
+
+    // 청크 수확률(포화도) → 샘플링 가중치: 다 타 버린 청크는 덜, 아직 변하는 청크는 더
+    private final NamespacedKey yieldKey;
+    private boolean yieldEnabled = true;
+    private float yieldInitial = 0.5f;
+    private double yieldTarget = 0.25, yieldMinWeight = 0.05, yieldMaxWeight = 2.0, yieldSmoothing = 0.05;
+
+    // 청크별 마지막 처리 시점(진행 시계)/강도 → 오래 비어 있던 청크는 로드될 때 한 번에 따라잡기
+    // 진행 시계 = 월드 시간 - 멈춰 있던 시간 합 (월드 PDC 에 보관, 재시작해도 이어감)
+    private final NamespacedKey timeKey, sevKey, pausedKey, stoppedKey;
+    private boolean catchUpEnabled = true;
+    private int catchUpPerTick = 2, catchUpMaxRounds = 8;
+    private long catchUpMinElapsed = 6000;
+    private double catchUpRate = 1.0;
+    private final Map<World, Long> paused = new HashMap<>(); // 월드별 멈춰 있던 시간 합 (진행 중인 월드만)
+
+    // 통계
+    private long batches, snapshotNanos, planNanos, applyNanos;
+    private long catchUpChunks, catchUpRounds;
+    private long samplesTaken, sampleHits, chunksSkipped;
+    private final long[] applyCounts = new long[2]; // [적용, 바뀌어서 건너뜀]
 
     public DoomsdayManager(MineDisaster plugin) {
         this.plugin = plugin;
+        this.yieldKey = new NamespacedKey(plugin, "doomsday_yield");
+        this.timeKey = new NamespacedKey(plugin, "doomsday_time");
+        this.sevKey = new NamespacedKey(plugin, "doomsday_severity");
+        this.pausedKey = new NamespacedKey(plugin, "doomsday_paused");
+        this.stoppedKey = new NamespacedKey(plugin, "doomsday_stopped_at");
         reloadConfig();
         double md = plugin.getConfig().getDouble("doomsday.manual-default", -1.0);
         if (md >= 0.0 && md <= 1.0 && allowManual) { manualMode = true; manualSeverity = clamp01(md); }
@@ -62,23 +101,43 @@ public class DoomsdayManager {
         maxUpdatesPerTick  = Math.max(10, plugin.getConfig().getInt("doomsday.max-updates-per-tick", 80));
         burnCheckInterval  = Math.max(5,  plugin.getConfig().getInt("doomsday.burn-check-interval", 20));
 
-        // 일반 물 증발
-        waterSpeedMult   = Math.max(0.1, plugin.getConfig().getDouble("doomsday.water.speed-mult", 2.5));
-        waterMaxSteps    = Math.max(1,   plugin.getConfig().getInt("doomsday.water.max-steps", 4));
-        waterExtraDepth  = Math.max(0,   plugin.getConfig().getInt("doomsday.water.extra-depth", 2));
-        waterLateralTries= Math.max(0,   plugin.getConfig().getInt("doomsday.water.lateral-tries", 2));
-
-        // 오션 전용
-        oceanModeEnabled   = plugin.getConfig().getBoolean("doomsday.water.ocean.enabled", true);
-        oceanPatchRadius   = Math.max(1, plugin.getConfig().getInt("doomsday.water.ocean.patch-radius", 2));
-        oceanVerticalSteps = Math.max(1, plugin.getConfig().getInt("doomsday.water.ocean.vertical-steps", 4));
-        oceanPatchBudget   = Math.max(4, plugin.getConfig().getInt("doomsday.water.ocean.per-patch-budget", 24));
-        oceanSpeedMult     = Math.max(1.0, plugin.getConfig().getDouble("doomsday.water.ocean.speed-mult", 3.0));
-        oceanSeaWindow     = Math.max(0, plugin.getConfig().getInt("doomsday.water.ocean.sea-window", 2));
+        snapshotsPerTick = Math.max(1, plugin.getConfig().getInt("doomsday.async.snapshots-per-tick", 24));
+        applyBudgetMs    = Math.max(0.1, plugin.getConfig().getDouble("doomsday.async.apply-budget-ms", 2.0));
+        maxBacklog       = Math.max(64, plugin.getConfig().getInt("doomsday.async.max-backlog", 4096));
+
+        yieldEnabled   = plugin.getConfig().getBoolean("doomsday.saturation.enabled", true);
+        yieldInitial   = (float) clamp01(plugin.getConfig().getDouble("doomsday.saturation.initial", 0.5));
+        yieldTarget    = Math.max(0.01, plugin.getConfig().getDouble("doomsday.saturation.target-hit-rate", 0.25));
+        yieldMinWeight = Math.max(0.0, plugin.getConfig().getDouble("doomsday.saturation.min-weight", 0.05));
+        yieldMaxWeight = Math.max(yieldMinWeight, plugin.getConfig().getDouble("doomsday.saturation.max-weight", 2.0));
+        yieldSmoothing = Math.max(0.001, Math.min(1.0, plugin.getConfig().getDouble("doomsday.saturation.smoothing", 0.05)));
+
+        catchUpEnabled    = plugin.getConfig().getBoolean("doomsday.catch-up.enabled", true);
+        catchUpPerTick    = Math.max(1, plugin.getConfig().getInt("doomsday.catch-up.chunks-per-tick", 2));
+        catchUpMaxRounds  = Math.max(1, plugin.getConfig().getInt("doomsday.catch-up.max-rounds", 8));
+        catchUpMinElapsed = Math.max(0L, plugin.getConfig().getLong("doomsday.catch-up.min-elapsed-ticks", 6000L));
+        catchUpRate       = Math.max(0.0, plugin.getConfig().getDouble("doomsday.catch-up.rate", 1.0));
     }
 
-    public void start() { stop(); task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 0L, tickInterval); }
-    public void stop()  { if (task != null) { task.cancel(); task = null; } }
+    public void start() {
+        stop();
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 0L, tickInterval);
+        applyTask = Bukkit.getScheduler().runTaskTimer(plugin, this::applyReady, 1L, 1L);
+    }
+    public void stop()  {
+        if (task != null) {
+            // 멈춘 시점 기록 → 다시 시작할 때 그동안은 따라잡지 않음
+            for (World w : paused.keySet()) w.getPersistentDataContainer().set(stoppedKey, PersistentDataType.LONG, w.getFullTime());
+            task.cancel();
+            task = null;
+        }
+        if (applyTask != null) { applyTask.cancel(); applyTask = null; }
+        ready.clear();
+        planning.clear();
+        paused.clear();
+        active.values().forEach(ActiveChunks::clear);
+        active.clear();
+    }
 
     public double getCurrentSeverity(World world) {
         if (manualMode && allowManual) return manualSeverity;
@@ -92,51 +151,40 @@ public class DoomsdayManager {
 
     private double clamp01(double v){ return Math.max(0.0, Math.min(1.0, v)); }
 
+    /** 진행 시계: 월드 시간에서 지구 멸망이 멈춰 있던 시간을 뺀 값 (처음 보는 월드는 PDC 에서 이어받음) */
+    private long clock(World w) {
+        Long p = paused.get(w);
+        if (p == null) {
+            var pdc = w.getPersistentDataContainer();
+            long sum = pdc.getOrDefault(pausedKey, PersistentDataType.LONG, 0L);
+            Long at = pdc.get(stoppedKey, PersistentDataType.LONG);
+            if (at != null) {
+                sum += Math.max(0L, w.getFullTime() - at);
+                pdc.set(pausedKey, PersistentDataType.LONG, sum);
+                pdc.remove(stoppedKey);
+            }
+            p = sum;
+            paused.put(w, p);
+        }
+        return w.getFullTime() - p;
+    }
+
     private void tick() {
         if (!plugin.getConfig().getBoolean("doomsday.enabled", true)) return;
         tickCount += tickInterval;
+        DoomsdayRules.Params params = DoomsdayRules.Params.read(plugin.getConfig().getConfigurationSection("doomsday"));
 
         for (World w : Bukkit.getWorlds()) {
+            clock(w); // 진행 중인 월드로 등록 (stop 때 멈춘 시점 기록 대상)
             double sev = getCurrentSeverity(w);
             if (sev <= 0.0) continue;
 
-            int updates = 0;
-            // ▶ 플레이어 주변 청크에서 분산 스캔
-            for (Player p : w.getPlayers()) {
-                if (updates >= maxUpdatesPerTick) break;
-
-                int baseCX = p.getLocation().getBlockX() >> 4;
-                int baseCZ = p.getLocation().getBlockZ() >> 4;
-
-                for (int dcx = -scanRadiusChunks; dcx <= scanRadiusChunks; dcx++) {
-                    if (updates >= maxUpdatesPerTick) break;
-                    for (int dcz = -scanRadiusChunks; dcz <= scanRadiusChunks; dcz++) {
-                        if (dcx*dcx + dcz*dcz > scanRadiusChunks*scanRadiusChunks) continue;
-
-                        int cx = baseCX + dcx, cz = baseCZ + dcz;
-                        if (!w.isChunkLoaded(cx, cz)) continue;
+            // ▶ 플레이어 주변 청크(중복 제거)에서 라운드로빈 분산 스캔
+            ActiveChunks chunks = active.computeIfAbsent(w, k -> new ActiveChunks(k, yieldKey));
+            chunks.updatePlayers(w.getPlayers(), scanRadiusChunks);
 
-                        int perChunk = Math.max(1, (int)Math.round((samplesPerTick / 16.0) * (0.4 + 0.8 * sev)));
-                        for (int i = 0; i < perChunk; i++) {
-                            if (updates >= maxUpdatesPerTick) break;
-
-                            int bx = (cx << 4) + rnd.nextInt(16);
-                            int bz = (cz << 4) + rnd.nextInt(16);
-                            int y  = w.getHighestBlockYAt(bx, bz);
-                            Block top = w.getBlockAt(bx, y, bz);
-
-                            // 하늘 노출
-                            if (y < w.getHighestBlockYAt(bx, bz)) continue;
-
-                            // 내부 게이트: sev 높으면 거의 통과
-                            double gate = (sev >= 0.9) ? 1.0 : (0.15 + sev * 0.5);
-                            if (rnd.nextDouble() > gate) continue;
-
-                            updates += applySurfaceEffects(w, top, sev);
-                        }
-                    }
-                }
-            }
+            // 이전 계산이 끝나지 않았거나 적용이 밀려 있으면 이번엔 쉼
+            if (!planning.contains(w) && backlog() < maxBacklog) plan(w, chunks, sev, params);
 
             // ▶ 모든 생명체 일광 화상(물속 면제)
             if ((tickCount % Math.max(1, burnCheckInterval)) == 0) {
@@ -145,345 +193,244 @@ public class DoomsdayManager {
         }
     }
 
-    /* ---------------- 표면 효과 (잔디/눈/물/나무/목조물) ---------------- */
-
-    private int applySurfaceEffects(World w, Block top, double severity) {
-        Material type = top.getType();
-        Block above = top.getRelative(0, 1, 0);
-        Material aboveType = above.getType();
-
-        // ★ 오션 전용: 해수면 근처 + 바다/강/해변 바이옴이면 패치 증발 우선 적용
-        if (oceanModeEnabled && (isWater(type) || isWater(aboveType))) {
-            final int sea = safeSeaLevel(w);
-            final int y = top.getY();
-            if (Math.abs(y - sea) <= oceanSeaWindow && isOceanicBiome(w, top.getX(), y, top.getZ())) {
-                return evaporateOceanPatch(w, top.getX(), y, top.getZ(), severity);
-            }
-        }
-
-        // 1) 일반 물 증발 (근원 우선 + 워터로그드 + 상류 추적)
-        if (isWater(type) || isWater(aboveType)) {
-            int evaporated = evaporateWaterColumn(w, top.getX(), top.getY(), top.getZ(), severity);
-            if (evaporated > 0) return evaporated;
-        }
-
-        // 2) 눈 녹이기
-        if (isSnow(aboveType)) {
-            if (roll(meltChance(severity))) { above.setType(Material.AIR, true); return 1; }
-        }
-        if (isSnow(type)) {
-            if (roll(meltChance(severity))) { top.setType(Material.AIR, true); return 1; }
-        }
-
-        // 3) 잔디 → COARSE_DIRT (재확산 방지) + 위 식생/눈 제거
-        if (type == Material.GRASS_BLOCK) {
-            if (roll(grassDecayChance(severity))) {
-                if (isVegetation(aboveType) || isSnow(aboveType)) { above.setType(Material.AIR, true); }
-                top.setType(Material.COARSE_DIRT, true);
-                return 1;
-            }
-        }
-
-        // 4) 나무(통나무/잎) 점화
-        if (isTree(type)) {
-            if (roll(treeIgniteChance(severity))) {
-                if (tryIgniteAround(top)) return 1;
+    /**
+     * 메인: 라운드로빈으로 청크마다 샘플 수를 정하고 스냅샷 → 워커: 샘플링/규칙 계산 → 메인: 수확률 갱신 + 적용 대기열에 추가
+     * 샘플 수 = 기본 샘플 × 가중치(수확률 / 목표 적중률), 소수점은 확률적으로 올림 → 0 이면 스냅샷도 건너뜀
+     */
+    private void plan(World w, ActiveChunks chunks, double sev, DoomsdayRules.Params params) {
+        int base = Math.max(1, (int)Math.round((samplesPerTick / 16.0) * (0.4 + 0.8 * sev)));
+        int cap = Math.min(chunks.size(), snapshotsPerTick);
+        if (cap == 0) return;
+
+        long t0 = System.nanoTime();
+        LongObjectMap<ChunkSnapshot> snaps = new LongObjectMap<>(cap * 2);
+        long[] order = new long[cap];
+        int[] samples = new int[cap];
+        int n = 0;
+        for (int lap = chunks.size(); lap > 0 && n < cap; lap--) {
+            long c = chunks.next();
+            int k = base;
+            if (yieldEnabled) {
+                double weight = Math.max(yieldMinWeight, Math.min(yieldMaxWeight, chunks.yieldOf(c, yieldInitial) / yieldTarget));
+                double want = base * weight;
+                k = (int) want;
+                if (rnd.nextDouble() < want - k) k++;
+                if (k == 0) { chunksSkipped++; continue; }
             }
+            order[n] = c;
+            samples[n] = k;
+            Chunk ch = w.getChunkAt(BlockKeys.chunkX(c), BlockKeys.chunkZ(c));
+            snaps.put(c, ch.getChunkSnapshot(true, true, false));
+            if (!chunks.catchUpPending(c)) stamp(ch, clock(w), sev); // 따라잡기 전이면 밀린 시간을 남겨 둠
+            n++;
         }
-
-        // 5) 목재 구조물(판자/계단/슬랩/울타리/문/트랩도어/간판/책장/상자 등) 점화
-        if (isWoodenBlock(type)) {
-            if (roll(treeIgniteChance(severity))) {
-                if (tryIgniteAround(top)) return 1;
+        snapshotNanos += System.nanoTime() - t0;
+        chunksVisited += n;
+        if (n == 0) return;
+
+        final int count = n;
+        final SnapshotSurface surface = new SnapshotSurface(snaps, w.getMinHeight(), w.getMaxHeight(), safeSeaLevel(w));
+        final int maxUpdates = maxUpdatesPerTick;
+        final long seed = rnd.nextLong();
+        planning.add(w);
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            long p0 = System.nanoTime();
+            int[] taken = new int[count], hits = new int[count];
+            SnapshotSurface.Plan result = null;
+            try {
+                DoomsdayRules rules = new DoomsdayRules(params, new Random(seed));
+                int[] stats = new int[2];
+                int updates = 0;
+                for (int i = 0; i < count && updates < maxUpdates; i++) {
+                    stats[0] = stats[1] = 0;
+                    updates += rules.sampleChunk(surface, BlockKeys.chunkX(order[i]), BlockKeys.chunkZ(order[i]),
+                            sev, samples[i], maxUpdates - updates, stats);
+                    taken[i] = stats[0];
+                    hits[i] = stats[1];
+                }
+                result = surface.plan;
+                result.planNanos = System.nanoTime() - p0;
+            } catch (Throwable t) {
+                plugin.getLogger().log(Level.WARNING, "지구멸망 계산 실패 (" + w.getName() + ")", t);
+            } finally {
+                // 실패해도 planning 은 메인 스레드에서 비워야 다음 계산이 돈다
+                final SnapshotSurface.Plan plan = result;
+                Bukkit.getScheduler().runTask(plugin, () -> {
+                    if (!planning.remove(w) || plan == null) return; // 그 사이 stop / 월드 언로드, 또는 계산 실패
+                    for (int i = 0; i < count; i++) {
+                        samplesTaken += taken[i];
+                        sampleHits += hits[i];
+                        if (yieldEnabled) chunks.recordYield(order[i], taken[i], hits[i], yieldSmoothing, yieldInitial);
+                    }
+                    if (plan.size() > 0) ready.add(new Batch(w, plan));
+                    planNanos += plan.planNanos;
+                    batches++;
+                });
             }
-        }
-
-        return 0;
-    }
-
-    // ── 확률 함수들
-    private double evaporateChance(double sev) {
-        double base = plugin.getConfig().getDouble("doomsday.water.base", 0.12);
-        double exp  = plugin.getConfig().getDouble("doomsday.water.exp", 1.1);
-        return Math.pow(sev, exp) * base * waterSpeedMult; // 일반 가속 배수
-    }
-    private double evaporateChanceOcean(double sev) {
-        return evaporateChance(sev) * oceanSpeedMult; // 오션 추가 가속
-    }
-    private double grassDecayChance(double sev) {
-        double base = plugin.getConfig().getDouble("doomsday.grass.base", 0.12);
-        double exp  = plugin.getConfig().getDouble("doomsday.grass.exp", 1.0);
-        return Math.pow(sev, exp) * base;
-    }
-    private double treeIgniteChance(double sev) {
-        double base = plugin.getConfig().getDouble("doomsday.trees.base", 0.10);
-        double exp  = plugin.getConfig().getDouble("doomsday.trees.exp", 1.0);
-        return Math.pow(sev, exp) * base;
-    }
-    private double meltChance(double sev) {
-        return Math.min(1.0, 0.15 + sev * 0.6);
+        });
     }
 
-    /* ── 일반 물 증발(근원 우선): 근원(source) 제거 + 워터로그드 제거 + 상류 얕은 추적 ── */
-    private int evaporateWaterColumn(World w, int x, int y, int z, double sev) {
-        int changed = 0;
-        int budget = waterMaxSteps;
-
-        // 0) 해당 칸 워터로그드 제거
-        Block here = w.getBlockAt(x, y, z);
-        if (clearWaterlogged(here)) {
-            changed++; if (--budget <= 0) return changed;
-        }
-
-        // 1) 표면/수면/바로 아래
-        for (int dy = 0; dy <= 2 && budget > 0; dy++) {
-            Block b = w.getBlockAt(x, y + dy, z);
-            if (isWaterSource(b) && roll(evaporateChance(sev))) {
-                b.setType(Material.AIR, false);
-                changed++; budget--;
-            } else if (isFlowingWater(b)) {
-                changed += drainUpstreamSources(b, sev, Math.min(2, budget));
-                budget = waterMaxSteps - changed;
-            } else {
-                clearWaterlogged(b);
-            }
-        }
-
-        // 2) 아래로 파고듦
-        for (int dd = 1; dd <= waterExtraDepth && budget > 0; dd++) {
-            Block b = w.getBlockAt(x, y - dd, z);
-            if (isWaterSource(b) && roll(evaporateChance(sev) * 0.8)) {
-                b.setType(Material.AIR, false);
-                changed++; budget--;
-            } else if (isFlowingWater(b)) {
-                changed += drainUpstreamSources(b, sev, Math.min(2, budget));
-                budget = waterMaxSteps - changed;
-            } else {
-                clearWaterlogged(b);
-            }
+    /**
+     * 따라잡기: 마지막 처리 뒤 흐른 시간만큼의 효과를 한 번에 계산
+     * - 열마다 규칙을 돌릴 횟수 = 지난 tick-interval 수 × (기본 샘플 / 256) × rate, max-rounds 로 자름
+     * - 강도는 마지막 처리 때와 지금의 평균 (그 사이 선형으로 올랐다고 봄)
+     * - 기록이 없는 청크(새 청크/도입 전 청크)는 지금 시점만 기록
+     */
+    private void catchUpTick() {
+        if (!catchUpEnabled) {
+            for (ActiveChunks c : active.values()) c.clearCatchUp();
+            return;
         }
-
-        // 3) 수평 확산
-        int r = Math.min(3, 1 + (int)Math.round(severityClamp(sev) * 2));
-        for (int i = 0; i < waterLateralTries && budget > 0; i++) {
-            int dx = rnd.nextInt(r * 2 + 1) - r;
-            int dz = rnd.nextInt(r * 2 + 1) - r;
-            Block b = w.getBlockAt(x + dx, y, z + dz);
-            if (isWaterSource(b) && roll(evaporateChance(sev))) {
-                b.setType(Material.AIR, false);
-                changed++; budget--;
-            } else if (isFlowingWater(b)) {
-                changed += drainUpstreamSources(b, sev, Math.min(2, budget));
-                budget = waterMaxSteps - changed;
-            } else {
-                clearWaterlogged(b);
+        if (task == null || backlog() >= maxBacklog) return;
+        for (Map.Entry<World, ActiveChunks> en : active.entrySet()) {
+            World w = en.getKey();
+            ActiveChunks chunks = en.getValue();
+            for (int done = 0; done < catchUpPerTick; ) {
+                long c = chunks.pollCatchUp();
+                if (c == LongIntMap.EMPTY) break;
+                if (catchUp(w, c)) done++;
             }
         }
-        return changed;
     }
 
-    /* ── 오션 패치 증발: 표면 패치(반경 R) 내부 근원 물 다수 제거 + 상류 추적 ── */
-    private int evaporateOceanPatch(World w, int x, int y, int z, double sev) {
-        int changed = 0;
-        int budget = oceanPatchBudget;
-        int R = oceanPatchRadius;
-        int sea = safeSeaLevel(w);
-
-        // 패치 내부: 위→아래로 훑으면서 근원/흐름 처리
-        for (int dx = -R; dx <= R && budget > 0; dx++) {
-            for (int dz = -R; dz <= R && budget > 0; dz++) {
-                // 살짝 원형 느낌
-                if (dx*dx + dz*dz > R*R + R) continue;
-
-                // 표면 y 기준으로 위/아래 범위
-                for (int dy = 0; dy <= oceanVerticalSteps && budget > 0; dy++) {
-                    Block bUp = w.getBlockAt(x + dx, y + dy, z + dz);
-                    if (isWaterSource(bUp) && roll(evaporateChanceOcean(sev))) {
-                        bUp.setType(Material.AIR, false);
-                        changed++; if (--budget <= 0) break;
-                    } else if (isFlowingWater(bUp)) {
-                        changed += drainUpstreamSources(bUp, sev, Math.min(3, budget));
-                        budget = oceanPatchBudget - changed;
-                    } else {
-                        clearWaterlogged(bUp);
-                    }
-                }
-                for (int dd = 1; dd <= oceanVerticalSteps && budget > 0; dd++) {
-                    Block bDown = w.getBlockAt(x + dx, y - dd, z + dz);
-                    // 해수면보다 훨씬 아래는 너무 깊으니 확률 낮춤
-                    double mult = (y - dd >= sea - 6) ? 1.0 : 0.6;
-                    if (isWaterSource(bDown) && roll(evaporateChanceOcean(sev) * mult)) {
-                        bDown.setType(Material.AIR, false);
-                        changed++; if (--budget <= 0) break;
-                    } else if (isFlowingWater(bDown)) {
-                        changed += drainUpstreamSources(bDown, sev, Math.min(3, budget));
-                        budget = oceanPatchBudget - changed;
-                    } else {
-                        clearWaterlogged(bDown);
-                    }
-                }
+    /** @return 스냅샷을 떠서 계산을 보냈으면 true */
+    private boolean catchUp(World w, long c) {
+        Chunk ch = w.getChunkAt(BlockKeys.chunkX(c), BlockKeys.chunkZ(c));
+        var pdc = ch.getPersistentDataContainer();
+        long now = clock(w);
+        double sevNow = getCurrentSeverity(w);
+        Long then = pdc.get(timeKey, PersistentDataType.LONG);
+        if (then == null) { stamp(ch, now, sevNow); return false; }
+
+        long elapsed = now - then;
+        if (elapsed < catchUpMinElapsed) return false;
+        Float sevThen = pdc.get(sevKey, PersistentDataType.FLOAT);
+        double sev = clamp01(((sevThen == null ? sevNow : sevThen) + sevNow) * 0.5);
+        if (sev <= 0.0) { stamp(ch, now, sevNow); return false; }
+
+        int perVisit = Math.max(1, (int)Math.round((samplesPerTick / 16.0) * (0.4 + 0.8 * sev)));
+        double want = (double) elapsed / tickInterval * perVisit / 256.0 * catchUpRate;
+        int rounds = (int) Math.min(catchUpMaxRounds, want);
+        if (rounds < catchUpMaxRounds && rnd.nextDouble() < want - rounds) rounds++;
+        if (rounds == 0) return false; // 아직 모자람 → 기록을 두고 다음 로드 때 이어서
+
+        long t0 = System.nanoTime();
+        LongObjectMap<ChunkSnapshot> snaps = new LongObjectMap<>(2);
+        snaps.put(c, ch.getChunkSnapshot(true, true, false));
+        snapshotNanos += System.nanoTime() - t0;
+        stamp(ch, now, sevNow);
+        catchUpChunks++;
+        catchUpRounds += rounds;
+
+        final SnapshotSurface surface = new SnapshotSurface(snaps, w.getMinHeight(), w.getMaxHeight(), safeSeaLevel(w));
+        final DoomsdayRules.Params params = DoomsdayRules.Params.read(plugin.getConfig().getConfigurationSection("doomsday"));
+        final int r = rounds;
+        final long seed = rnd.nextLong();
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            long p0 = System.nanoTime();
+            try {
+                new DoomsdayRules(params, new Random(seed)).catchUpChunk(surface, BlockKeys.chunkX(c), BlockKeys.chunkZ(c), sev, r);
+            } catch (Throwable t) {
+                plugin.getLogger().log(Level.WARNING, "지구멸망 따라잡기 실패 (" + w.getName() + " 청크 "
+                        + BlockKeys.chunkX(c) + "," + BlockKeys.chunkZ(c) + ")", t);
+                return;
             }
-        }
-        return changed;
-    }
-
-    /* ── 판정/유틸 ── */
-
-    private int safeSeaLevel(World w) {
-        try { return w.getSeaLevel(); } catch (Throwable t) { return 62; }
-    }
-
-    private boolean isOceanicBiome(World w, int x, int y, int z) {
-        Biome b;
-        try { b = w.getBiome(x, y, z); }
-        catch (Throwable t) { b = w.getBiome(x, z); } // 구버전 호환
-        String n = b.name();
-        return n.contains("OCEAN") || n.equals("BEACH") || n.equals("RIVER");
-    }
-
-    private boolean isWater(Material m) {
-        return m == Material.WATER || m == Material.KELP || m == Material.KELP_PLANT
-                || m == Material.SEAGRASS || m == Material.TALL_SEAGRASS || m == Material.BUBBLE_COLUMN;
-    }
-    private boolean isSnow(Material m) {
-        return m == Material.SNOW || m == Material.SNOW_BLOCK || m == Material.POWDER_SNOW;
+            SnapshotSurface.Plan plan = surface.plan;
+            plan.planNanos = System.nanoTime() - p0;
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                if (task == null || !active.containsKey(w)) return; // 그 사이 stop / 월드 언로드
+                if (plan.size() > 0) ready.add(new Batch(w, plan));
+                planNanos += plan.planNanos;
+                batches++;
+            });
+        });
+        return true;
     }
 
-    // 1.21 호환(이름 기반): SHORT_GRASS/GRASS/TALL_GRASS 등 폭넓게 처리
-    private boolean isVegetation(Material m) {
-        String n = m.name();
-        if (n.equals("SHORT_GRASS") || n.equals("GRASS") || n.equals("TALL_GRASS")) return true;
-        return n.endsWith("_FLOWER") || n.endsWith("_SEEDS") || n.endsWith("_FUNGUS") || n.endsWith("_ROOTS")
-                || n.endsWith("_SAPLING") || n.endsWith("_BUSH") || n.endsWith("_FERN")
-                || n.endsWith("_DEAD_BUSH") || n.endsWith("_VINES") || n.endsWith("_VINE")
-                || n.endsWith("_TORCHFLOWER") || n.endsWith("_PITCHER_PLANT");
-    }
-    private boolean isTree(Material m) {
-        String n = m.name();
-        return n.endsWith("_LOG") || n.endsWith("_WOOD") || n.endsWith("_HYPHAE")
-                || n.endsWith("_STEM") || n.endsWith("_LEAVES");
+    private void stamp(Chunk ch, long time, double sev) {
+        var pdc = ch.getPersistentDataContainer();
+        pdc.set(timeKey, PersistentDataType.LONG, time);
+        pdc.set(sevKey, PersistentDataType.FLOAT, (float) sev);
     }
 
-    // 목재 구조물(판자/계단/슬랩/울타리/문/트랩도어/간판/책장/상자/사다리 등)
-    private boolean isWoodenBlock(Material m) {
-        String n = m.name();
-        if (n.endsWith("_PLANKS") || n.endsWith("_STAIRS") || n.endsWith("_SLAB")
-                || n.endsWith("_FENCE") || n.endsWith("_FENCE_GATE")
-                || n.endsWith("_DOOR") || n.endsWith("_TRAPDOOR")
-                || n.endsWith("_BUTTON") || n.endsWith("_PRESSURE_PLATE")
-                || n.endsWith("_SIGN") || n.endsWith("_HANGING_SIGN") || n.endsWith("_WALL_SIGN")) {
-            return true;
-        }
-        switch (n) {
-            case "BOOKSHELF": case "CHISELED_BOOKSHELF":
-            case "NOTE_BLOCK": case "JUKEBOX":
-            case "CRAFTING_TABLE": case "CARTOGRAPHY_TABLE":
-            case "FLETCHING_TABLE": case "SMITHING_TABLE": case "LOOM":
-            case "CHEST": case "TRAPPED_CHEST": case "BARREL":
-            case "LECTERN":
-            case "LADDER":
-            case "SCAFFOLDING":
-                return true;
-            default:
-                return false;
+    /** 매 틱: 따라잡기 몇 청크 + 적용 대기 변경을 apply-budget-ms 안에서만 적용, 남으면 다음 틱에 이어서 */
+    private void applyReady() {
+        catchUpTick();
+        if (ready.isEmpty()) return;
+        long t0 = System.nanoTime();
+        long deadline = t0 + (long)(applyBudgetMs * 1_000_000L);
+        while (!ready.isEmpty()) {
+            Batch b = ready.peek();
+            b.plan().apply(b.world(), deadline, applyCounts);
+            if (b.plan().isDone()) ready.poll();
+            if (System.nanoTime() >= deadline) break;
         }
+        applyNanos += System.nanoTime() - t0;
     }
 
-    // 대상 블록 위/옆 공기칸에 불을 붙이기
-    private boolean tryIgniteAround(Block base) {
-        Block up = base.getRelative(0, 1, 0);
-        if (up.getType().isAir()) { up.setType(Material.FIRE, true); return true; }
-        int[][] dirs = {{1,0},{-1,0},{0,1},{0,-1}};
-        for (int[] d : dirs) {
-            Block side = base.getRelative(d[0], 0, d[1]);
-            if (side.getType().isAir()) { side.setType(Material.FIRE, true); return true; }
-        }
-        return false;
+    private int backlog() {
+        int n = 0;
+        for (Batch b : ready) n += b.plan().remaining();
+        return n;
     }
 
-    // 확률 롤
-    private boolean roll(double p) {
-        if (p <= 0) return false;
-        if (p >= 1) return true;
-        return rnd.nextDouble() < p;
+    private int safeSeaLevel(World w) {
+        try { return w.getSeaLevel(); } catch (Throwable t) { return 62; }
     }
 
-    /** 0~1 클램프 */
-    private double severityClamp(double v) { return v < 0 ? 0 : (v > 1 ? 1 : v); }
-
-    /** '근원 물'(Level 0) 판정 */
-    private boolean isWaterSource(Block b) {
-        if (b.getType() != Material.WATER) return false;
-        org.bukkit.block.data.BlockData data = b.getBlockData();
-        if (data instanceof org.bukkit.block.data.Levelled lv) {
-            return lv.getLevel() == 0; // Level 0 = source
-        }
-        return true;
+    @EventHandler
+    public void onChunkLoad(ChunkLoadEvent e) {
+        ActiveChunks chunks = active.get(e.getWorld());
+        if (chunks != null) chunks.chunkLoaded(e.getChunk().getX(), e.getChunk().getZ());
     }
 
-    /** 흐르는 물 (= WATER & Level > 0) */
-    private boolean isFlowingWater(Block b) {
-        if (b.getType() != Material.WATER) return false;
-        org.bukkit.block.data.BlockData data = b.getBlockData();
-        return (data instanceof org.bukkit.block.data.Levelled lv) && lv.getLevel() > 0;
+    @EventHandler
+    public void onChunkUnload(ChunkUnloadEvent e) {
+        ActiveChunks chunks = active.get(e.getWorld());
+        if (chunks != null) chunks.chunkUnloaded(e.getChunk().getX(), e.getChunk().getZ());
     }
 
-    /** 워터로그드 물기 제거 */
-    private boolean clearWaterlogged(Block b) {
-        org.bukkit.block.data.BlockData data = b.getBlockData();
-        if (data instanceof org.bukkit.block.data.Waterlogged wl && wl.isWaterlogged()) {
-            wl.setWaterlogged(false);
-            b.setBlockData(wl, false);
-            return true;
-        }
-        return false;
+    @EventHandler
+    public void onWorldUnload(WorldUnloadEvent e) {
+        active.remove(e.getWorld());
+        planning.remove(e.getWorld());
+        paused.remove(e.getWorld());
+        ready.removeIf(b -> b.world() == e.getWorld());
     }
 
-    /**
-     * 흐르는 물 기준 이웃에서 근원(source) 찾아 제거 (얕은 추적 + 예산 제한)
-     */
-    private int drainUpstreamSources(Block b, double sev, int budget) {
-        if (budget <= 0) return 0;
-        int removed = 0;
-
-        final int[][] dirs = { {0,0,-1}, {-1,0,0}, {1,0,0}, {0,0,1}, {0,1,0} };
-        final int bx = b.getX(), by = b.getY(), bz = b.getZ();
-        final World w = b.getWorld();
-
-        for (int[] d : dirs) {
-            if (removed >= budget) break;
-            Block nb = w.getBlockAt(bx + d[0], by + d[1], bz + d[2]);
-            if (isWaterSource(nb) && roll(evaporateChance(sev))) {
-                nb.setType(Material.AIR, false);
-                removed++;
-            } else {
-                if (isFlowingWater(nb) && budget - removed > 0) {
-                    removed += drainUpstreamSourcesOneStep(nb, sev, budget - removed);
-                }
-            }
-        }
-        return removed;
+    /** 샘플링 대상 청크 수 (아직 한 번도 돌지 않은 월드는 0) */
+    public int getActiveChunkCount(World w) {
+        ActiveChunks chunks = active.get(w);
+        return chunks == null ? 0 : chunks.size();
     }
 
-    /** 상류 한 단계만 더 살피는 가벼운 탐색 */
-    private int drainUpstreamSourcesOneStep(Block b, double sev, int budget) {
-        if (budget <= 0) return 0;
-        int removed = 0;
-        final int[][] dirs = { {0,0,-1}, {-1,0,0}, {1,0,0}, {0,0,1}, {0,1,0} };
-        final int bx = b.getX(), by = b.getY(), bz = b.getZ();
-        final World w = b.getWorld();
-
-        for (int[] d : dirs) {
-            if (removed >= budget) break;
-            Block nb = w.getBlockAt(bx + d[0], by + d[1], bz + d[2]);
-            if (isWaterSource(nb) && roll(evaporateChance(sev))) {
-                nb.setType(Material.AIR, false);
-                removed++;
-            }
-        }
-        return removed;
+    public long getChunksVisited() { return chunksVisited; }
+
+    /** 규칙까지 간 샘플 / 그중 블록이 바뀐 샘플 / 수확률이 낮아 이번 순회에서 건너뛴 청크 */
+    public long getSamplesTaken() { return samplesTaken; }
+    public long getSampleHits() { return sampleHits; }
+    public double getHitRate() { return samplesTaken == 0 ? 0.0 : (double) sampleHits / samplesTaken; }
+    public long getChunksSkipped() { return chunksSkipped; }
+
+    /** 따라잡기한 청크 수 / 총 라운드 / 대기 중 청크 */
+    public long getCatchUpChunks() { return catchUpChunks; }
+    public long getCatchUpRounds() { return catchUpRounds; }
+    public int getCatchUpBacklog() {
+        int n = 0;
+        for (ActiveChunks c : active.values()) n += c.catchUpBacklog();
+        return n;
     }
 
+    /** 계산 묶음 수 / 적용한 블록 / 스냅샷 이후 바뀌어서 건너뛴 블록 / 적용 대기 블록 */
+    public long getBatches() { return batches; }
+    public long getApplied() { return applyCounts[0]; }
+    public long getStale() { return applyCounts[1]; }
+    public int getBacklog() { return backlog(); }
+    /** 묶음당 평균 시간 (스냅샷/적용 = 메인, 계산 = 워커) */
+    public double getMeanSnapshotMs() { return batches == 0 ? 0.0 : snapshotNanos / 1e6 / batches; }
+    public double getMeanPlanMs() { return batches == 0 ? 0.0 : planNanos / 1e6 / batches; }
+    public double getMeanApplyMs() { return batches == 0 ? 0.0 : applyNanos / 1e6 / batches; }
+
     /* ---------------- 일광 화상(물 속 면제 + 모든 LivingEntity 적용) ---------------- */
     private void applySunburn(World w, double severity) {
         for (org.bukkit.entity.LivingEntity e : w.getLivingEntities()) {
@@ -528,6 +475,6 @@ public class DoomsdayManager {
     private boolean isSubmergedInWater(org.bukkit.entity.LivingEntity e) {
         Material feet = e.getLocation().getBlock().getType();
         Material eyeB = e.getEyeLocation().getBlock().getType();
-        return isWater(feet) || isWater(eyeB);
+        return DoomsdayRules.isWater(feet) || DoomsdayRules.isWater(eyeB);
     }
 }
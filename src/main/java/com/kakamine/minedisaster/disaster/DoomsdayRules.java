@@ -0,0 +1,442 @@
+package com.kakamine.minedisaster.disaster;
+
+import org.bukkit.Material;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.Random;
+
+/**
+ * 지구 멸망 표면 규칙 (잔디/눈/물/나무/목조물)
+ * - 월드가 아닌 SurfaceAccess 위에서 판정/변경 → 스냅샷 위 워커 스레드에서도, 오프라인 도구에서도 같은 규칙
+ * - 설정은 Params 로 고정해 넘기고, 인스턴스(난수 포함)는 스레드 하나에서만 사용
+ * - 오프라인 도구는 char 모드: 불을 놓는 대신 탄 결과를 바로 씀 (파일 속 불은 로드 전엔 타지 않으므로)
+ */
+public final class DoomsdayRules {
+
+    private static final int[][] UPSTREAM = { {0,0,-1}, {-1,0,0}, {1,0,0}, {0,0,1}, {0,1,0} };
+    private static final int[][] SIDES = { {1,0}, {-1,0}, {0,1}, {0,-1} };
+
+    /** 메인 스레드에서 읽어 둔 설정 (워커 스레드에서 config 접근 안 함) */
+    public record Params(double waterBase, double waterExp, double waterSpeedMult,
+                  int waterMaxSteps, int waterExtraDepth, int waterLateralTries,
+                  boolean oceanModeEnabled, int oceanPatchRadius, int oceanVerticalSteps,
+                  int oceanPatchBudget, double oceanSpeedMult, int oceanSeaWindow,
+                  double grassBase, double grassExp, double treesBase, double treesExp) {
+
+        /** @param c config 의 doomsday 섹션 (null 이면 기본값) */
+        public static Params read(ConfigurationSection c) {
+            return new Params(
+                    d(c, "water.base", 0.12),
+                    d(c, "water.exp", 1.1),
+                    Math.max(0.1, d(c, "water.speed-mult", 2.5)),
+                    Math.max(1,   i(c, "water.max-steps", 4)),
+                    Math.max(0,   i(c, "water.extra-depth", 2)),
+                    Math.max(0,   i(c, "water.lateral-tries", 2)),
+                    c == null || c.getBoolean("water.ocean.enabled", true),
+                    Math.max(1, i(c, "water.ocean.patch-radius", 2)),
+                    Math.max(1, i(c, "water.ocean.vertical-steps", 4)),
+                    Math.max(4, i(c, "water.ocean.per-patch-budget", 24)),
+                    Math.max(1.0, d(c, "water.ocean.speed-mult", 3.0)),
+                    Math.max(0, i(c, "water.ocean.sea-window", 2)),
+                    d(c, "grass.base", 0.12),
+                    d(c, "grass.exp", 1.0),
+                    d(c, "trees.base", 0.10),
+                    d(c, "trees.exp", 1.0));
+        }
+
+        private static double d(ConfigurationSection c, String path, double def) { return c == null ? def : c.getDouble(path, def); }
+        private static int i(ConfigurationSection c, String path, int def) { return c == null ? def : c.getInt(path, def); }
+    }
+
+    private final Params p;
+    private final Random rnd;
+    private final boolean charInsteadOfFire;
+
+    public DoomsdayRules(Params p, Random rnd) {
+        this(p, rnd, false);
+    }
+
+    /** @param charInsteadOfFire true 면 나무/목재에 불 대신 그을린 결과(석탄 블록/공기)를 씀 */
+    public DoomsdayRules(Params p, Random rnd, boolean charInsteadOfFire) {
+        this.p = p;
+        this.rnd = rnd;
+        this.charInsteadOfFire = charInsteadOfFire;
+    }
+
+    /**
+     * 청크 (cx,cz) 에서 samples 번 표면 샘플링 → 규칙 적용
+     * @param stats [규칙까지 간 샘플, 블록이 바뀐 샘플] 에 더함
+     * @return 바뀐 블록 수 (budget 에 닿으면 멈춤)
+     */
+    int sampleChunk(SurfaceAccess s, int cx, int cz, double severity, int samples, int budget, int[] stats) {
+        int updates = 0;
+        double gate = gate(severity);
+        for (int i = 0; i < samples && updates < budget; i++) {
+            int x = (cx << 4) + rnd.nextInt(16);
+            int z = (cz << 4) + rnd.nextInt(16);
+            int y = s.highestY(x, z);
+            if (y == Integer.MIN_VALUE) continue;
+            if (rnd.nextDouble() > gate) continue;
+            int changed = apply(s, x, y, z, severity);
+            stats[0]++;
+            if (changed > 0) { stats[1]++; updates += changed; }
+        }
+        return updates;
+    }
+
+    /**
+     * 따라잡기: 청크의 모든 열(16×16)을 rounds 번 훑으며 규칙 적용 (매 회 바뀐 표면을 다시 찾음)
+     * @return 바뀐 블록 수
+     */
+    public int catchUpChunk(SurfaceAccess s, int cx, int cz, double severity, int rounds) {
+        int updates = 0;
+        double gate = gate(severity);
+        for (int r = 0; r < rounds; r++) {
+            for (int lx = 0; lx < 16; lx++) {
+                for (int lz = 0; lz < 16; lz++) {
+                    int x = (cx << 4) + lx, z = (cz << 4) + lz;
+                    int y = s.highestY(x, z);
+                    if (y == Integer.MIN_VALUE) continue;
+                    if (rnd.nextDouble() > gate) continue;
+                    updates += apply(s, x, y, z, severity);
+                }
+            }
+        }
+        return updates;
+    }
+
+    // 내부 게이트: sev 높으면 거의 통과
+    private static double gate(double severity) {
+        return (severity >= 0.9) ? 1.0 : (0.15 + severity * 0.5);
+    }
+
+    /**
+     * 하늘에 노출된 표면 블록 (x,y,z) 하나에 규칙 적용
+     * @return 바뀐 블록 수
+     */
+    int apply(SurfaceAccess s, int x, int y, int z, double severity) {
+        Material type = s.type(x, y, z);
+        Material aboveType = s.type(x, y + 1, z);
+        if (type == null || aboveType == null) return 0;
+
+        // ★ 오션 전용: 해수면 근처 + 바다/강/해변 바이옴이면 패치 증발 우선 적용
+        if (p.oceanModeEnabled() && (isWater(type) || isWater(aboveType))) {
+            if (Math.abs(y - s.seaLevel()) <= p.oceanSeaWindow() && s.isOceanic(x, y, z)) {
+                return evaporateOceanPatch(s, x, y, z, severity);
+            }
+        }
+
+        // 1) 일반 물 증발 (근원 우선 + 워터로그드 + 상류 추적)
+        if (isWater(type) || isWater(aboveType)) {
+            int evaporated = evaporateWaterColumn(s, x, y, z, severity);
+            if (evaporated > 0) return evaporated;
+        }
+
+        // 2) 눈 녹이기
+        if (isSnow(aboveType)) {
+            if (roll(meltChance(severity))) { s.setType(x, y + 1, z, Material.AIR, true); return 1; }
+        }
+        if (isSnow(type)) {
+            if (roll(meltChance(severity))) { s.setType(x, y, z, Material.AIR, true); return 1; }
+        }
+
+        // 3) 잔디 → COARSE_DIRT (재확산 방지) + 위 식생/눈 제거
+        if (type == Material.GRASS_BLOCK) {
+            if (roll(grassDecayChance(severity))) {
+                if (isVegetation(aboveType) || isSnow(aboveType)) { s.setType(x, y + 1, z, Material.AIR, true); }
+                s.setType(x, y, z, Material.COARSE_DIRT, true);
+                return 1;
+            }
+        }
+
+        // 4) 나무(통나무/잎) 점화
+        if (isTree(type)) {
+            if (roll(treeIgniteChance(severity))) {
+                if (charInsteadOfFire ? charBlock(s, x, y, z, type) : tryIgniteAround(s, x, y, z)) return 1;
+            }
+        }
+
+        // 5) 목재 구조물(판자/계단/슬랩/울타리/문/트랩도어/간판/책장/상자 등) 점화
+        if (isWoodenBlock(type)) {
+            if (roll(treeIgniteChance(severity))) {
+                if (charInsteadOfFire ? charBlock(s, x, y, z, type) : tryIgniteAround(s, x, y, z)) return 1;
+            }
+        }
+
+        return 0;
+    }
+
+    // ── 확률 함수들
+    private double evaporateChance(double sev) {
+        return Math.pow(sev, p.waterExp()) * p.waterBase() * p.waterSpeedMult(); // 일반 가속 배수
+    }
+    private double evaporateChanceOcean(double sev) {
+        return evaporateChance(sev) * p.oceanSpeedMult(); // 오션 추가 가속
+    }
+    private double grassDecayChance(double sev) {
+        return Math.pow(sev, p.grassExp()) * p.grassBase();
+    }
+    private double treeIgniteChance(double sev) {
+        return Math.pow(sev, p.treesExp()) * p.treesBase();
+    }
+    private double meltChance(double sev) {
+        return Math.min(1.0, 0.15 + sev * 0.6);
+    }
+
+    /* ── 일반 물 증발(근원 우선): 근원(source) 제거 + 워터로그드 제거 + 상류 얕은 추적 ── */
+    private int evaporateWaterColumn(SurfaceAccess s, int x, int y, int z, double sev) {
+        int changed = 0;
+        int budget = p.waterMaxSteps();
+
+        // 0) 해당 칸 워터로그드 제거
+        if (clearWaterlogged(s, x, y, z)) {
+            changed++; if (--budget <= 0) return changed;
+        }
+
+        // 1) 표면/수면/바로 아래
+        for (int dy = 0; dy <= 2 && budget > 0; dy++) {
+            int by = y + dy;
+            if (isWaterSource(s, x, by, z) && roll(evaporateChance(sev))) {
+                s.setType(x, by, z, Material.AIR, false);
+                changed++; budget--;
+            } else if (isFlowingWater(s, x, by, z)) {
+                changed += drainUpstreamSources(s, x, by, z, sev, Math.min(2, budget));
+                budget = p.waterMaxSteps() - changed;
+            } else {
+                clearWaterlogged(s, x, by, z);
+            }
+        }
+
+        // 2) 아래로 파고듦
+        for (int dd = 1; dd <= p.waterExtraDepth() && budget > 0; dd++) {
+            int by = y - dd;
+            if (isWaterSource(s, x, by, z) && roll(evaporateChance(sev) * 0.8)) {
+                s.setType(x, by, z, Material.AIR, false);
+                changed++; budget--;
+            } else if (isFlowingWater(s, x, by, z)) {
+                changed += drainUpstreamSources(s, x, by, z, sev, Math.min(2, budget));
+                budget = p.waterMaxSteps() - changed;
+            } else {
+                clearWaterlogged(s, x, by, z);
+            }
+        }
+
+        // 3) 수평 확산
+        int r = Math.min(3, 1 + (int)Math.round(severityClamp(sev) * 2));
+        for (int i = 0; i < p.waterLateralTries() && budget > 0; i++) {
+            int bx = x + rnd.nextInt(r * 2 + 1) - r;
+            int bz = z + rnd.nextInt(r * 2 + 1) - r;
+            if (isWaterSource(s, bx, y, bz) && roll(evaporateChance(sev))) {
+                s.setType(bx, y, bz, Material.AIR, false);
+                changed++; budget--;
+            } else if (isFlowingWater(s, bx, y, bz)) {
+                changed += drainUpstreamSources(s, bx, y, bz, sev, Math.min(2, budget));
+                budget = p.waterMaxSteps() - changed;
+            } else {
+                clearWaterlogged(s, bx, y, bz);
+            }
+        }
+        return changed;
+    }
+
+    /* ── 오션 패치 증발: 표면 패치(반경 R) 내부 근원 물 다수 제거 + 상류 추적 ── */
+    private int evaporateOceanPatch(SurfaceAccess s, int x, int y, int z, double sev) {
+        int changed = 0;
+        int budget = p.oceanPatchBudget();
+        int R = p.oceanPatchRadius();
+        int sea = s.seaLevel();
+
+        // 패치 내부: 위→아래로 훑으면서 근원/흐름 처리
+        for (int dx = -R; dx <= R && budget > 0; dx++) {
+            for (int dz = -R; dz <= R && budget > 0; dz++) {
+                // 살짝 원형 느낌
+                if (dx*dx + dz*dz > R*R + R) continue;
+                int bx = x + dx, bz = z + dz;
+
+                // 표면 y 기준으로 위/아래 범위
+                for (int dy = 0; dy <= p.oceanVerticalSteps() && budget > 0; dy++) {
+                    int by = y + dy;
+                    if (isWaterSource(s, bx, by, bz) && roll(evaporateChanceOcean(sev))) {
+                        s.setType(bx, by, bz, Material.AIR, false);
+                        changed++; if (--budget <= 0) break;
+                    } else if (isFlowingWater(s, bx, by, bz)) {
+                        changed += drainUpstreamSources(s, bx, by, bz, sev, Math.min(3, budget));
+                        budget = p.oceanPatchBudget() - changed;
+                    } else {
+                        clearWaterlogged(s, bx, by, bz);
+                    }
+                }
+                for (int dd = 1; dd <= p.oceanVerticalSteps() && budget > 0; dd++) {
+                    int by = y - dd;
+                    // 해수면보다 훨씬 아래는 너무 깊으니 확률 낮춤
+                    double mult = (by >= sea - 6) ? 1.0 : 0.6;
+                    if (isWaterSource(s, bx, by, bz) && roll(evaporateChanceOcean(sev) * mult)) {
+                        s.setType(bx, by, bz, Material.AIR, false);
+                        changed++; if (--budget <= 0) break;
+                    } else if (isFlowingWater(s, bx, by, bz)) {
+                        changed += drainUpstreamSources(s, bx, by, bz, sev, Math.min(3, budget));
+                        budget = p.oceanPatchBudget() - changed;
+                    } else {
+                        clearWaterlogged(s, bx, by, bz);
+                    }
+                }
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * 흐르는 물 기준 이웃에서 근원(source) 찾아 제거 (얕은 추적 + 예산 제한)
+     */
+    private int drainUpstreamSources(SurfaceAccess s, int bx, int by, int bz, double sev, int budget) {
+        if (budget <= 0) return 0;
+        int removed = 0;
+        for (int[] d : UPSTREAM) {
+            if (removed >= budget) break;
+            int nx = bx + d[0], ny = by + d[1], nz = bz + d[2];
+            if (isWaterSource(s, nx, ny, nz) && roll(evaporateChance(sev))) {
+                s.setType(nx, ny, nz, Material.AIR, false);
+                removed++;
+            } else if (isFlowingWater(s, nx, ny, nz) && budget - removed > 0) {
+                removed += drainUpstreamSourcesOneStep(s, nx, ny, nz, sev, budget - removed);
+            }
+        }
+        return removed;
+    }
+
+    /** 상류 한 단계만 더 살피는 가벼운 탐색 */
+    private int drainUpstreamSourcesOneStep(SurfaceAccess s, int bx, int by, int bz, double sev, int budget) {
+        if (budget <= 0) return 0;
+        int removed = 0;
+        for (int[] d : UPSTREAM) {
+            if (removed >= budget) break;
+            int nx = bx + d[0], ny = by + d[1], nz = bz + d[2];
+            if (isWaterSource(s, nx, ny, nz) && roll(evaporateChance(sev))) {
+                s.setType(nx, ny, nz, Material.AIR, false);
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    // 대상 블록 위/옆 공기칸에 불을 붙이기
+    private boolean tryIgniteAround(SurfaceAccess s, int x, int y, int z) {
+        Material up = s.type(x, y + 1, z);
+        if (up != null && up.isAir()) { s.setType(x, y + 1, z, Material.FIRE, true); return true; }
+        for (int[] d : SIDES) {
+            Material side = s.type(x + d[0], y, z + d[1]);
+            if (side != null && side.isAir()) { s.setType(x + d[0], y, z + d[1], Material.FIRE, true); return true; }
+        }
+        return false;
+    }
+
+    /**
+     * 불 대신 그을림 (오프라인)
+     * - 잎/줄기 식물 → 공기, 통나무/목재/판자/책장 → 석탄 블록, 그 밖의 얇은 목재 → 공기
+     * - 블록 엔티티가 있는 것(상자/간판 등)과 두 칸짜리 문은 그대로 (청크 NBT 의 블록 엔티티는 안 건드리므로)
+     * 이름 기반이라 서버 없이 동작
+     */
+    private static boolean charBlock(SurfaceAccess s, int x, int y, int z, Material type) {
+        String n = type.name();
+        if (n.endsWith("_LEAVES") || n.endsWith("PUMPKIN_STEM") || n.endsWith("MELON_STEM")) {
+            s.setType(x, y, z, Material.AIR, true);
+            return true;
+        }
+        if (isTree(type) || n.endsWith("_PLANKS") || n.equals("BOOKSHELF")) {
+            s.setType(x, y, z, Material.COAL_BLOCK, true);
+            return true;
+        }
+        if (hasBlockEntity(n) || (n.endsWith("_DOOR") && !n.endsWith("_TRAPDOOR"))) return false;
+        s.setType(x, y, z, Material.AIR, true);
+        return true;
+    }
+
+    private static boolean hasBlockEntity(String n) {
+        if (n.endsWith("_SIGN")) return true; // _HANGING_SIGN, _WALL_SIGN 포함
+        return switch (n) {
+            case "CHEST", "TRAPPED_CHEST", "BARREL", "LECTERN", "JUKEBOX", "CHISELED_BOOKSHELF" -> true;
+            default -> false;
+        };
+    }
+
+    /** '근원 물'(Level 0) 판정 */
+    private static boolean isWaterSource(SurfaceAccess s, int x, int y, int z) {
+        return s.type(x, y, z) == Material.WATER && s.waterLevel(x, y, z) <= 0;
+    }
+
+    /** 흐르는 물 (= WATER & Level > 0) */
+    private static boolean isFlowingWater(SurfaceAccess s, int x, int y, int z) {
+        return s.type(x, y, z) == Material.WATER && s.waterLevel(x, y, z) > 0;
+    }
+
+    /** 워터로그드 물기 제거 */
+    private static boolean clearWaterlogged(SurfaceAccess s, int x, int y, int z) {
+        if (!s.isWaterlogged(x, y, z)) return false;
+        s.clearWaterlogged(x, y, z);
+        return true;
+    }
+
+    // 확률 롤
+    private boolean roll(double p) {
+        if (p <= 0) return false;
+        if (p >= 1) return true;
+        return rnd.nextDouble() < p;
+    }
+
+    /** 0~1 클램프 */
+    private static double severityClamp(double v) { return v < 0 ? 0 : (v > 1 ? 1 : v); }
+
+    /* ── 재질 판정 ── */
+
+    public static boolean isWater(Material m) {
+        return m == Material.WATER || m == Material.KELP || m == Material.KELP_PLANT
+                || m == Material.SEAGRASS || m == Material.TALL_SEAGRASS || m == Material.BUBBLE_COLUMN;
+    }
+    static boolean isSnow(Material m) {
+        return m == Material.SNOW || m == Material.SNOW_BLOCK || m == Material.POWDER_SNOW;
+    }
+
+    // 1.21 호환(이름 기반): SHORT_GRASS/GRASS/TALL_GRASS 등 폭넓게 처리
+    static boolean isVegetation(Material m) {
+        String n = m.name();
+        if (n.equals("SHORT_GRASS") || n.equals("GRASS") || n.equals("TALL_GRASS")) return true;
+        return n.endsWith("_FLOWER") || n.endsWith("_SEEDS") || n.endsWith("_FUNGUS") || n.endsWith("_ROOTS")
+                || n.endsWith("_SAPLING") || n.endsWith("_BUSH") || n.endsWith("_FERN")
+                || n.endsWith("_DEAD_BUSH") || n.endsWith("_VINES") || n.endsWith("_VINE")
+                || n.endsWith("_TORCHFLOWER") || n.endsWith("_PITCHER_PLANT");
+    }
+    static boolean isTree(Material m) {
+        String n = m.name();
+        return n.endsWith("_LOG") || n.endsWith("_WOOD") || n.endsWith("_HYPHAE")
+                || n.endsWith("_STEM") || n.endsWith("_LEAVES");
+    }
+
+    // 목재 구조물(판자/계단/슬랩/울타리/문/트랩도어/간판/책장/상자/사다리 등)
+    static boolean isWoodenBlock(Material m) {
+        String n = m.name();
+        if (n.endsWith("_PLANKS") || n.endsWith("_STAIRS") || n.endsWith("_SLAB")
+                || n.endsWith("_FENCE") || n.endsWith("_FENCE_GATE")
+                || n.endsWith("_DOOR") || n.endsWith("_TRAPDOOR")
+                || n.endsWith("_BUTTON") || n.endsWith("_PRESSURE_PLATE")
+                || n.endsWith("_SIGN") || n.endsWith("_HANGING_SIGN") || n.endsWith("_WALL_SIGN")) {
+            return true;
+        }
+        switch (n) {
+            case "BOOKSHELF": case "CHISELED_BOOKSHELF":
+            case "NOTE_BLOCK": case "JUKEBOX":
+            case "CRAFTING_TABLE": case "CARTOGRAPHY_TABLE":
+            case "FLETCHING_TABLE": case "SMITHING_TABLE": case "LOOM":
+            case "CHEST": case "TRAPPED_CHEST": case "BARREL":
+            case "LECTERN":
+            case "LADDER":
+            case "SCAFFOLDING":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    public static boolean isOceanicBiome(String name) {
+        return name.contains("OCEAN") || name.equals("BEACH") || name.equals("RIVER");
+    }
+}
@@ -4,105 +4,389 @@ import com.kakamine.minedisaster.MineDisaster;
 import org.bukkit.*;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+import org.bukkit.util.Vector;
 
-import java.util.Random;
+import java.util.*;
 
+/**
+ * 지진 관리
+ * - 여러 지진(다른 지역/월드)을 동시에 진행, 모두 공용 작업 하나(2틱 주기)에서 처리
+ * - 플레이어마다 겹치는 지진들의 흔들림을 모아 두었다가 apply-every-ticks 마다 한 번만 적용
+ *   (velocity: 속도 더하기 / camera: 피격 흔들림 애니메이션만 / teleport: 기존 방식, 비교용)
+ * - 본진 뒤 여진: 발생 시각은 Omori 법칙(발생률 ∝ 1/(c+t)^p), 규모는 Gutenberg-Richter(b 값),
+ *   가장 큰 여진은 Båth 법칙(본진 - 1.2) 이하
+ * - 지표 붕괴로 블록이 사라지면 월드별 StructuralCollapse 가 주변 지지 구조를 틱당 예산 안에서 점검
+ */
 public class EarthquakeManager {
     private final MineDisaster plugin;
-    private BukkitRunnable task;
+    private BukkitTask task;
     private final Random random = new Random();
-    private boolean running = false;
+
+    /** 진행 중인 지진 하나 */
+    public static final class Quake {
+        final int id;
+        final int parent;                 // 여진이면 본진 id, 아니면 0
+        final World world;
+        final Location center;
+        final double magnitude;
+        final int radius;
+        final int duration;               // 틱
+        final SeismicField field;
+        int ticks;
+        long shakePackets;                // 이 지진 때문에 보낸 흔들림 패킷 수
+
+        Quake(int id, int parent, Location center, double magnitude, int radius, int duration, SeismicField field) {
+            this.id = id;
+            this.parent = parent;
+            this.world = center.getWorld();
+            this.center = center;
+            this.magnitude = magnitude;
+            this.radius = radius;
+            this.duration = duration;
+            this.field = field;
+        }
+
+        public int getId() { return id; }
+        public int getParent() { return parent; }
+        public boolean isAftershock() { return parent > 0; }
+        public World getWorld() { return world; }
+        public Location getCenter() { return center.clone(); }
+        public double getMagnitude() { return magnitude; }
+        public int getRadius() { return radius; }
+        public int getRemainingSeconds() { return Math.max(0, (duration - ticks) / 20); }
+        public long getShakePackets() { return shakePackets; }
+    }
+
+    /** 아직 시작 전인 여진 */
+    private record Aftershock(int parent, long at, Location center, double magnitude, int radius, int durationSec) {}
+
+    /** 본진 하나에 딸린 예정 여진 (목록 표시용) */
+    public record PendingAftershocks(int parent, int count, int nextSeconds) {}
+
+    private final List<Quake> quakes = new ArrayList<>();
+    private final List<Aftershock> aftershocks = new ArrayList<>(); // at 오름차순
+    private int nextId = 1;
+    private long now;
+
+    // 월드별 구조 붕괴 (지진이 끝나도 점검이 남아 있으면 계속 진행)
+    private final Map<World, StructuralCollapse> collapses = new HashMap<>();
+
+    /** 플레이어 하나의 흔들림 누적 (적용 주기까지 모음) */
+    private static final class Impulse {
+        double dx, dz;      // 적용 전까지 누적
+        float peak;         // 적용 전까지 최대 강도
+        Quake dominant;     // 가장 강하게 흔든 지진 (패킷 집계용)
+        float level;        // 이번 틱 최대 강도
+        boolean sWave;      // 이번 틱 S파 도달
+    }
+
+    private final Map<Player, Impulse> impulses = new HashMap<>();
+
+    // 흔들림 패킷 누계 (방식별 비교용)
+    private long shakePackets, shakeTicks;
 
     public EarthquakeManager(MineDisaster plugin) {
         this.plugin = plugin;
     }
 
-    /** 지진 시작 */
-    public void start(Location center, double magnitude, int radius, int durationSec) {
-        if (running) {
-            plugin.getLogger().warning("지진이 이미 발생 중입니다!");
-            return;
+    /** 지진 시작, @return 지진 id (동시 지진 상한이면 -1) */
+    public int start(Location center, double magnitude, int radius, int durationSec) {
+        int id = begin(0, center, magnitude, radius, durationSec);
+        if (id > 0 && plugin.getConfig().getBoolean("earthquake.aftershocks.enabled", true)) planAftershocks(id, center, magnitude, radius, durationSec);
+        return id;
+    }
+
+    private int begin(int parent, Location center, double magnitude, int radius, int durationSec) {
+        int max = Math.max(1, plugin.getConfig().getInt("earthquake.max-concurrent", 8));
+        if (quakes.size() >= max) {
+            plugin.getLogger().warning("동시 지진 상한(" + max + ")에 도달했습니다!");
+            return -1;
         }
-        running = true;
-        World w = center.getWorld();
-
-        task = new BukkitRunnable() {
-            int ticks = 0;
-            final int duration = Math.max(1, durationSec) * 20;
-
-            @Override
-            public void run() {
-                if (ticks >= duration) {
-                    stopAll();
-                    cancel();
-                    return;
-                }
 
-                // 플레이어 흔들기/효과
-                for (Player p : w.getPlayers()) {
-                    double dist = p.getLocation().distance(center);
-                    if (dist > radius) continue;
-
-                    double strength = Math.max(0.1, (1.0 - dist / radius)) * magnitude;
-
-                    // 살짝 흔들기 (TP 과도 시 서버 경고가 날 수 있어 너무 큰 값은 피함)
-                    if (strength > 0.2) {
-                        Location loc = p.getLocation();
-                        double dx = (random.nextDouble() - 0.5) * strength * 0.15;
-                        double dz = (random.nextDouble() - 0.5) * strength * 0.15;
-                        loc.add(dx, 0, dz);
-                        p.teleport(loc);
-                    }
-
-                    // 소리
-                    if (random.nextDouble() < 0.2) {
-                        w.playSound(p.getLocation(), Sound.ENTITY_GENERIC_EXPLODE, 0.4f, 0.8f);
-                    }
-                    // 파티클: BLOCK (구 BLOCK_CRACK 대체)
-                    if (random.nextDouble() < 0.35) {
-                        Location l = p.getLocation().clone().add(0, 0.1, 0);
-                        w.spawnParticle(
-                                Particle.BLOCK,                 // ✅ BLOCK_CRACK 대체
-                                l,
-                                8,                               // count
-                                1.0, 0.1, 1.0,                   // offsets
-                                0.0,                             // extra/speed
-                                Material.STONE.createBlockData() // ✅ BlockData 필수
-                        );
-                    }
-                }
+        // 강도 필드: 감쇠/위상/P·S파 도달 틱을 시작 때 한 번 계산
+        SeismicField field = new SeismicField(center.getBlockX(), center.getBlockZ(), radius,
+                plugin.getConfig().getInt("earthquake.field.cell-size", 4),
+                plugin.getConfig().getDouble("earthquake.field.p-wave-speed", 3.0),
+                plugin.getConfig().getDouble("earthquake.field.s-wave-speed", 1.75),
+                plugin.getConfig().getDouble("earthquake.field.wavelength", 24.0),
+                plugin.getConfig().getDouble("earthquake.field.p-wave-strength", 0.35));
+
+        // S파가 반경 끝까지 닿기 전에 끝나지 않도록
+        int duration = Math.max(Math.max(1, durationSec) * 20, field.lastArrival() + 2);
+        Quake q = new Quake(nextId++, parent, center.clone(), magnitude, radius, duration, field);
+        quakes.add(q);
+        if (task == null) task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 0L, 2L);
+        plugin.getLogger().info((parent > 0 ? "여진 시작(#" + parent + "): " : "지진 시작: ")
+                + "#" + q.id + " m=" + String.format("%.1f", magnitude) + ", r=" + radius + ", t=" + durationSec + "s");
+        return q.id;
+    }
+
+    /**
+     * 여진 목록 생성
+     * - 개수 = count-per-magnitude × (본진 - 최소 규모), 최대 max-count
+     * - 발생 시각: [0, window] 에서 (c+t)^-p 분포 역함수 샘플링
+     * - 규모: 최소 규모 ~ (본진 - 1.2) 사이 절단 Gutenberg-Richter
+     */
+    private void planAftershocks(int parent, Location center, double magnitude, int radius, int durationSec) {
+        double minMag = plugin.getConfig().getDouble("earthquake.aftershocks.min-magnitude", 2.0);
+        double maxMag = magnitude - 1.2;
+        if (maxMag <= minMag) return;
+        int count = Math.min(Math.max(0, plugin.getConfig().getInt("earthquake.aftershocks.max-count", 12)),
+                (int) Math.round(plugin.getConfig().getDouble("earthquake.aftershocks.count-per-magnitude", 2.0) * (magnitude - minMag)));
+        double window = Math.max(10, plugin.getConfig().getDouble("earthquake.aftershocks.window-seconds", 180));
+        double p = plugin.getConfig().getDouble("earthquake.aftershocks.omori-p", 1.1);
+        double c = Math.max(0.01, plugin.getConfig().getDouble("earthquake.aftershocks.omori-c-seconds", 5.0));
+        double b = Math.max(0.1, plugin.getConfig().getDouble("earthquake.aftershocks.b-value", 1.0));
+        double spread = Math.max(0.0, plugin.getConfig().getDouble("earthquake.aftershocks.spread", 0.6));
+
+        long startTick = now + Math.max(1, durationSec) * 20L / 2; // 본진 중반 이후부터
+        for (int i = 0; i < count; i++) {
+            double u = random.nextDouble();
+            double t;
+            if (Math.abs(p - 1.0) < 1e-6) {
+                t = c * Math.pow((c + window) / c, u) - c;
+            } else {
+                double a0 = Math.pow(c, 1 - p), a1 = Math.pow(c + window, 1 - p);
+                t = Math.pow(a0 + u * (a1 - a0), 1.0 / (1 - p)) - c;
+            }
+            // 절단 G-R: P(M > m) ∝ 10^(-b m)
+            double span = 1 - Math.pow(10, -b * (maxMag - minMag));
+            double mag = minMag - Math.log10(1 - random.nextDouble() * span) / b;
+
+            double ang = random.nextDouble() * Math.PI * 2, d = Math.sqrt(random.nextDouble()) * radius * spread;
+            Location at = center.clone().add(Math.cos(ang) * d, 0, Math.sin(ang) * d);
+            double ratio = mag / magnitude;
+            addAftershock(new Aftershock(parent, startTick + (long) (t * 20), at, mag,
+                    Math.max(8, (int) Math.round(radius * ratio)), Math.max(3, (int) Math.round(durationSec * ratio))));
+        }
+        if (count > 0 && task == null) task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 0L, 2L);
+    }
+
+    private void addAftershock(Aftershock a) {
+        int i = aftershocks.size();
+        while (i > 0 && aftershocks.get(i - 1).at > a.at) i--;
+        aftershocks.add(i, a);
+    }
 
-                // 주기적으로 지표 약간 붕괴
-                if (ticks % 20 == 0) {
-                    int attempts = Math.max(1, (int) Math.round(magnitude * 3));
-                    for (int i = 0; i < attempts; i++) {
-                        int dx = random.nextInt(radius * 2) - radius;
-                        int dz = random.nextInt(radius * 2) - radius;
-                        Location l = center.clone().add(dx, 0, dz);
-                        int y = w.getHighestBlockYAt(l);
-                        Block b = w.getBlockAt(l.getBlockX(), Math.max(w.getMinHeight(), y - 1), l.getBlockZ());
-                        if (b.getType().isSolid() && random.nextDouble() < 0.25 && b.getType() != Material.BEDROCK) {
-                            b.setType(Material.AIR, true);
-                            w.spawnParticle(Particle.CLOUD, b.getLocation().add(0.5, 1, 0.5), 10, 0.3, 0.3, 0.3, 0.0);
-                        }
-                    }
+    private void tick() {
+        now += 2; // 2틱 주기
+
+        // 예정된 여진 시작 (본진이 멈췄으면 stop 에서 이미 빠짐)
+        while (!aftershocks.isEmpty() && aftershocks.get(0).at <= now) {
+            Aftershock a = aftershocks.remove(0);
+            if (a.center.getWorld() != null) begin(a.parent, a.center, a.magnitude, a.radius, a.durationSec);
+        }
+
+        for (int i = quakes.size() - 1; i >= 0; i--) {
+            Quake q = quakes.get(i);
+            if (q.ticks >= q.duration) {
+                quakes.remove(i);
+                plugin.getLogger().info("지진 종료: #" + q.id + " (흔들림 패킷 " + q.shakePackets + ")");
+            }
+        }
+
+        // 플레이어별 흔들림 합산: 지진마다 칸 조회 한 번
+        final double omega = plugin.getConfig().getDouble("earthquake.field.shake-frequency", 0.9); // rad/틱
+        for (Quake q : quakes) {
+            for (Player p : q.world.getPlayers()) {
+                Location loc = p.getLocation();
+                int cell = q.field.index(loc.getX(), loc.getZ());
+                if (cell < 0) continue;
+                float level = q.field.intensity(cell, q.ticks);
+                if (level <= 0f) continue;
+
+                Impulse im = impulses.computeIfAbsent(p, k -> new Impulse());
+                double strength = level * q.magnitude;
+                // 흔들림 방향은 칸 위상 + 시간
+                if (strength > 0.2) {
+                    double a = q.field.phase(cell) + q.ticks * omega;
+                    im.dx += Math.cos(a) * strength * 0.075;
+                    im.dz += Math.sin(a) * strength * 0.075;
                 }
+                if (level > im.peak) { im.peak = level; im.dominant = q; }
+                im.level = Math.max(im.level, level);
+                if (q.field.sWaveArrived(cell, q.ticks)) im.sWave = true;
+            }
+        }
 
-                ticks += 2; // 2틱 주기
+        String mode = plugin.getConfig().getString("earthquake.shake.mode", "velocity").toLowerCase();
+        int every = Math.max(2, plugin.getConfig().getInt("earthquake.shake.apply-every-ticks", 4));
+        boolean applyNow = now % every < 2;
+        if (applyNow) shakeTicks++;
+
+        for (Iterator<Map.Entry<Player, Impulse>> it = impulses.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Player, Impulse> e = it.next();
+            Player p = e.getKey();
+            Impulse im = e.getValue();
+            if (!p.isOnline()) { it.remove(); continue; }
+            Location loc = p.getLocation();
+            World w = loc.getWorld();
+
+            if (applyNow) {
+                if (shake(p, loc, im, mode) && im.dominant != null) { im.dominant.shakePackets++; shakePackets++; }
+                it.remove();
+            }
+
+            if (im.level <= 0f) continue;
+            double roll = random.nextDouble();
+            // 소리 (S파 도달 후만)
+            if (roll < 0.2 && im.sWave) {
+                w.playSound(loc, Sound.ENTITY_GENERIC_EXPLODE, 0.4f, 0.8f);
+            }
+            // 파티클: BLOCK (구 BLOCK_CRACK 대체), 강도에 비례
+            if (roll < 0.35 * im.level + 0.1) {
+                Location l = loc.add(0, 0.1, 0);
+                w.spawnParticle(
+                        Particle.BLOCK,                 // ✅ BLOCK_CRACK 대체
+                        l,
+                        8,                               // count
+                        1.0, 0.1, 1.0,                   // offsets
+                        0.0,                             // extra/speed
+                        Material.STONE.createBlockData() // ✅ BlockData 필수
+                );
+            }
+            im.level = 0f;
+            im.sWave = false;
+        }
+
+        for (Quake q : quakes) {
+            if (q.ticks % 20 == 0) collapse(q);
+            q.ticks += 2;
+        }
+
+        // 구조 붕괴 점검 (월드마다 노드 예산)
+        boolean collapsing = false;
+        if (!collapses.isEmpty()) {
+            int budget = Math.max(64, plugin.getConfig().getInt("earthquake.collapse.budget-per-tick", 1500));
+            int maxFalling = Math.max(1, plugin.getConfig().getInt("earthquake.collapse.max-falling-per-tick", 48));
+            int reach = Math.max(1, Math.min(plugin.getConfig().getInt("earthquake.collapse.reach", 6), 8));
+            int depth = Math.max(1, plugin.getConfig().getInt("earthquake.collapse.ground-depth", 3));
+            int maxNodes = Math.max(64, plugin.getConfig().getInt("earthquake.collapse.max-nodes", 4096));
+            for (StructuralCollapse sc : collapses.values()) {
+                sc.tick(budget, maxFalling, reach, depth, maxNodes);
+                if (!sc.isIdle()) collapsing = true;
+            }
+        }
+
+        if (quakes.isEmpty() && aftershocks.isEmpty() && !collapsing) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * 모아 둔 흔들림 적용, @return 패킷을 보냈는지
+     * - velocity: 누적 이동량을 속도로 더함 (이동 검증/청크 확인 없는 속도 패킷 하나)
+     * - camera: 위치는 그대로, 피격 흔들림 애니메이션만
+     * - teleport: 누적 이동량만큼 순간이동 (기존 방식)
+     */
+    private boolean shake(Player p, Location loc, Impulse im, String mode) {
+        if (im.dx == 0 && im.dz == 0) return false;
+        switch (mode) {
+            case "camera" -> {
+                if (im.peak < 0.15f) return false;
+                p.sendHurtAnimation((float) Math.toDegrees(Math.atan2(im.dz, im.dx)));
+            }
+            case "teleport" -> {
+                loc.add(im.dx, 0, im.dz);
+                p.teleport(loc);
+            }
+            default -> {
+                if (p.isFlying() || p.isGliding() || p.isInsideVehicle()) return false;
+                double scale = plugin.getConfig().getDouble("earthquake.shake.velocity-scale", 0.6);
+                p.setVelocity(p.getVelocity().add(new Vector(im.dx * scale, 0, im.dz * scale)));
             }
-        };
-        task.runTaskTimer(plugin, 0L, 2L);
-        plugin.getLogger().info("지진 시작: m=" + magnitude + ", r=" + radius + ", t=" + durationSec + "s");
+        }
+        return true;
+    }
+
+    /** 지표 약간 붕괴: S파가 지나간 칸에서 감쇠에 비례 */
+    private void collapse(Quake q) {
+        World w = q.world;
+        SeismicField field = q.field;
+        int attempts = Math.max(1, (int) Math.round(q.magnitude * 3));
+        boolean structural = plugin.getConfig().getBoolean("earthquake.collapse.enabled", true);
+        for (int i = 0; i < attempts; i++) {
+            int c = random.nextInt(field.cells());
+            if (!field.sWaveArrived(c, q.ticks) || random.nextFloat() >= 0.5f * field.attenuation(c)) continue;
+            int x = field.cellX(c) + random.nextInt(field.cell) - field.cell / 2;
+            int z = field.cellZ(c) + random.nextInt(field.cell) - field.cell / 2;
+            if (!w.isChunkLoaded(x >> 4, z >> 4)) continue; // 반경이 넓어도 청크를 불러오지 않음
+            int y = w.getHighestBlockYAt(x, z);
+            Block b = w.getBlockAt(x, Math.max(w.getMinHeight(), y - 1), z);
+            if (b.getType().isSolid() && b.getType() != Material.BEDROCK) {
+                b.setType(Material.AIR, true);
+                w.spawnParticle(Particle.CLOUD, b.getLocation().add(0.5, 1, 0.5), 10, 0.3, 0.3, 0.3, 0.0);
+                if (structural) collapses.computeIfAbsent(w, StructuralCollapse::new).blockRemoved(x, b.getY(), z);
+            }
+        }
+    }
+
+    /** 지진 하나 정지 (본진이면 진행 중/예정 여진도 함께), @return 정지한 지진 + 취소한 예정 여진 수 */
+    public int stop(int id) {
+        int n = 0;
+        for (int i = quakes.size() - 1; i >= 0; i--) {
+            Quake q = quakes.get(i);
+            if (q.id == id || q.parent == id) { quakes.remove(i); n++; }
+        }
+        int before = aftershocks.size();
+        aftershocks.removeIf(a -> a.parent == id);
+        n += before - aftershocks.size();
+        if (n > 0) plugin.getLogger().info("지진 종료: #" + id);
+        return n;
     }
 
     /** 지진 정지 */
     public void stopAll() {
-        running = false;
+        quakes.clear();
+        aftershocks.clear();
+        impulses.clear();
+        collapses.values().forEach(StructuralCollapse::clear);
+        collapses.clear();
         if (task != null) task.cancel();
         task = null;
         plugin.getLogger().info("지진 종료");
     }
 
-    public boolean isRunning() { return running; }
+    public boolean isRunning() { return !quakes.isEmpty() || !aftershocks.isEmpty(); }
+
+    /** 흔들림 패킷 누계 / 적용 회차 */
+    public long getShakePackets() { return shakePackets; }
+    public long getShakeTicks() { return shakeTicks; }
+
+    /** 구조 붕괴 합계: [지지 점검, 낙하 덩어리, 낙하 블록, 대기, FallingBlock 생성] */
+    public long[] getCollapseStats() {
+        long[] r = new long[5];
+        for (StructuralCollapse sc : collapses.values()) {
+            r[0] += sc.checks;
+            r[1] += sc.sections;
+            r[2] += sc.dropped;
+            r[3] += sc.backlog();
+            r[4] += sc.spawned;
+        }
+        return r;
+    }
+
+    public List<Quake> getQuakes() { return Collections.unmodifiableList(quakes); }
+
+    /** 예정 여진을 본진 id 별로 묶음 (본진이 이미 끝났어도 포함, id 오름차순) */
+    public List<PendingAftershocks> getPendingAftershocks() {
+        Map<Integer, int[]> by = new TreeMap<>();
+        for (Aftershock a : aftershocks) {
+            int[] e = by.get(a.parent);
+            if (e == null) by.put(a.parent, new int[]{1, (int) Math.max(0, (a.at - now) / 20)}); // at 오름차순 → 처음 것이 다음 여진
+            else e[0]++;
+        }
+        List<PendingAftershocks> out = new ArrayList<>(by.size());
+        for (Map.Entry<Integer, int[]> e : by.entrySet()) out.add(new PendingAftershocks(e.getKey(), e.getValue()[0], e.getValue()[1]));
+        return out;
+    }
+
+    /** 본진 id 의 아직 시작 전인 여진 수 */
+    public int pendingAftershocks(int parent) {
+        int n = 0;
+        for (Aftershock a : aftershocks) if (a.parent == parent) n++;
+        return n;
+    }
 }
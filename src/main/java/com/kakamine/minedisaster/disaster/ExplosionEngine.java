@@ -0,0 +1,314 @@
+package com.kakamine.minedisaster.disaster;
+
+import com.kakamine.minedisaster.util.BlockKeys;
+import com.kakamine.minedisaster.util.BlockUtils;
+import com.kakamine.minedisaster.util.LongIntMap;
+import org.bukkit.Bukkit;
+import org.bukkit.ExplosionResult;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.Sound;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.damage.DamageSource;
+import org.bukkit.damage.DamageType;
+import org.bukkit.entity.Damageable;
+import org.bukkit.entity.Display;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.FallingBlock;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.util.Vector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 메테오 전용 폭발 엔진 (World.createExplosion 대체)
+ * - 바닐라와 같은 16×16×16 격자 표면 광선(1352개), 0.3 스텝, 세기 = power × (0.7~1.3)
+ * - 광선마다 지나가는 칸 오프셋과 칸 안에서의 스텝 수를 power 별로 미리 계산해 캐시
+ *   (폭발 중심은 블록 중앙으로 맞춤)
+ * - 폭발 저항은 Material.ordinal() 로 찾는 배열, 칸 재질은 폭발 하나 안에서 캐시
+ * - 부술 블록은 중복 없이 모아 BlockExplodeEvent 를 거쳐 한 번에 적용, 같은 패스에서 엔티티 피해/넉백
+ */
+public final class ExplosionEngine {
+
+    private static final float STEP = 0.3f;
+    private static final float STEP_DECAY = 0.225f;
+    /** 오프셋 한 축 9비트(±256) 안에 광선이 들어가는 최대 power (도달 ≈ power × 1.73) */
+    public static final int MAX_POWER = 128;
+
+    /** power 하나의 광선 표: cells[r] = 칸 오프셋, steps[r] = 그 칸에서 진행하는 스텝 수 */
+    private static final class RayTable {
+        final int[][] cells;
+        final byte[][] steps;
+        final int cellCount;
+
+        RayTable(int[][] cells, byte[][] steps) {
+            this.cells = cells;
+            this.steps = steps;
+            int n = 0;
+            for (int[] c : cells) n += c.length;
+            this.cellCount = n;
+        }
+    }
+
+    private static final ConcurrentHashMap<Integer, RayTable> TABLES = new ConcurrentHashMap<>();
+    private static final float[] RESISTANCE;
+    private static final boolean[] AIR;
+
+    static {
+        Material[] all = Material.values();
+        RESISTANCE = new float[all.length];
+        AIR = new boolean[all.length];
+        for (Material m : all) {
+            // 아이템/LEGACY_* 는 getBlastResistance 가 예외 → 월드에 놓일 일 없으니 공기 취급
+            boolean block = m.isBlock() && !m.isLegacy();
+            RESISTANCE[m.ordinal()] = block ? m.getBlastResistance() : 0f;
+            AIR[m.ordinal()] = !block || m.isAir();
+        }
+    }
+
+    /** 부술 블록 목록 (키 = BlockKeys.pack) */
+    public static final class Plan {
+        long[] blocks = new long[256];
+        int size;
+        int rays, cellsVisited;
+
+        void add(long key) {
+            if (size == blocks.length) blocks = Arrays.copyOf(blocks, size << 1);
+            blocks[size++] = key;
+        }
+
+        public int size() { return size; }
+        public long get(int i) { return blocks[i]; }
+    }
+
+    private final Random rnd = new Random();
+
+    // 통계
+    private long explosions, blocksBroken, entitiesHit;
+    private long planNanos, applyNanos;
+
+    /** 오프셋 (-256..255)³ → int */
+    private static int packOffset(int dx, int dy, int dz) {
+        return ((dx + 256) << 18) | ((dy + 256) << 9) | (dz + 256);
+    }
+
+    private static int offX(int p) { return (p >>> 18) - 256; }
+    private static int offY(int p) { return ((p >>> 9) & 511) - 256; }
+    private static int offZ(int p) { return (p & 511) - 256; }
+
+    private static RayTable table(int power) {
+        return TABLES.computeIfAbsent(power, ExplosionEngine::buildTable);
+    }
+
+    private static RayTable buildTable(int power) {
+        // 최대 세기(1.3배)가 스텝 감쇠만으로 0 이 될 때까지
+        int maxSteps = (int) Math.ceil(power * 1.3f / STEP_DECAY);
+        int[][] cells = new int[1352][];
+        byte[][] steps = new byte[1352][];
+        int[] cBuf = new int[maxSteps];
+        byte[] sBuf = new byte[maxSteps];
+        int r = 0;
+
+        for (int i = 0; i < 16; i++) for (int j = 0; j < 16; j++) for (int k = 0; k < 16; k++) {
+            if (i != 0 && i != 15 && j != 0 && j != 15 && k != 0 && k != 15) continue;
+            double dx = i / 15.0 * 2 - 1, dy = j / 15.0 * 2 - 1, dz = k / 15.0 * 2 - 1;
+            double len = Math.sqrt(dx * dx + dy * dy + dz * dz);
+            dx = dx / len * STEP; dy = dy / len * STEP; dz = dz / len * STEP;
+
+            double x = 0.5, y = 0.5, z = 0.5;
+            int n = 0, last = Integer.MIN_VALUE;
+            for (int s = 0; s < maxSteps; s++) {
+                int fx = (int) Math.floor(x), fy = (int) Math.floor(y), fz = (int) Math.floor(z);
+                assert Math.abs(fx) < 256 && Math.abs(fy) < 256 && Math.abs(fz) < 256 : "광선이 오프셋 범위를 넘음: power=" + power;
+                int cell = packOffset(fx, fy, fz);
+                if (cell == last) sBuf[n - 1]++;
+                else { cBuf[n] = cell; sBuf[n] = 1; n++; last = cell; }
+                x += dx; y += dy; z += dz;
+            }
+            cells[r] = Arrays.copyOf(cBuf, n);
+            steps[r] = Arrays.copyOf(sBuf, n);
+            r++;
+        }
+        return new RayTable(cells, steps);
+    }
+
+    /** 월드를 바꾸지 않고 부술 블록만 계산 (power 는 MAX_POWER 까지) */
+    public Plan plan(World w, Location center, float power) {
+        long t0 = System.nanoTime();
+        power = Math.min(power, MAX_POWER);
+        RayTable t = table(Math.max(1, (int) Math.ceil(power)));
+        int cx = center.getBlockX(), cy = center.getBlockY(), cz = center.getBlockZ();
+        int minY = w.getMinHeight(), maxY = w.getMaxHeight();
+
+        LongIntMap mats = new LongIntMap(t.cellCount / 4, -1); // 칸 → Material ordinal
+        LongIntMap added = new LongIntMap(256, 0);
+        Plan plan = new Plan();
+        plan.rays = t.cells.length;
+
+        for (int r = 0; r < t.cells.length; r++) {
+            int[] cells = t.cells[r];
+            byte[] steps = t.steps[r];
+            float h = power * (0.7f + rnd.nextFloat() * 0.6f);
+
+            ray:
+            for (int c = 0; c < cells.length; c++) {
+                int p = cells[c];
+                int x = cx + offX(p), y = cy + offY(p), z = cz + offZ(p);
+                if (y < minY || y >= maxY) break;
+                long key = BlockKeys.pack(x, y, z);
+                int ord = mats.get(key);
+                if (ord < 0) {
+                    ord = w.getBlockAt(x, y, z).getType().ordinal();
+                    mats.put(key, ord);
+                    plan.cellsVisited++;
+                }
+                boolean air = AIR[ord];
+                float res = RESISTANCE[ord];
+
+                for (int s = steps[c]; s > 0; s--) {
+                    if (!air) {
+                        h -= (res + 0.3f) * STEP;
+                        if (h > 0 && added.get(key) == 0) {
+                            added.put(key, 1);
+                            plan.add(key);
+                        }
+                    }
+                    h -= STEP_DECAY;
+                    if (h <= 0) break ray;
+                }
+            }
+        }
+        planNanos += System.nanoTime() - t0;
+        return plan;
+    }
+
+    /**
+     * 폭발 전체: 계산 → BlockExplodeEvent → 블록 적용 → 엔티티 피해/넉백
+     * - 보호 플러그인 등이 목록을 줄이거나 취소할 수 있음, 취소돼도 피해/넉백은 그대로 (바닐라와 같음)
+     * - 드롭은 이벤트 yield 확률(기본 1/power), 보관함 내용물은 항상 드롭
+     * - 가장자리 블록만 물리 갱신(물/모래가 흘러들도록), 안쪽은 갱신 없이 제거
+     */
+    public void explode(Location center, float power, boolean ignite) {
+        explode(center, power, ignite, true);
+    }
+
+    /** breakBlocks=false: createExplosion(.., false, false) 처럼 블록은 그대로 두고 피해/넉백만 (벤치 비교용) */
+    public void explode(Location center, float power, boolean ignite, boolean breakBlocks) {
+        World w = center.getWorld();
+        if (w == null) return;
+        power = Math.min(power, MAX_POWER);
+        Plan plan = plan(w, center, power);
+
+        long t0 = System.nanoTime();
+        if (breakBlocks) {
+            applyBlocks(w, center, plan, power, ignite);
+        }
+
+        damageEntities(w, center, power);
+        w.playSound(center, Sound.ENTITY_GENERIC_EXPLODE, 4.0f, 0.7f + rnd.nextFloat() * 0.2f);
+
+        applyNanos += System.nanoTime() - t0;
+        explosions++;
+    }
+
+    private void applyBlocks(World w, Location center, Plan plan, float power, boolean ignite) {
+        List<Block> blocks = new ArrayList<>(plan.size);
+        for (int i = 0; i < plan.size; i++) {
+            long k = plan.blocks[i];
+            blocks.add(w.getBlockAt(BlockKeys.x(k), BlockKeys.y(k), BlockKeys.z(k)));
+        }
+        Block origin = center.getBlock();
+        BlockExplodeEvent event = new BlockExplodeEvent(origin, origin.getState(), blocks, 1.0f / power, ExplosionResult.DESTROY_WITH_DECAY);
+        Bukkit.getPluginManager().callEvent(event);
+        if (!event.isCancelled()) {
+            breakBlocks(w, event.blockList(), event.getYield());
+            if (ignite) ignite(event.blockList());
+        }
+    }
+
+    private void breakBlocks(World w, List<Block> blocks, float yield) {
+        LongIntMap set = new LongIntMap(blocks.size(), 0);
+        for (Block b : blocks) set.put(BlockKeys.pack(b.getX(), b.getY(), b.getZ()), 1);
+
+        for (Block b : blocks) {
+            if (AIR[b.getType().ordinal()]) continue; // 리스너가 넣었거나 그새 바뀐 칸
+            int x = b.getX(), y = b.getY(), z = b.getZ();
+            boolean border = set.get(BlockKeys.pack(x + 1, y, z)) == 0 || set.get(BlockKeys.pack(x - 1, y, z)) == 0
+                    || set.get(BlockKeys.pack(x, y + 1, z)) == 0 || set.get(BlockKeys.pack(x, y - 1, z)) == 0
+                    || set.get(BlockKeys.pack(x, y, z + 1)) == 0 || set.get(BlockKeys.pack(x, y, z - 1)) == 0;
+
+            BlockUtils.dropContainerContents(b);
+            if (yield > 0 && rnd.nextFloat() < yield) {
+                Location at = b.getLocation().add(0.5, 0.5, 0.5);
+                for (ItemStack it : b.getDrops()) w.dropItemNaturally(at, it);
+            }
+            b.setType(Material.AIR, border);
+            blocksBroken++;
+        }
+    }
+
+    /** 바닐라처럼 부서진 칸의 1/3 에 불 (아래가 단단할 때) */
+    private void ignite(List<Block> blocks) {
+        for (Block b : blocks) {
+            if (rnd.nextInt(3) != 0) continue;
+            if (b.getType().isAir() && b.getRelative(0, -1, 0).getType().isSolid()) b.setType(Material.FIRE, true);
+        }
+    }
+
+    /** 바닐라 공식: 영향 = (1 - 거리/2P) × 노출도, 피해 = (영향² + 영향)/2 × 7 × 2P + 1 */
+    private void damageEntities(World w, Location center, float power) {
+        double reach = power * 2.0;
+        Vector c = center.toVector();
+        DamageSource source = DamageSource.builder(DamageType.EXPLOSION).withDamageLocation(center).build();
+        for (Entity e : w.getNearbyEntities(center, reach, reach, reach)) {
+            if (e instanceof FallingBlock || e instanceof Display) continue;
+            Vector to = e.getLocation().toVector().subtract(c);
+            double dist = to.length() / reach;
+            if (dist > 1.0 || dist == 0) continue;
+
+            double impact = (1.0 - dist) * exposure(w, c, e);
+            if (impact <= 0) continue;
+            if (e instanceof Damageable d) d.damage((impact * impact + impact) / 2.0 * 7.0 * reach + 1.0, source);
+            e.setVelocity(e.getVelocity().add(to.normalize().multiply(impact)));
+            entitiesHit++;
+        }
+    }
+
+    /** 발/몸/눈 세 점까지 직선이 단단한 블록에 막히지 않는 비율 (블록 적용 후라 뚫린 곳은 통과) */
+    private double exposure(World w, Vector from, Entity e) {
+        double h = e.getHeight();
+        int open = 0;
+        for (int i = 0; i < 3; i++) {
+            Vector to = e.getLocation().toVector().add(new Vector(0, h * i * 0.5, 0));
+            if (clearLine(w, from, to)) open++;
+        }
+        return open / 3.0;
+    }
+
+    private boolean clearLine(World w, Vector from, Vector to) {
+        Vector d = to.clone().subtract(from);
+        double len = d.length();
+        if (len < 1.0) return true;
+        int n = (int) Math.ceil(len / 0.5);
+        double sx = d.getX() / n, sy = d.getY() / n, sz = d.getZ() / n;
+        double x = from.getX(), y = from.getY(), z = from.getZ();
+        for (int i = 1; i < n; i++) {
+            x += sx; y += sy; z += sz;
+            if (w.getBlockAt((int) Math.floor(x), (int) Math.floor(y), (int) Math.floor(z)).getType().isSolid()) return false;
+        }
+        return true;
+    }
+
+    public long getExplosions() { return explosions; }
+    public long getBlocksBroken() { return blocksBroken; }
+    public long getEntitiesHit() { return entitiesHit; }
+    /** 폭발당 평균 계산/적용 시간(ms) */
+    public double getMeanPlanMs() { return explosions == 0 ? 0.0 : planNanos / 1e6 / explosions; }
+    public double getMeanApplyMs() { return explosions == 0 ? 0.0 : applyNanos / 1e6 / explosions; }
+}
@@ -0,0 +1,338 @@
+package com.kakamine.minedisaster.disaster;
+
+import com.kakamine.minedisaster.MineDisaster;
+import com.kakamine.minedisaster.util.BlockKeys;
+import com.kakamine.minedisaster.util.LongIntMap;
+import com.kakamine.minedisaster.util.LongObjectMap;
+import org.bukkit.*;
+import org.bukkit.block.Block;
+
+import java.util.*;
+
+/**
+ * 메테오 충돌 후처리(스코치 → 분화구 → 화염 폭풍) 2단계 처리
+ * 1) 메인 스레드: 영향 범위 청크의 ChunkSnapshot 만 떠 둠
+ * 2) 비동기: 스냅샷 + 지금까지의 변경(오버레이)을 보면서 전체 변경 계획 작성
+ * 3) 메인 스레드: 계획 적용. 그 사이 블록이 바뀐 칸(스냅샷과 다름)은 건너뜀
+ * 짧은 시간(coalesce-ticks) 안에 같은 월드에 떨어진 충돌은 모아서 한 계획으로 합침
+ * → 겹치는 분화구/스코치는 같은 오버레이 위에서 차례로 계산되고 칸마다 최종 값 하나만 적용
+ */
+final class ImpactPlanner {
+
+    /** 메인 스레드에서 읽어 둔 설정 (비동기에서 config 접근 안 함) */
+    record Params(int power,
+                  boolean crater, double rBase, double rPerP, double depthScale, double rimNoise, boolean smooth,
+                  double magmaRimChance, double lavaBottomChance,
+                  int scorchR, double patchChance, double fireChance, boolean ash,
+                  boolean postfire, double postfireMult, int attempts, boolean skyOnly, double nethChance) {
+
+        static Params read(MineDisaster plugin, int power) {
+            var c = plugin.getConfig();
+            return new Params(power,
+                    c.getBoolean("meteor.crater.enabled", true),
+                    c.getDouble("meteor.crater.radius-base", 6.0),
+                    c.getDouble("meteor.crater.radius-per-power", 1.7),
+                    c.getDouble("meteor.crater.depth-scale", 0.58),
+                    Math.max(0, Math.min(0.5, c.getDouble("meteor.crater.rim-random", 0.22))),
+                    c.getBoolean("meteor.crater.smooth", true),
+                    c.getDouble("meteor.crater.magma-rim-chance", 0.18),
+                    c.getDouble("meteor.crater.lava-bottom-chance", 0.38),
+                    Math.max(0, c.getInt("meteor.scorch.radius", 6)),
+                    c.getDouble("meteor.scorch.magma-patch-chance", 0.40),
+                    c.getDouble("meteor.scorch.fire-chance", 0.45),
+                    c.getBoolean("meteor.scorch.ash-particles", true),
+                    c.getBoolean("meteor.postfire.enabled", true),
+                    c.getDouble("meteor.postfire.radius-multiplier", 1.3),
+                    Math.max(0, c.getInt("meteor.postfire.attempts", 260)),
+                    c.getBoolean("meteor.postfire.sky-only", true),
+                    c.getDouble("meteor.postfire.netherrack-chance", 0.12));
+        }
+
+        double craterRadius() { return crater ? rBase + rPerP * Math.max(0, power) : 0; }
+
+        double firestormRadius() {
+            double cr = craterRadius();
+            return (cr > 0 ? cr : scorchR) * Math.max(0.5, postfireMult);
+        }
+
+        /** 스냅샷을 떠야 하는 반경 */
+        double reach() {
+            double r = Math.max(scorchR, craterRadius() + rimNoise);
+            if (postfire) r = Math.max(r, firestormRadius());
+            return r + 1;
+        }
+    }
+
+    /** 스냅샷 + 계획 중 변경을 겹쳐 보는 읽기 전용 뷰 */
+    static final class TerrainView {
+        private final LongObjectMap<ChunkSnapshot> chunks;
+        private final LongIntMap overlay = new LongIntMap(1024, -1); // 키 → Material ordinal
+        private final Material[] mats = Material.values();
+        final int minY, maxY;
+
+        TerrainView(LongObjectMap<ChunkSnapshot> chunks, int minY, int maxY) {
+            this.chunks = chunks;
+            this.minY = minY;
+            this.maxY = maxY;
+        }
+
+        /** 스냅샷 원본 (범위 밖이면 null) */
+        Material original(int x, int y, int z) {
+            if (y < minY || y >= maxY) return Material.AIR;
+            ChunkSnapshot s = chunks.get(BlockKeys.chunk(x >> 4, z >> 4));
+            return s == null ? null : s.getBlockType(x & 15, y, z & 15);
+        }
+
+        Material type(int x, int y, int z) {
+            int o = overlay.get(BlockKeys.pack(x, y, z));
+            if (o >= 0) return mats[o];
+            Material m = original(x, y, z);
+            return m == null ? Material.BEDROCK : m; // 범위 밖은 건드리지 않도록
+        }
+
+        void set(int x, int y, int z, Material m) {
+            overlay.put(BlockKeys.pack(x, y, z), m.ordinal());
+        }
+
+        /** getHighestBlockYAt 과 같은 기준(움직임을 막는 블록/액체), 계획 중 변경 반영 */
+        int highest(int x, int z) {
+            ChunkSnapshot s = chunks.get(BlockKeys.chunk(x >> 4, z >> 4));
+            if (s == null) return minY;
+            int y = Math.min(maxY - 1, s.getHighestBlockYAt(x & 15, z & 15) + 2);
+            for (; y > minY; y--) {
+                Material m = type(x, y, z);
+                if (m.isSolid() || DoomsdayRules.isWater(m) || m == Material.LAVA) return y;
+            }
+            return minY;
+        }
+    }
+
+    /** 완성된 변경 계획 (키마다 최종 값 하나) */
+    static final class Plan {
+        long[] keys = new long[512];
+        int[] expected = new int[512];   // 스냅샷 당시 ordinal
+        Material[] to = new Material[512];
+        int size;
+        private final LongIntMap index = new LongIntMap(512, -1);
+
+        // 적용 때 뿌릴 재 파티클 위치
+        long[] ash = new long[64];
+        int ashSize;
+
+        // 분화구 연출 (중심 x,y,z, 반경, 깊이)
+        final List<double[]> craters = new ArrayList<>(2);
+        long planNanos;
+
+        // 쓰기 요청 수 / 이미 계획된 칸에 다시 쓴 수(합쳐져서 적용 안 되는 쓰기)
+        int writes, merged;
+
+        void put(long key, Material original, Material target) {
+            writes++;
+            int i = index.get(key);
+            if (i >= 0) { to[i] = target; merged++; return; }
+            if (size == keys.length) {
+                int n = size << 1;
+                keys = Arrays.copyOf(keys, n);
+                expected = Arrays.copyOf(expected, n);
+                to = Arrays.copyOf(to, n);
+            }
+            keys[size] = key;
+            expected[size] = original.ordinal();
+            to[size] = target;
+            index.put(key, size);
+            size++;
+        }
+
+        void ash(long key) {
+            if (ashSize == ash.length) ash = Arrays.copyOf(ash, ashSize << 1);
+            ash[ashSize++] = key;
+        }
+    }
+
+    /** 합치기 대기 중인 충돌 하나 */
+    private record Impact(int x, int y, int z, Params params, long seed) {}
+
+    private final MineDisaster plugin;
+    private final Map<World, List<Impact>> pending = new HashMap<>();
+
+    // 통계
+    private long impacts, batches, snapshotNanos, planNanos, applyNanos, applied, stale, avoided;
+
+    ImpactPlanner(MineDisaster plugin) {
+        this.plugin = plugin;
+    }
+
+    /** 메인 스레드에서 호출: 합치기 창이 끝나면 스냅샷 → 비동기 계획 → 메인 적용 */
+    void submit(World w, Location center, int power) {
+        Impact impact = new Impact(center.getBlockX(), center.getBlockY(), center.getBlockZ(),
+                Params.read(plugin, power), System.nanoTime());
+        int window = Math.max(0, plugin.getConfig().getInt("meteor.impact.coalesce-ticks", 6));
+
+        List<Impact> list = pending.computeIfAbsent(w, k -> new ArrayList<>());
+        list.add(impact);
+        if (list.size() > 1) return; // 이미 창이 열려 있음
+        if (window == 0) flush(w);
+        else Bukkit.getScheduler().runTaskLater(plugin, () -> flush(w), window);
+    }
+
+    private void flush(World w) {
+        List<Impact> list = pending.remove(w);
+        if (list == null || list.isEmpty()) return;
+
+        long t0 = System.nanoTime();
+        LongObjectMap<ChunkSnapshot> chunks = new LongObjectMap<>(16);
+        for (Impact im : list) snapshot(w, im.x(), im.z(), im.params().reach(), chunks);
+        snapshotNanos += System.nanoTime() - t0;
+
+        final TerrainView view = new TerrainView(chunks, w.getMinHeight(), w.getMaxHeight());
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            long p0 = System.nanoTime();
+            Plan plan = new Plan();
+            for (Impact im : list) plan(view, plan, im.x(), im.y(), im.z(), im.params(), new Random(im.seed()));
+            plan.planNanos = System.nanoTime() - p0;
+            Bukkit.getScheduler().runTask(plugin, () -> apply(w, plan, list.size()));
+        });
+    }
+
+    /** 반경 안 청크 스냅샷 (이미 뜬 청크는 건너뜀) */
+    static void snapshot(World w, int cx, int cz, double reach, LongObjectMap<ChunkSnapshot> out) {
+        int r = (int) Math.ceil(reach);
+        int minCx = (cx - r) >> 4, maxCx = (cx + r) >> 4, minCz = (cz - r) >> 4, maxCz = (cz + r) >> 4;
+        for (int x = minCx; x <= maxCx; x++) {
+            for (int z = minCz; z <= maxCz; z++) {
+                long key = BlockKeys.chunk(x, z);
+                if (!out.containsKey(key)) out.put(key, w.getChunkAt(x, z).getChunkSnapshot(true, false, false));
+            }
+        }
+    }
+
+    /** 비동기 안전: 스냅샷/오버레이만 읽음. 같은 plan 에 이어 쓰면 앞선 충돌의 변경 위에서 계산 */
+    static void plan(TerrainView v, Plan plan, int cx, int cy, int cz, Params p, Random rnd) {
+        scorch(v, plan, cx, cz, p, rnd);
+        if (p.crater) crater(v, plan, cx, cy, cz, p, rnd);
+        if (p.postfire) firestorm(v, plan, cx, cz, p, rnd);
+    }
+
+    private static void set(TerrainView v, Plan plan, int x, int y, int z, Material m) {
+        if (y < v.minY || y >= v.maxY) return;
+        Material orig = v.original(x, y, z);
+        if (orig == null) return;
+        v.set(x, y, z, m);
+        plan.put(BlockKeys.pack(x, y, z), orig, m);
+    }
+
+    private static boolean exposed(TerrainView v, int x, int y, int z) {
+        return y >= v.highest(x, z);
+    }
+
+    private static void scorch(TerrainView v, Plan plan, int cx, int cz, Params p, Random rnd) {
+        int radius = p.scorchR;
+        for (int dx = -radius; dx <= radius; dx++) {
+            for (int dz = -radius; dz <= radius; dz++) {
+                if (dx * dx + dz * dz > radius * radius) continue;
+                int x = cx + dx, z = cz + dz;
+                int y = v.highest(x, z);
+                if (!exposed(v, x, y, z)) continue;
+
+                if (rnd.nextDouble() < p.patchChance && v.type(x, y, z) != Material.BEDROCK) set(v, plan, x, y, z, Material.MAGMA_BLOCK);
+                if (rnd.nextDouble() < p.fireChance && v.type(x, y + 1, z).isAir()) set(v, plan, x, y + 1, z, Material.FIRE);
+                if (p.ash) plan.ash(BlockKeys.pack(x, y + 1, z));
+            }
+        }
+    }
+
+    private static void crater(TerrainView v, Plan plan, int cx, int cy, int cz, Params p, Random rnd) {
+        double radius = p.craterRadius();
+        int maxDepth = Math.max(2, (int) Math.round(radius * p.depthScale));
+        plan.craters.add(new double[]{cx + 0.5, cy, cz + 0.5, radius, maxDepth});
+
+        int r = (int) Math.ceil(radius);
+        for (int dx = -r; dx <= r; dx++) {
+            for (int dz = -r; dz <= r; dz++) {
+                double dist = Math.sqrt(dx * dx + dz * dz);
+                if (dist > radius + rnd.nextDouble() * p.rimNoise) continue;
+
+                int x = cx + dx, z = cz + dz;
+                int topY = v.highest(x, z);
+
+                double t = 1.0 - (dist / Math.max(0.0001, radius));
+                if (p.smooth) t = t * t;
+                int depthHere = Math.max(1, (int) Math.round(maxDepth * t));
+
+                for (int dy = 0; dy < depthHere; dy++) {
+                    if (v.type(x, topY - dy, z) == Material.BEDROCK) continue;
+                    set(v, plan, x, topY - dy, z, Material.AIR);
+                }
+
+                if (t > 0.85 && rnd.nextDouble() < p.magmaRimChance) {
+                    if (v.type(x, topY, z) != Material.BEDROCK) set(v, plan, x, topY, z, Material.MAGMA_BLOCK);
+                }
+                if (t > 0.95 && rnd.nextDouble() < p.lavaBottomChance) {
+                    if (v.type(x, topY - depthHere, z).isAir()) set(v, plan, x, topY - depthHere, z, Material.LAVA);
+                }
+            }
+        }
+    }
+
+    private static void firestorm(TerrainView v, Plan plan, int cx, int cz, Params p, Random rnd) {
+        double R = p.firestormRadius();
+        for (int i = 0; i < p.attempts; i++) {
+            double ang = rnd.nextDouble() * Math.PI * 2;
+            double r = rnd.nextDouble() * R;
+            int x = cx + (int) Math.round(Math.cos(ang) * r);
+            int z = cz + (int) Math.round(Math.sin(ang) * r);
+            int y = v.highest(x, z);
+            if (p.skyOnly && !exposed(v, x, y, z)) continue;
+
+            if (v.type(x, y + 1, z).isAir()) {
+                if (rnd.nextDouble() < p.nethChance && v.type(x, y, z) != Material.BEDROCK) set(v, plan, x, y, z, Material.NETHERRACK);
+                set(v, plan, x, y + 1, z, Material.FIRE);
+            }
+            plan.ash(BlockKeys.pack(x, y + 1, z));
+        }
+    }
+
+    /**
+     * 메인 스레드: 계획 적용 (스냅샷 이후 바뀐 칸은 건너뜀)
+     * 키(x|z|y) 순으로 정렬해 열 단위로 한 번씩 훑음
+     */
+    private void apply(World w, Plan plan, int impactCount) {
+        long t0 = System.nanoTime();
+        long[] order = Arrays.copyOf(plan.keys, plan.size);
+        Arrays.sort(order);
+        int noop = 0;
+        for (long k : order) {
+            int i = plan.index.get(k);
+            if (plan.to[i].ordinal() == plan.expected[i]) { noop++; continue; } // 바뀌었다 원래대로 돌아온 칸
+            Block b = w.getBlockAt(BlockKeys.x(k), BlockKeys.y(k), BlockKeys.z(k));
+            if (b.getType().ordinal() != plan.expected[i]) { stale++; continue; }
+            b.setType(plan.to[i], true);
+            applied++;
+        }
+        for (int i = 0; i < plan.ashSize; i++) {
+            long k = plan.ash[i];
+            w.spawnParticle(Particle.ASH, BlockKeys.x(k) + 0.5, BlockKeys.y(k) + 0.2, BlockKeys.z(k) + 0.5, 2, 0.2, 0.2, 0.2, 0);
+        }
+        for (double[] c : plan.craters) {
+            Location at = new Location(w, c[0], c[1], c[2]);
+            w.spawnParticle(Particle.LARGE_SMOKE, at, 90, c[3] * 0.6, c[4] * 0.3, c[3] * 0.6, 0.02);
+            w.playSound(at, Sound.BLOCK_BASALT_BREAK, 1.0f, 0.6f + (float) Math.random() * 0.2f);
+        }
+        applyNanos += System.nanoTime() - t0;
+        planNanos += plan.planNanos;
+        avoided += plan.merged + noop;
+        impacts += impactCount;
+        batches++;
+    }
+
+    long getImpacts() { return impacts; }
+    long getBatches() { return batches; }
+    /** 합치기로 아낀 블록 쓰기 수 (같은 칸 재작성 + 원래대로 돌아온 칸) */
+    long getAvoidedWrites() { return avoided; }
+    long getApplied() { return applied; }
+    long getStale() { return stale; }
+    /** 묶음(배치)당 평균 시간 */
+    double getMeanSnapshotMs() { return batches == 0 ? 0.0 : snapshotNanos / 1e6 / batches; }
+    double getMeanPlanMs() { return batches == 0 ? 0.0 : planNanos / 1e6 / batches; }
+    double getMeanApplyMs() { return batches == 0 ? 0.0 : applyNanos / 1e6 / batches; }
+}
@@ -0,0 +1,62 @@
+package com.kakamine.minedisaster.disaster;
+
+import com.kakamine.minedisaster.util.BlockKeys;
+import com.kakamine.minedisaster.util.LongIntMap;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.util.Vector;
+
+/**
+ * 메테오 충돌 시점/위치 예측
+ * - 발사 속도(gravity-bias 포함)로 FallingBlock 과 같은 물리(중력 0.04 → 이동 → 감쇠 0.98)를 틱 단위로 진행
+ * - 매 틱 구체 발자국(중심 + 반경 네 방향)의 지면 높이(getHighestBlockYAt)와 비교
+ * - 지면 높이는 예측 한 번 안에서 열 단위로 캐시
+ */
+final class ImpactPredictor {
+
+    /** 예측 결과: tick 틱 뒤 at 에 충돌 (hit=false 면 maxTicks 안에 닿지 않음, at 은 마지막 위치) */
+    record Impact(int tick, Location at, boolean hit) {}
+
+    private ImpactPredictor() {}
+
+    /**
+     * @param radius 구체 반경 (가장 낮은 파트 기준으로 닿는 시점 계산)
+     * @param maxTicks 최대 예측 틱 (timeout)
+     */
+    static Impact predict(World w, Location spawn, Vector vel, double radius, int maxTicks) {
+        LongIntMap tops = new LongIntMap(64, Integer.MIN_VALUE);
+        double x = spawn.getX(), y = spawn.getY(), z = spawn.getZ();
+        double vx = vel.getX(), vy = vel.getY(), vz = vel.getZ();
+        double foot = radius * 0.7;
+        int minY = w.getMinHeight();
+
+        for (int t = 1; t <= maxTicks; t++) {
+            vy -= DisplayMeteor.GRAVITY;
+            x += vx; y += vy; z += vz;
+            vx *= DisplayMeteor.DRAG; vy *= DisplayMeteor.DRAG; vz *= DisplayMeteor.DRAG;
+
+            int ground = top(w, tops, x, z);
+            ground = Math.max(ground, top(w, tops, x + foot, z));
+            ground = Math.max(ground, top(w, tops, x - foot, z));
+            ground = Math.max(ground, top(w, tops, x, z + foot));
+            ground = Math.max(ground, top(w, tops, x, z - foot));
+
+            if (y - radius <= ground + 1 || y < minY) {
+                int centerTop = top(w, tops, x, z);
+                return new Impact(t, new Location(w, x, Math.max(centerTop + 1, minY), z), true);
+            }
+        }
+        return new Impact(maxTicks, new Location(w, x, y, z), false);
+    }
+
+    private static int top(World w, LongIntMap tops, double dx, double dz) {
+        int bx = (int) Math.floor(dx), bz = (int) Math.floor(dz);
+        long key = BlockKeys.pack(bx, 0, bz);
+        int h = tops.get(key);
+        if (h == Integer.MIN_VALUE) {
+            h = w.getHighestBlockYAt(bx, bz);
+            tops.put(key, h);
+        }
+        return h;
+    }
+}
@@ -0,0 +1,138 @@
+package com.kakamine.minedisaster.disaster;
+
+import com.kakamine.minedisaster.util.BlockKeys;
+import com.kakamine.minedisaster.util.LongIntMap;
+import com.kakamine.minedisaster.util.LongObjectMap;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.LongConsumer;
+
+/**
+ * 감염 블록 레지스트리
+ * - 청크 섹션(16×16×16)마다 4096bit 비트맵 → 포함 여부 O(1), 섹션 단위 순회 가능
+ * - 감염 좌표를 촘촘한 long 배열에 보관 → 균등 랜덤 추출 O(1)
+ * - 좌표→배열 인덱스 맵으로 마지막 원소와 자리 바꿔 제거 O(1)
+ * 좌표는 BlockKeys.pack(x,y,z) 키를 사용 (월드는 소유자가 관리)
+ */
+public final class InfectionRegistry {
+
+    /** 섹션 하나의 점유 비트맵 */
+    private static final class Section {
+        final long[] bits = new long[64];
+        int count;
+    }
+
+    private final LongObjectMap<Section> sections = new LongObjectMap<>();
+    private final LongIntMap index = new LongIntMap(-1);
+    private long[] cells = new long[256];
+    private int size;
+
+    // 같은 섹션이 연달아 조회되는 경우가 대부분이라 최근 섹션 캐시
+    private long lastSectionKey = LongObjectMap.EMPTY;
+    private Section lastSection;
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+    public int sectionCount() { return sections.size(); }
+
+    private Section section(long sectionKey, boolean create) {
+        if (sectionKey == lastSectionKey) return lastSection;
+        Section s = sections.get(sectionKey);
+        if (s == null) {
+            if (!create) return null;
+            s = new Section();
+            sections.put(sectionKey, s);
+        }
+        lastSectionKey = sectionKey;
+        lastSection = s;
+        return s;
+    }
+
+    public boolean contains(long key) {
+        Section s = section(BlockKeys.sectionOf(key), false);
+        if (s == null) return false;
+        int li = BlockKeys.localIndex(key);
+        return (s.bits[li >>> 6] & (1L << li)) != 0;
+    }
+
+    public boolean contains(int x, int y, int z) { return contains(BlockKeys.pack(x, y, z)); }
+
+    /** @return 새로 추가되었으면 true */
+    public boolean add(long key) {
+        Section s = section(BlockKeys.sectionOf(key), true);
+        int li = BlockKeys.localIndex(key);
+        long bit = 1L << li;
+        if ((s.bits[li >>> 6] & bit) != 0) return false;
+        s.bits[li >>> 6] |= bit;
+        s.count++;
+
+        if (size == cells.length) cells = Arrays.copyOf(cells, size << 1);
+        cells[size] = key;
+        index.put(key, size);
+        size++;
+        return true;
+    }
+
+    public boolean add(int x, int y, int z) { return add(BlockKeys.pack(x, y, z)); }
+
+    /** @return 제거되었으면 true */
+    public boolean remove(long key) {
+        long sk = BlockKeys.sectionOf(key);
+        Section s = section(sk, false);
+        if (s == null) return false;
+        int li = BlockKeys.localIndex(key);
+        long bit = 1L << li;
+        if ((s.bits[li >>> 6] & bit) == 0) return false;
+        s.bits[li >>> 6] &= ~bit;
+        if (--s.count == 0) {
+            sections.remove(sk);
+            if (lastSectionKey == sk) { lastSectionKey = LongObjectMap.EMPTY; lastSection = null; }
+        }
+
+        int i = index.remove(key);
+        long moved = cells[--size];
+        if (i != size) {
+            cells[i] = moved;
+            index.put(moved, i);
+        }
+        return true;
+    }
+
+    /** 균등 랜덤 추출(비어 있으면 호출 금지) */
+    public long random(Random random) {
+        return cells[random.nextInt(size)];
+    }
+
+    /** 0 ≤ i < size() */
+    public long get(int i) { return cells[i]; }
+
+    /** 청크 (cx,cz) 의 sy 범위 섹션에 있는 좌표를 비트맵에서 바로 훑음 */
+    public void forEachInChunk(int cx, int cz, int minSy, int maxSy, LongConsumer fn) {
+        for (int sy = minSy; sy <= maxSy; sy++) {
+            Section s = sections.get(BlockKeys.section(cx, sy, cz));
+            if (s == null) continue;
+            int bx = cx << 4, by = sy << 4, bz = cz << 4;
+            for (int w = 0; w < 64; w++) {
+                long word = s.bits[w];
+                while (word != 0) {
+                    int li = (w << 6) | Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                    fn.accept(BlockKeys.pack(bx + (li & 15), by + (li >>> 8), bz + ((li >>> 4) & 15)));
+                }
+            }
+        }
+    }
+
+    /** 현재 감염 좌표 복사본 */
+    public long[] toArray() { return Arrays.copyOf(cells, size); }
+
+    public void clear() {
+        sections.clear();
+        index.clear();
+        size = 0;
+        lastSectionKey = LongObjectMap.EMPTY;
+        lastSection = null;
+        if (cells.length > 4096) cells = new long[256];
+    }
+}
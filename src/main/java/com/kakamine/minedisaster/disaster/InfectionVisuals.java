@@ -0,0 +1,216 @@
+package com.kakamine.minedisaster.disaster;
+
+import com.kakamine.minedisaster.util.BlockKeys;
+import com.kakamine.minedisaster.util.LongIntMap;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.BlockState;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.entity.Player;
+
+import java.util.*;
+import java.util.function.LongConsumer;
+
+/**
+ * 박테리아 "보이기 전용" 감염
+ * - 월드 블록은 건드리지 않고 주변 플레이어에게만 sendBlockChanges 로 묶어서 전송
+ * - 플레이어마다 마지막 중심 청크를 기억, 반경 안으로 새로 들어온 청크는 잠시 뒤 다시 전송
+ *   (서버가 청크를 다시 보내면 가짜 블록이 덮여 사라지므로)
+ * - 가짜를 보낸 청크는 플레이어별로 기억, 반경 밖으로 나가도 그 청크의 되돌리기는 보냄
+ * - 전송 상태는 getState() 대신 BlockData 별 견본을 위치만 바꿔 복사 (블록 엔티티 스냅샷 없음)
+ */
+final class InfectionVisuals {
+
+    /** 월드별 전송 대기 좌표 */
+    private static final class Pending {
+        long[] show = new long[64];
+        int showN;
+        long[] hide = new long[64];
+        int hideN;
+
+        void addShow(long key) {
+            if (showN == show.length) show = Arrays.copyOf(show, showN << 1);
+            show[showN++] = key;
+        }
+
+        void addHide(long key) {
+            if (hideN == hide.length) hide = Arrays.copyOf(hide, hideN << 1);
+            hide[hideN++] = key;
+        }
+    }
+
+    /** 플레이어별 마지막 시야 중심 + 가짜 블록을 보낸 청크 */
+    private static final class View {
+        World world;
+        int cx, cz;
+        final LongIntMap sent = new LongIntMap(0);
+    }
+
+    /** 청크 재전송 예약 */
+    private record Resend(UUID player, World world, int cx, int cz, int dueTick) {}
+
+    /** 월드 + 청크의 보이기 감염 좌표 열거 (BacteriaManager 가 제공) */
+    interface ChunkCells {
+        void forEach(World w, int cx, int cz, LongConsumer fn);
+    }
+
+    private final Map<World, Pending> pending = new HashMap<>();
+    private final Map<UUID, View> views = new HashMap<>();
+    private final ArrayDeque<Resend> resends = new ArrayDeque<>();
+    /** BlockData → 위치 없는 상태 견본 */
+    private final Map<BlockData, BlockState> templates = new HashMap<>();
+    private final ChunkCells cells;
+
+    private int radiusChunks = 8;
+    private int resendDelay = 10;
+    private int ticks;
+
+    // 통계
+    private long sentBlocks;
+    private long sentBatches;
+
+    InfectionVisuals(ChunkCells cells) {
+        this.cells = cells;
+    }
+
+    void configure(int radiusChunks, int resendDelay) {
+        this.radiusChunks = Math.max(1, radiusChunks);
+        this.resendDelay = Math.max(0, resendDelay);
+    }
+
+    void show(World w, long key) { pending.computeIfAbsent(w, k -> new Pending()).addShow(key); }
+    void hide(World w, long key) { pending.computeIfAbsent(w, k -> new Pending()).addHide(key); }
+
+    long getSentBlocks() { return sentBlocks; }
+    long getSentBatches() { return sentBatches; }
+
+    void forget(UUID player) { views.remove(player); }
+
+    private boolean inRange(View v, long chunkKey) {
+        int dx = BlockKeys.chunkX(chunkKey) - v.cx, dz = BlockKeys.chunkZ(chunkKey) - v.cz;
+        return dx * dx + dz * dz <= radiusChunks * radiusChunks;
+    }
+
+    /**
+     * 매 틱 호출
+     * @param worlds 보이기 감염이 진행 중인 월드
+     */
+    void tick(Collection<World> worlds, BlockData infectionData) {
+        ticks++;
+        for (World w : worlds) {
+            for (Player p : w.getPlayers()) updateView(p);
+        }
+        flushResends(infectionData);
+        if (!pending.isEmpty()) flush(infectionData);
+    }
+
+    /** 중심 청크가 바뀌었으면 새로 반경에 들어온 청크 재전송 예약 */
+    private void updateView(Player p) {
+        int cx = p.getLocation().getBlockX() >> 4, cz = p.getLocation().getBlockZ() >> 4;
+        View v = views.get(p.getUniqueId());
+        boolean fresh = v == null || v.world != p.getWorld();
+        if (!fresh && v.cx == cx && v.cz == cz) return;
+        if (v == null) { v = new View(); views.put(p.getUniqueId(), v); }
+        if (fresh) v.sent.clear(); // 월드를 옮기면 클라이언트가 이전 월드 블록을 버림
+
+        int ocx = v.cx, ocz = v.cz;
+        int r = radiusChunks, r2 = r * r;
+        for (int dx = -r; dx <= r; dx++) {
+            for (int dz = -r; dz <= r; dz++) {
+                if (dx * dx + dz * dz > r2) continue;
+                int ncx = cx + dx, ncz = cz + dz;
+                int ox = ncx - ocx, oz = ncz - ocz;
+                if (!fresh && ox * ox + oz * oz <= r2) continue; // 이미 보고 있던 청크
+                resends.add(new Resend(p.getUniqueId(), p.getWorld(), ncx, ncz, ticks + resendDelay));
+            }
+        }
+        v.world = p.getWorld();
+        v.cx = cx;
+        v.cz = cz;
+    }
+
+    private void flushResends(BlockData infectionData) {
+        if (resends.isEmpty()) return;
+        Map<UUID, List<BlockState>> out = new HashMap<>();
+        while (!resends.isEmpty() && resends.peek().dueTick() <= ticks) {
+            Resend r = resends.poll();
+            View v = views.get(r.player());
+            long chunk = BlockKeys.chunk(r.cx(), r.cz());
+            if (v == null || v.world != r.world() || !inRange(v, chunk)) continue;
+            v.sent.put(chunk, 1);
+            List<BlockState> list = out.computeIfAbsent(r.player(), k -> new ArrayList<>());
+            cells.forEach(r.world(), r.cx(), r.cz(), key -> list.add(stateAt(r.world(), key, infectionData)));
+        }
+        for (Map.Entry<UUID, List<BlockState>> e : out.entrySet()) {
+            Player p = Bukkit.getPlayer(e.getKey());
+            if (p != null && !e.getValue().isEmpty()) send(p, e.getValue());
+        }
+    }
+
+    /**
+     * 대기 중인 보이기/되돌리기를 플레이어별로 묶어 한 번에 전송
+     * - 보이기: 반경 안 플레이어에게만
+     * - 되돌리기: 반경 안이거나 그 청크에 가짜를 받은 적 있는 플레이어에게
+     */
+    void flush(BlockData infectionData) {
+        for (Map.Entry<World, Pending> e : pending.entrySet()) {
+            World w = e.getKey();
+            Pending pd = e.getValue();
+            if (pd.showN == 0 && pd.hideN == 0) continue;
+
+            List<Player> players = w.getPlayers();
+            if (!players.isEmpty()) {
+                List<BlockState> states = new ArrayList<>(pd.showN + pd.hideN);
+                long[] chunkOf = new long[pd.showN + pd.hideN];
+                for (int i = 0; i < pd.showN; i++) {
+                    chunkOf[states.size()] = BlockKeys.chunkOf(pd.show[i]);
+                    states.add(stateAt(w, pd.show[i], infectionData));
+                }
+                for (int i = 0; i < pd.hideN; i++) {
+                    chunkOf[states.size()] = BlockKeys.chunkOf(pd.hide[i]);
+                    states.add(realState(w, pd.hide[i]));
+                }
+
+                for (Player p : players) {
+                    View v = views.get(p.getUniqueId());
+                    if (v == null || v.world != w) continue;
+                    List<BlockState> mine = new ArrayList<>();
+                    for (int i = 0; i < pd.showN; i++) {
+                        if (!inRange(v, chunkOf[i])) continue;
+                        v.sent.put(chunkOf[i], 1);
+                        mine.add(states.get(i));
+                    }
+                    for (int i = pd.showN; i < states.size(); i++) {
+                        if (inRange(v, chunkOf[i]) || v.sent.containsKey(chunkOf[i])) mine.add(states.get(i));
+                    }
+                    if (!mine.isEmpty()) send(p, mine);
+                }
+            }
+            pd.showN = 0;
+            pd.hideN = 0;
+        }
+    }
+
+    private void send(Player p, List<BlockState> states) {
+        p.sendBlockChanges(states);
+        sentBlocks += states.size();
+        sentBatches++;
+    }
+
+    private BlockState realState(World w, long key) {
+        return stateAt(w, key, w.getBlockData(BlockKeys.x(key), BlockKeys.y(key), BlockKeys.z(key)));
+    }
+
+    /** createBlockState() 는 위치가 (0,0,0) 이라 견본으로만 쓰고 칸 위치로 복사 */
+    private BlockState stateAt(World w, long key, BlockData data) {
+        BlockState template = templates.computeIfAbsent(data, BlockData::createBlockState);
+        return template.copy(new Location(w, BlockKeys.x(key), BlockKeys.y(key), BlockKeys.z(key)));
+    }
+
+    void clear() {
+        pending.clear();
+        resends.clear();
+        templates.clear();
+    }
+}
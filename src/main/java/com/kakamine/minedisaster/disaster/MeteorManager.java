@@ -3,12 +3,12 @@ package com.kakamine.minedisaster.disaster;
 import com.kakamine.minedisaster.MineDisaster;
 import org.bukkit.*;
 import org.bukkit.block.Block;
-import org.bukkit.entity.Entity;
 import org.bukkit.entity.FallingBlock;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityChangeBlockEvent;
+import org.bukkit.event.entity.EntityRemoveEvent;
 import org.bukkit.scheduler.BukkitTask;
 import org.bukkit.util.Vector;
 
@@ -18,34 +18,47 @@ public class MeteorManager implements Listener {
     private final MineDisaster plugin;
     private final Random rnd = new Random();
 
-    // 메테오 파트 추적
-    private final Map<UUID, UUID> partToMeteor = new HashMap<>();
-    private final Map<UUID, Set<UUID>> meteorParts = new HashMap<>();
+    // 메테오 파트 추적(엔티티 참조 직접 보관, 엔티티 id → 메테오)
+    private final MeteorParts parts = new MeteorParts();
     private final Map<UUID, List<BukkitTask>> meteorTasks = new HashMap<>();
 
-    // 파편 추적
-    private final Set<UUID> debrisAll = new HashSet<>();
+    // 낙하 중 파트 꼬리 파티클(공용 티커 하나)
+    private final MeteorTicker ticker;
+    // 폭발 (meteor.explosion-engine: plugin)
+    private final ExplosionEngine explosions = new ExplosionEngine();
+    // 충돌 후처리(분화구/스코치/화염 폭풍)
+    private final ImpactPlanner impacts;
+    // 모양 템플릿 캐시
+    private final MeteorShapes shapes = new MeteorShapes();
 
-    // ▶ 성능 상한 / 파티클 빈도
+    // 파편 추적(전역 상한 + 만료 휠 + 착지 일괄 처리)
+    private final DebrisManager debris;
+
+    // ▶ 성능 상한
     private final int MAX_PARTS_PER_METEOR = 220;
-    private final int TRAIL_TICK_PERIOD = 2;
 
-    public MeteorManager(MineDisaster plugin) { this.plugin = plugin; }
+    // 충돌 예측 통계
+    private long predictedImpacts, predictionMisses, predictedTicksSum;
+
+    public MeteorManager(MineDisaster plugin) {
+        this.plugin = plugin;
+        this.impacts = new ImpactPlanner(plugin);
+        this.debris = new DebrisManager(plugin);
+        this.ticker = new MeteorTicker(plugin, (m, at, mat, vel, trail) -> spawnMeteorPiece(m.world, at, mat, vel, m.id, trail));
+        this.ticker.setImpactHandler((body, at) -> {
+            if (!parts.isActive(body.id)) return;
+            boolean ignite = plugin.getConfig().getBoolean("meteor.ignite-fire", true);
+            Particle smokeP = Particle.valueOf(plugin.getConfig().getString("meteor.smoke-particle", "LARGE_SMOKE"));
+            triggerExplosionAndAftereffects(body.id, at, body.power, ignite, smokeP);
+        });
+    }
 
     public void cancelAll() {
+        ticker.clear();
         meteorTasks.values().forEach(list -> list.forEach(BukkitTask::cancel));
         meteorTasks.clear();
-        for (UUID id : new ArrayList<>(partToMeteor.keySet())) {
-            Entity e = Bukkit.getEntity(id);
-            if (e != null) e.remove();
-        }
-        partToMeteor.clear();
-        for (UUID id : new ArrayList<>(debrisAll)) {
-            Entity e = Bukkit.getEntity(id);
-            if (e != null) e.remove();
-        }
-        debrisAll.clear();
-        meteorParts.clear();
+        parts.clear();
+        debris.clear();
     }
 
     public void spawnMeteorShower(World world, Location center, int count, int requestedPower) {
@@ -55,7 +68,7 @@ public class MeteorManager implements Listener {
         final int randRadius = Math.max(0, plugin.getConfig().getInt("meteor.random-radius", 22));
 
         // 폭발력
-        int maxP = Math.max(10, plugin.getConfig().getInt("meteor.explosion-max", 20));
+        int maxP = Math.max(10, Math.min(ExplosionEngine.MAX_POWER, plugin.getConfig().getInt("meteor.explosion-max", 20)));
         int cfgP = plugin.getConfig().getInt("meteor.explosion-power", 12);
         int power = Math.max(1, Math.min((requestedPower > 0 ? requestedPower : cfgP), maxP));
 
@@ -95,6 +108,33 @@ public class MeteorManager implements Listener {
         double gravBias  = plugin.getConfig().getDouble("meteor.gravity-bias", -0.30);
         double spreadDeg = Math.max(0, Math.min(25, plugin.getConfig().getDouble("meteor.spread-angle-deg", 12)));
 
+        // 꼬리 샘플링: 표면 파트만 / N개 중 1개만 꼬리
+        boolean trailSurfaceOnly = plugin.getConfig().getBoolean("meteor.trail.surface-only", false);
+        int trailEvery = Math.max(1, plugin.getConfig().getInt("meteor.trail.sample-every", 1));
+
+        // 모양 템플릿: 같은 (반경, 파트 수) 에서 변형 몇 개를 돌려 씀
+        int shapeVariants = Math.max(1, Math.min(plugin.getConfig().getInt("meteor.shape.variants", 4), 16));
+        double shapeJitter = Math.max(0.0, plugin.getConfig().getDouble("meteor.shape.jitter", 0.15));
+        ticker.configure(plugin.getConfig().getInt("meteor.trail.period-ticks", 2),
+                         plugin.getConfig().getInt("meteor.display.lod-interval-ticks", 10));
+
+        // 렌더 방식: falling = 파트마다 FallingBlock, display = 본체 하나 + BlockDisplay 조각 몇 개
+        boolean displayMode = "display".equalsIgnoreCase(plugin.getConfig().getString("meteor.render-mode", "falling"));
+        DisplayMeteor.Lod lod = displayMode ? new DisplayMeteor.Lod(
+                Math.max(6, plugin.getConfig().getInt("meteor.display.pieces-near", 40)),
+                Math.max(6, plugin.getConfig().getInt("meteor.display.pieces-mid", 20)),
+                Math.max(6, plugin.getConfig().getInt("meteor.display.pieces-far", 8)),
+                plugin.getConfig().getDouble("meteor.display.lod-near", 48.0),
+                plugin.getConfig().getDouble("meteor.display.lod-far", 128.0),
+                (float) plugin.getConfig().getDouble("meteor.display.view-range", 4.0)) : null;
+
+        // 분산 생성: 틱당 엔티티 예산 + 메테오 사이 발사 간격, 모두 window 안에 착지
+        ticker.spawns().configure(plugin.getConfig().getInt("meteor.shower.spawn-budget-per-tick", 240));
+        String stagger = plugin.getConfig().getString("meteor.shower.stagger", "linear");
+        int staggerTicks = Math.max(0, plugin.getConfig().getInt("meteor.shower.stagger-ticks", 6));
+        int windowTicks = Math.max(20, plugin.getConfig().getInt("meteor.shower.window-seconds", 15) * 20);
+        long base = ticker.spawns().now() + 1;
+
         for (int i = 0; i < count; i++) {
             // 랜덤 타겟/스폰
             Location tgt = center.clone().add(
@@ -109,94 +149,112 @@ public class MeteorManager implements Listener {
             if (spreadDeg > 0) vel = coneJitter(vel, Math.toRadians(spreadDeg));
 
             UUID meteorId = UUID.randomUUID();
-            meteorParts.put(meteorId, new HashSet<>());
+            parts.open(meteorId);
             meteorTasks.put(meteorId, new ArrayList<>());
 
-            // 표면/코어/내부 채움(솔리드)
-            for (Vector off : fibonacciSphere(surfaceR, surfaceN)) spawnMeteorPiece(world, spawn.clone().add(off), surfaceMat, vel, meteorId, trailP, trailDensity);
-            for (Vector off : fibonacciSphere(coreR, coreN))       spawnMeteorPiece(world, spawn.clone().add(off), coreMat,    vel, meteorId, trailP, trailDensity);
-            for (int k = 0; k < fillN; k++) {
-                Vector off = randomPointInSolidSphere(coreR * 0.9 + rnd.nextDouble() * (surfaceR - coreR * 0.9));
-                spawnMeteorPiece(world, spawn.clone().add(off), fillMat, vel, meteorId, trailP, trailDensity);
+            // 발사 간격: 착지(발사 + 예측 낙하 시간)가 window 를 넘으면 당겨서 맞춤
+            ImpactPredictor.Impact impact = predictImpact(world, spawn, vel, surfaceR, timeoutSec);
+            int offset = switch (stagger.toLowerCase()) {
+                case "none" -> 0;
+                case "random" -> count <= 1 ? 0 : rnd.nextInt((count - 1) * staggerTicks + 1);
+                default -> i * staggerTicks;
+            };
+            offset = Math.min(offset, Math.max(0, windowTicks - impact.tick()));
+            scheduleImpact(meteorId, impact, offset, power, ignite, smokeP);
+
+            MeteorTicker.Trail trail = new MeteorTicker.Trail(trailP, trailDensity);
+            if (displayMode) {
+                ticker.plan(new MeteorSpawnQueue.Planned(meteorId, spawn, vel, base + offset,
+                        MeteorShapes.EMPTY, surfaceMat, coreMat, fillMat, null, null, 1, m -> {
+                    DisplayMeteor body = new DisplayMeteor(meteorId, m.center(), m.velocity(), surfaceR, coreR,
+                            surfaceMat, coreMat, fillMat, trail, lod, power);
+                    ticker.addBody(body);
+                    launchSound(m);
+                    return body.pieceCount();
+                }));
+                continue;
             }
+            MeteorTicker.Trail innerTrail = trailSurfaceOnly ? null : trail;
+
+            // 표면/코어/내부 채움(솔리드) 오프셋은 캐시된 템플릿 공유, 생성은 큐가 예산 안에서
+            MeteorShapes.Shape shape = shapes.get(surfaceR, coreR, surfaceN, coreN, fillN, rnd.nextInt(shapeVariants), shapeJitter);
+            ticker.plan(new MeteorSpawnQueue.Planned(meteorId, spawn, vel, base + offset, shape,
+                    surfaceMat, coreMat, fillMat, trail, innerTrail, trailEvery, m -> {
+                launchSound(m);
+                return 0;
+            }));
+        }
+    }
 
-            world.playSound(spawn, Sound.ENTITY_BLAZE_SHOOT, 1.0f, 0.6f + rnd.nextFloat() * 0.4f);
+    private void launchSound(MeteorSpawnQueue.Planned m) {
+        m.world.playSound(m.center(), Sound.ENTITY_BLAZE_SHOOT, 1.0f, 0.6f + rnd.nextFloat() * 0.4f);
+    }
 
-            // 타임아웃 강제 폭발
-            BukkitTask timeout = Bukkit.getScheduler().runTaskLater(plugin, () -> {
-                if (!meteorParts.containsKey(meteorId)) return;
-                Location avg = averageLocationOfMeteor(meteorId, world, spawn);
-                triggerExplosionAndAftereffects(meteorId, avg, power, ignite, smokeP);
-            }, timeoutSec * 20L);
-            meteorTasks.get(meteorId).add(timeout);
-        }
+    /** 궤적을 지면 높이와 맞춰 낙하 시간/충돌 위치 계산 (timeout 안에 닿지 않으면 timeout 시점 위치) */
+    private ImpactPredictor.Impact predictImpact(World world, Location spawn, Vector vel, double radius, int timeoutSec) {
+        ImpactPredictor.Impact impact = ImpactPredictor.predict(world, spawn, vel, radius, timeoutSec * 20);
+        predictedImpacts++;
+        predictedTicksSum += impact.tick();
+        if (!impact.hit()) predictionMisses++;
+        return impact;
     }
 
-    private void spawnMeteorPiece(World w, Location p, Material mat, Vector vel, UUID meteorId,
-                                  Particle trailP, int trailDensity) {
+    /** 발사 틱(지금 + launchDelay) + 예측 낙하 시간에 폭발 예약 */
+    private void scheduleImpact(UUID meteorId, ImpactPredictor.Impact impact, int launchDelay,
+                                int power, boolean ignite, Particle smokeP) {
+        BukkitTask task = Bukkit.getScheduler().runTaskLater(plugin, () -> {
+            if (!parts.isActive(meteorId)) return;
+            triggerExplosionAndAftereffects(meteorId, impact.at(), power, ignite, smokeP);
+        }, 1L + launchDelay + impact.tick());
+        meteorTasks.get(meteorId).add(task);
+    }
+
+    private void spawnMeteorPiece(World w, Location p, Material mat, Vector vel, UUID meteorId, MeteorTicker.Trail trail) {
         FallingBlock fb = w.spawnFallingBlock(p, mat.createBlockData());
         fb.setDropItem(false);
         fb.setHurtEntities(true);
         fb.setVelocity(vel);
 
-        UUID pid = fb.getUniqueId();
-        partToMeteor.put(pid, meteorId);
-        meteorParts.get(meteorId).add(pid);
-
-        BukkitTask tail = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
-            if (!fb.isValid()) return;
-            Location l = fb.getLocation();
-            w.spawnParticle(trailP, l, trailDensity, 0, 0, 0, 0);
-            if (rnd.nextBoolean()) w.spawnParticle(Particle.SMALL_FLAME, l, 1, 0, 0, 0, 0);
-        }, 1L, TRAIL_TICK_PERIOD);
-        meteorTasks.get(meteorId).add(tail);
+        if (!parts.add(meteorId, fb)) { fb.remove(); return; }
+        ticker.add(fb, meteorId, trail);
     }
 
     @EventHandler
     public void onEntityChangeBlock(EntityChangeBlockEvent e) {
         if (!(e.getEntity() instanceof FallingBlock fb)) return;
 
-        UUID pid = fb.getUniqueId();
-        UUID meteorId = partToMeteor.get(pid);
-
-        // 파편은 기본 동작 허용 후 착지 점화 처리
-        if (meteorId == null && debrisAll.contains(pid)) {
-            Bukkit.getScheduler().runTask(plugin, () -> {
-                Block placed = e.getBlock();
-                if (!placed.getType().isAir()) {
-                    double igniteChance = plugin.getConfig().getDouble("meteor.debris.ignite-on-land-chance", 0.55);
-                    double toNeth = plugin.getConfig().getDouble("meteor.debris.turn-to-netherrack-chance", 0.25);
-                    if (rnd.nextDouble() < toNeth && placed.getType() != Material.BEDROCK) placed.setType(Material.NETHERRACK, true);
-                    if (rnd.nextDouble() < igniteChance) {
-                        Block up = placed.getRelative(0,1,0);
-                        if (up.getType().isAir()) up.setType(Material.FIRE, true);
-                    }
-                }
-                debrisAll.remove(pid);
-            });
+        UUID meteorId = parts.meteorOf(fb);
+
+        // 파편은 기본 동작 허용, 착지 위치만 모아 다음 틱에 한 번에 점화 처리
+        if (meteorId == null && debris.isDebris(fb)) {
+            debris.onLand(fb, e.getBlock());
             return;
         }
 
-        // 메테오 본체: 블록으로 변환 취소 + 즉시 폭발
+        // 메테오 본체: 블록으로 변환만 막음 (폭발은 예측된 충돌 틱에 예약되어 있음)
         if (meteorId != null) {
             e.setCancelled(true);
-            Location impact = e.getBlock().getLocation().add(0.5, 0.0, 0.5);
-
-            boolean ignite = plugin.getConfig().getBoolean("meteor.ignite-fire", true);
-            int cfgP = plugin.getConfig().getInt("meteor.explosion-power", 12);
-            int maxP = Math.max(10, plugin.getConfig().getInt("meteor.explosion-max", 20));
-            int power = Math.max(1, Math.min(cfgP, maxP));
-            Particle smokeP = Particle.valueOf(plugin.getConfig().getString("meteor.smoke-particle", "LARGE_SMOKE"));
-
-            triggerExplosionAndAftereffects(meteorId, impact, power, ignite, smokeP);
+            fb.remove();
         }
     }
 
+    /** 언로드/디스폰/플러그인 제거 등 어떤 이유로든 사라진 파트·파편은 바로 추적에서 뺌 */
+    @EventHandler
+    public void onEntityRemove(EntityRemoveEvent e) {
+        if (!(e.getEntity() instanceof FallingBlock fb)) return;
+        parts.invalidate(fb);
+        debris.invalidate(fb);
+    }
+
     private void triggerExplosionAndAftereffects(UUID meteorId, Location loc, int power, boolean ignite, Particle smokeP) {
         World w = loc.getWorld();
         if (w != null) {
             w.spawnParticle(Particle.EXPLOSION_EMITTER, loc, 1);
-            w.createExplosion(loc, power, ignite, true);
+            if ("vanilla".equalsIgnoreCase(plugin.getConfig().getString("meteor.explosion-engine", "plugin"))) {
+                w.createExplosion(loc, power, ignite, true);
+            } else {
+                explosions.explode(loc, power, ignite);
+            }
             w.spawnParticle(smokeP, loc, 140, 3.0, 2.0, 3.0, 0.045);
 
             // 플레이어 충격파
@@ -210,23 +268,16 @@ public class MeteorManager implements Listener {
                 }
             }
 
-            // 스코치
-            applyScorch(w, loc);
-
-            // 분화구
-            double craterR = 0;
-            if (plugin.getConfig().getBoolean("meteor.crater.enabled", true)) craterR = carveCrater(w, loc, power);
+            // 스코치 → 분화구 → 화염 폭풍: 스냅샷 기반 비동기 계획 후 메인에서 적용
+            impacts.submit(w, loc, power);
 
             // 파편
             spawnDebris(w, loc, power);
-
-            // 화염 폭풍(주변 대량 점화)
-            if (plugin.getConfig().getBoolean("meteor.postfire.enabled", true)) firestorm(w, loc, power, craterR);
         }
 
         // 정리
-        Set<UUID> parts = meteorParts.remove(meteorId);
-        if (parts != null) for (UUID pid : parts) { Entity e = Bukkit.getEntity(pid); if (e != null) e.remove(); partToMeteor.remove(pid); }
+        ticker.removeMeteor(meteorId);
+        parts.close(meteorId);
         List<BukkitTask> tasks = meteorTasks.remove(meteorId);
         if (tasks != null) tasks.forEach(BukkitTask::cancel);
     }
@@ -255,118 +306,47 @@ public class MeteorManager implements Listener {
             dir.setY(Math.abs(dir.getY()) + up);
             fb.setVelocity(dir);
 
-            debrisAll.add(fb.getUniqueId());
-            Bukkit.getScheduler().runTaskLater(plugin, () -> { if (fb.isValid()) fb.remove(); debrisAll.remove(fb.getUniqueId()); }, 20L * (6 + rnd.nextInt(4)));
-        }
-    }
-
-    private void firestorm(World w, Location center, int power, double craterRadius) {
-        double mult = plugin.getConfig().getDouble("meteor.postfire.radius-multiplier", 1.3);
-        int attempts = Math.max(0, plugin.getConfig().getInt("meteor.postfire.attempts", 260));
-        boolean skyOnly = plugin.getConfig().getBoolean("meteor.postfire.sky-only", true);
-        double nethChance = plugin.getConfig().getDouble("meteor.postfire.netherrack-chance", 0.12);
-
-        int baseR = plugin.getConfig().getInt("meteor.scorch.radius", 6);
-        double R = (craterRadius > 0 ? craterRadius : baseR) * Math.max(0.5, mult);
-
-        int cx = center.getBlockX(), cz = center.getBlockZ();
-        for (int i = 0; i < attempts; i++) {
-            double ang = rnd.nextDouble() * Math.PI * 2;
-            double r = rnd.nextDouble() * R;
-            int x = cx + (int)Math.round(Math.cos(ang) * r);
-            int z = cz + (int)Math.round(Math.sin(ang) * r);
-            int y = w.getHighestBlockYAt(x, z);
-            Block top = w.getBlockAt(x, y, z);
-            if (skyOnly && !isExposedToSky(top)) continue;
-
-            Block up = top.getRelative(0,1,0);
-            if (up.getType().isAir()) {
-                if (rnd.nextDouble() < nethChance && top.getType() != Material.BEDROCK) top.setType(Material.NETHERRACK, true);
-                up.setType(Material.FIRE, true);
-            }
-            w.spawnParticle(Particle.ASH, up.getLocation().add(0.5,0.2,0.5), 2, 0.1,0.1,0.1, 0);
+            debris.add(fb, 20 * (6 + rnd.nextInt(4)));
         }
     }
 
-    private double carveCrater(World w, Location center, int power) {
-        double rBase = plugin.getConfig().getDouble("meteor.crater.radius-base", 6.0);
-        double rPerP = plugin.getConfig().getDouble("meteor.crater.radius-per-power", 1.7);
-        double depthScale = plugin.getConfig().getDouble("meteor.crater.depth-scale", 0.58);
-        double rimNoise = Math.max(0, Math.min(0.5, plugin.getConfig().getDouble("meteor.crater.rim-random", 0.22)));
-        boolean smooth = plugin.getConfig().getBoolean("meteor.crater.smooth", true);
-
-        double radius = rBase + rPerP * Math.max(0, power);
-        int maxDepth = Math.max(2, (int)Math.round(radius * depthScale));
-
-        int cx = center.getBlockX();
-        int cz = center.getBlockZ();
-
-        for (int dx = (int)-Math.ceil(radius); dx <= Math.ceil(radius); dx++) {
-            for (int dz = (int)-Math.ceil(radius); dz <= Math.ceil(radius); dz++) {
-                double dist = Math.sqrt(dx*dx + dz*dz);
-                if (dist > radius + rnd.nextDouble() * rimNoise) continue;
-
-                int x = cx + dx, z = cz + dz;
-                int topY = w.getHighestBlockYAt(x, z);
-                Block top = w.getBlockAt(x, topY, z);
-
-                double t = 1.0 - (dist / Math.max(0.0001, radius));
-                if (smooth) t = t*t;
-                int depthHere = Math.max(1, (int)Math.round(maxDepth * t));
-
-                for (int dy = 0; dy < depthHere; dy++) {
-                    Block b = w.getBlockAt(x, topY - dy, z);
-                    if (b.getType() == Material.BEDROCK) continue;
-                    b.setType(Material.AIR, true);
-                }
-
-                if (t > 0.85 && rnd.nextDouble() < plugin.getConfig().getDouble("meteor.crater.magma-rim-chance", 0.18)) {
-                    if (top.getType() != Material.BEDROCK) top.setType(Material.MAGMA_BLOCK, true);
-                }
-                if (t > 0.95 && rnd.nextDouble() < plugin.getConfig().getDouble("meteor.crater.lava-bottom-chance", 0.38)) {
-                    Block bottom = w.getBlockAt(x, topY - depthHere, z);
-                    if (bottom.getType().isAir()) bottom.setType(Material.LAVA, true);
-                }
-            }
-        }
-
-        w.spawnParticle(Particle.LARGE_SMOKE, center, 90, radius*0.6, maxDepth*0.3, radius*0.6, 0.02);
-        w.playSound(center, Sound.BLOCK_BASALT_BREAK, 1.0f, 0.6f + rnd.nextFloat() * 0.2f);
-        return radius;
-    }
-
-    private void applyScorch(World w, Location center) {
-        int radius = Math.max(0, plugin.getConfig().getInt("meteor.scorch.radius", 6));
-        if (radius <= 0) return;
-
-        double patchChance = plugin.getConfig().getDouble("meteor.scorch.magma-patch-chance", 0.40);
-        double fireChance  = plugin.getConfig().getDouble("meteor.scorch.fire-chance", 0.45);
-        boolean ash        = plugin.getConfig().getBoolean("meteor.scorch.ash-particles", true);
-
-        int cx = center.getBlockX();
-        int cz = center.getBlockZ();
-
-        for (int dx = -radius; dx <= radius; dx++) {
-            for (int dz = -radius; dz <= radius; dz++) {
-                if (dx*dx + dz*dz > radius*radius) continue;
-
-                int x = cx + dx, z = cz + dz;
-                int y = w.getHighestBlockYAt(x, z);
-                Block top = w.getBlockAt(x, y, z);
-                if (!isExposedToSky(top)) continue;
-
-                if (rnd.nextDouble() < patchChance && top.getType() != Material.BEDROCK) top.setType(Material.MAGMA_BLOCK, true);
-                if (rnd.nextDouble() < fireChance) {
-                    Block up = top.getRelative(0, 1, 0);
-                    if (up.getType().isAir()) up.setType(Material.FIRE, true);
-                }
-                if (ash) w.spawnParticle(Particle.ASH, top.getLocation().add(0.5, 1.0, 0.5), 3, 0.3, 0.2, 0.3, 0.0);
-            }
-        }
-    }
+    // ---- 통계 ----
+    public int getActiveMeteors() { return parts.meteors(); }
+    public int getTrackedParts() { return parts.liveParts(); }
+    public int getLiveParts() { return ticker.getLiveParts(); }
+    public int getDisplayBodies() { return ticker.getBodies(); }
+    public int getDisplayPieces() { return ticker.getDisplayPieces(); }
+    public int getLastTickParts() { return ticker.getLastParts(); }
+    public int getLastTickParticles() { return ticker.getLastParticles(); }
+    public int getPeakParts() { return ticker.getPeakParts(); }
+    public long getTotalParticles() { return ticker.getTotalParticles(); }
+    public boolean isTickerRunning() { return ticker.isRunning(); }
+    public int getPendingSpawns() { return ticker.spawns().pendingPieces(); }
+    public int getLastTickSpawned() { return ticker.spawns().getLastSpawned(); }
+    public int getPeakTickSpawned() { return ticker.spawns().getPeakSpawned(); }
+    public long getDroppedSpawns() { return ticker.spawns().getDropped(); }
+    public ExplosionEngine getExplosionEngine() { return explosions; }
+    public MeteorShapes getShapes() { return shapes; }
+    public int getLiveDebris() { return debris.getLive(); }
+    public int getPeakDebris() { return debris.getPeak(); }
+    public long getShedDebris() { return debris.getShed(); }
+    public long getExpiredDebris() { return debris.getExpired(); }
+    public long getLandedDebris() { return debris.getLanded(); }
+    public long getImpactPlans() { return impacts.getImpacts(); }
+    public long getImpactBatches() { return impacts.getBatches(); }
+    public long getImpactAvoidedWrites() { return impacts.getAvoidedWrites(); }
+    public long getImpactWrites() { return impacts.getApplied(); }
+    public long getImpactStale() { return impacts.getStale(); }
+    public double getImpactSnapshotMs() { return impacts.getMeanSnapshotMs(); }
+    public double getImpactPlanMs() { return impacts.getMeanPlanMs(); }
+    public double getImpactApplyMs() { return impacts.getMeanApplyMs(); }
+    public long getPredictedImpacts() { return predictedImpacts; }
+    public long getPredictionMisses() { return predictionMisses; }
+    /** 예측된 평균 낙하 시간(틱) */
+    public double getMeanImpactTicks() { return predictedImpacts == 0 ? 0.0 : predictedTicksSum / (double) predictedImpacts; }
 
     // ---- 유틸 ----
-    private List<Vector> fibonacciSphere(double radius, int n) {
+    static List<Vector> fibonacciSphere(double radius, int n) {
         List<Vector> v = new ArrayList<>(n);
         double ga = Math.PI * (3.0 - Math.sqrt(5.0));
         for (int i = 0; i < n; i++) {
@@ -381,17 +361,6 @@ public class MeteorManager implements Listener {
         return v;
     }
 
-    private Vector randomPointInSolidSphere(double maxR) {
-        double u = rnd.nextDouble(), v = rnd.nextDouble(), w = rnd.nextDouble();
-        double theta = 2 * Math.PI * u;
-        double phi = Math.acos(2 * v - 1);
-        double r = Math.cbrt(w) * maxR;
-        double sx = r * Math.sin(phi) * Math.cos(theta);
-        double sy = r * Math.cos(phi);
-        double sz = r * Math.sin(phi) * Math.sin(theta);
-        return new Vector(sx, sy, sz);
-    }
-
     private Vector randomUnitHemisphere() {
         double u = rnd.nextDouble(), v = rnd.nextDouble();
         double theta = 2 * Math.PI * u;
@@ -413,30 +382,8 @@ public class MeteorManager implements Listener {
         return dir.normalize().multiply(base.length());
     }
 
-    private Location averageLocationOfMeteor(UUID meteorId, World fallbackWorld, Location fallbackLoc) {
-        Set<UUID> parts = meteorParts.get(meteorId);
-        if (parts == null || parts.isEmpty()) return fallbackLoc;
-
-        double x=0,y=0,z=0; int n=0; World w = null;
-        for (UUID pid : parts) {
-            Entity e = Bukkit.getEntity(pid);
-            if (e != null && e.isValid()) {
-                Location l = e.getLocation();
-                x+=l.getX(); y+=l.getY(); z+=l.getZ(); n++;
-                if (w == null) w = l.getWorld();
-            }
-        }
-        if (n==0) return fallbackLoc;
-        return new Location(w==null?fallbackWorld:w, x/n, y/n, z/n);
-    }
-
     private Material matchMat(String name, Material fallback) {
         Material m = Material.matchMaterial(name);
         return m == null ? fallback : m;
     }
-    private boolean isExposedToSky(Block b) {
-        World w = b.getWorld();
-        int highest = w.getHighestBlockYAt(b.getX(), b.getZ());
-        return b.getY() >= highest;
-    }
 }
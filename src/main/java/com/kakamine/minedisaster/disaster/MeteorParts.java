@@ -0,0 +1,106 @@
+package com.kakamine.minedisaster.disaster;
+
+import com.kakamine.minedisaster.util.LongIntMap;
+import com.kakamine.minedisaster.util.LongObjectMap;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.FallingBlock;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 메테오 파트 핸들 저장소
+ * - 메테오마다 FallingBlock 참조를 배열로 직접 보관 (Bukkit.getEntity 로 모든 월드를 뒤지지 않음)
+ * - 파트 → 메테오는 엔티티 id(int) 로 O(1) 조회
+ * - 엔티티가 어떤 이유로든 사라지면(EntityRemoveEvent) invalidate 로 즉시 빠짐
+ * - 메테오 기록은 파트가 모두 사라져도 close 전까지 유지 (예약된 폭발이 살아 있음을 판단하는 기준)
+ */
+final class MeteorParts {
+
+    private static final class Group {
+        final UUID id;
+        FallingBlock[] parts = new FallingBlock[32];
+        int size;
+
+        Group(UUID id) { this.id = id; }
+    }
+
+    private final Map<UUID, Group> groups = new HashMap<>();
+    private final LongObjectMap<Group> groupByEntity = new LongObjectMap<>(256);
+    private final LongIntMap slotByEntity = new LongIntMap(256, -1);
+    private int live;
+
+    void open(UUID meteorId) {
+        groups.putIfAbsent(meteorId, new Group(meteorId));
+    }
+
+    boolean isActive(UUID meteorId) { return groups.containsKey(meteorId); }
+
+    /** @return false 면 이미 닫힌 메테오 (호출자가 엔티티 제거) */
+    boolean add(UUID meteorId, FallingBlock fb) {
+        Group g = groups.get(meteorId);
+        if (g == null) return false;
+        if (g.size == g.parts.length) g.parts = Arrays.copyOf(g.parts, g.size << 1);
+        int id = fb.getEntityId();
+        g.parts[g.size] = fb;
+        groupByEntity.put(id, g);
+        slotByEntity.put(id, g.size);
+        g.size++;
+        live++;
+        return true;
+    }
+
+    /** 파트가 속한 메테오 (파트가 아니면 null) */
+    UUID meteorOf(Entity e) {
+        Group g = groupByEntity.get(e.getEntityId());
+        return g == null ? null : g.id;
+    }
+
+    /** 엔티티가 사라짐: 배열에서 마지막 원소와 자리 바꿔 제거 */
+    void invalidate(Entity e) {
+        int id = e.getEntityId();
+        Group g = groupByEntity.remove(id);
+        if (g == null) return;
+        int s = slotByEntity.remove(id);
+        int last = --g.size;
+        if (s != last) {
+            FallingBlock moved = g.parts[last];
+            g.parts[s] = moved;
+            slotByEntity.put(moved.getEntityId(), s);
+        }
+        g.parts[last] = null;
+        live--;
+    }
+
+    /** 메테오 기록 닫기 + 남은 파트 제거, @return 제거한 엔티티 수 */
+    int close(UUID meteorId) {
+        Group g = groups.remove(meteorId);
+        if (g == null) return 0;
+        // 색인을 먼저 비워 remove() 가 부르는 EntityRemoveEvent 가 다시 들어오지 않게
+        for (int i = 0; i < g.size; i++) {
+            int id = g.parts[i].getEntityId();
+            groupByEntity.remove(id);
+            slotByEntity.remove(id);
+        }
+        int removed = 0;
+        for (int i = 0; i < g.size; i++) {
+            FallingBlock fb = g.parts[i];
+            if (fb.isValid()) { fb.remove(); removed++; }
+        }
+        live -= g.size;
+        g.size = 0;
+        return removed;
+    }
+
+    void clear() {
+        for (UUID id : groups.keySet().toArray(new UUID[0])) close(id);
+        groupByEntity.clear();
+        slotByEntity.clear();
+        live = 0;
+    }
+
+    int meteors() { return groups.size(); }
+    int liveParts() { return live; }
+}
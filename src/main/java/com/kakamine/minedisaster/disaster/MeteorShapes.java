@@ -0,0 +1,104 @@
+package com.kakamine.minedisaster.disaster;
+
+import org.bukkit.Location;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 메테오 모양 템플릿 캐시
+ * - 표면(피보나치 구) → 코어(피보나치 구) → 채움(구각 안 랜덤 점) 오프셋을 double[] (x,y,z 연속) 하나로 보관
+ * - 키 = (표면/코어 반경을 1/8 블록 단위로 양자화, 파트 수, 변형 번호), 변형마다 표면 흔들림/채움 점이 다름
+ * - 템플릿은 읽기 전용으로 여러 메테오가 공유, 생성 시 중심만 더해 씀 (점마다 Vector/Location 할당 없음)
+ * - 메인 스레드 전용
+ */
+public final class MeteorShapes {
+
+    private static final double QUANT = 8.0;
+    private static final int MAX_ENTRIES = 256;
+
+    /** 빈 모양 (display 모드처럼 FallingBlock 파트가 없을 때) */
+    static final Shape EMPTY = new Shape(new double[0], 0, 0);
+
+    /** 공유 템플릿: [0, surfaceEnd) 표면, [surfaceEnd, coreEnd) 코어, 나머지 채움 */
+    public static final class Shape {
+        final double[] offsets;
+        final int surfaceEnd, coreEnd;
+
+        Shape(double[] offsets, int surfaceEnd, int coreEnd) {
+            this.offsets = offsets;
+            this.surfaceEnd = surfaceEnd;
+            this.coreEnd = coreEnd;
+        }
+
+        public int pieces() { return offsets.length / 3; }
+
+        /** at 을 (중심 + i 번째 오프셋) 으로 옮김 */
+        public void offset(Location at, double cx, double cy, double cz, int i) {
+            int k = i * 3;
+            at.setX(cx + offsets[k]);
+            at.setY(cy + offsets[k + 1]);
+            at.setZ(cz + offsets[k + 2]);
+        }
+    }
+
+    private record Key(int surfaceQ, int coreQ, int surfaceN, int coreN, int fillN, int variant, int jitterQ) {}
+
+    private final Map<Key, Shape> cache = new HashMap<>();
+    private long hits, misses;
+
+    /** @param variant 0 이상, 같은 키/변형이면 같은 템플릿 */
+    public Shape get(double surfaceR, double coreR, int surfaceN, int coreN, int fillN, int variant, double jitter) {
+        Key key = new Key((int) Math.round(surfaceR * QUANT), (int) Math.round(coreR * QUANT), surfaceN, coreN, fillN, variant,
+                (int) Math.round(jitter * 100));
+        Shape s = cache.get(key);
+        if (s != null) { hits++; return s; }
+        misses++;
+        if (cache.size() >= MAX_ENTRIES) cache.clear();
+        s = build(key.surfaceQ / QUANT, key.coreQ / QUANT, surfaceN, coreN, fillN, key.jitterQ / 100.0, new Random(key.hashCode()));
+        cache.put(key, s);
+        return s;
+    }
+
+    static Shape build(double surfaceR, double coreR, int surfaceN, int coreN, int fillN, double jitter, Random rnd) {
+        double[] o = new double[(surfaceN + coreN + fillN) * 3];
+        int n = fibonacci(o, 0, surfaceR, surfaceN, jitter, rnd);
+        int surfaceEnd = n / 3;
+        n = fibonacci(o, n, coreR, coreN, jitter * 0.5, rnd);
+        int coreEnd = n / 3;
+
+        // 채움: 코어 90% ~ 표면 사이 반경의 꽉 찬 구 안 균일 점
+        for (int k = 0; k < fillN; k++) {
+            double maxR = coreR * 0.9 + rnd.nextDouble() * (surfaceR - coreR * 0.9);
+            double theta = 2 * Math.PI * rnd.nextDouble();
+            double phi = Math.acos(2 * rnd.nextDouble() - 1);
+            double r = Math.cbrt(rnd.nextDouble()) * maxR;
+            o[n++] = r * Math.sin(phi) * Math.cos(theta);
+            o[n++] = r * Math.cos(phi);
+            o[n++] = r * Math.sin(phi) * Math.sin(theta);
+        }
+        return new Shape(o, surfaceEnd, coreEnd);
+    }
+
+    /** MeteorManager.fibonacciSphere 와 같은 점 + 축마다 ±jitter */
+    private static int fibonacci(double[] o, int n, double radius, int count, double jitter, Random rnd) {
+        double ga = Math.PI * (3.0 - Math.sqrt(5.0));
+        for (int i = 0; i < count; i++) {
+            double t = (double) i / Math.max(1, count - 1);
+            double y = 1.0 - 2.0 * t;
+            double r = Math.sqrt(1 - y * y);
+            double phi = i * ga;
+            o[n++] = Math.cos(phi) * r * radius + (jitter > 0 ? (rnd.nextDouble() * 2 - 1) * jitter : 0);
+            o[n++] = y * radius + (jitter > 0 ? (rnd.nextDouble() * 2 - 1) * jitter : 0);
+            o[n++] = Math.sin(phi) * r * radius + (jitter > 0 ? (rnd.nextDouble() * 2 - 1) * jitter : 0);
+        }
+        return n;
+    }
+
+    public int size() { return cache.size(); }
+    public long getHits() { return hits; }
+    public long getMisses() { return misses; }
+
+    void clear() { cache.clear(); }
+}
@@ -0,0 +1,174 @@
+package com.kakamine.minedisaster.disaster;
+
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.util.Vector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.ToIntFunction;
+
+/**
+ * 메테오 우박 분산 생성 큐
+ * - 메테오마다 발사 틱(launchTick)이 정해져 있고, 그 틱부터 궤적의 "가상 중심"을 FallingBlock 물리로 매 틱 진행
+ * - 파트는 틱당 생성 예산 안에서만 만들고, 늦게 만든 파트는 그 시점의 궤적 위치/속도로 합류
+ *   → 생성이 밀려도 착지 시점(발사 틱 + 예측 낙하 시간)은 바뀌지 않음
+ * - MeteorTicker 가 매 틱 tick() 호출
+ */
+final class MeteorSpawnQueue {
+
+    /** 파트 하나 생성: (메테오, 위치, 재질, 속도, 꼬리) */
+    interface PieceSpawner {
+        void spawn(Planned m, Location at, Material mat, Vector vel, MeteorTicker.Trail trail);
+    }
+
+    /** 발사 대기/진행 중인 메테오 하나 */
+    static final class Planned {
+        final UUID id;
+        final World world;
+        final long launchTick;
+        double x, y, z, vx, vy, vz;  // 가상 중심
+        final MeteorShapes.Shape shape; // 공유 템플릿 (표면 → 코어 → 채움 순)
+        final Material surfaceMat, coreMat, fillMat;
+        final MeteorTicker.Trail trail, innerTrail; // 표면 / 코어·채움 꼬리 (null 이면 없음)
+        final int trailEvery;                       // N개 중 1개만 꼬리
+        final ToIntFunction<Planned> onLaunch; // 발사 시 처리(소리, display 본체 등), 반환값 = 생성한 엔티티 수
+        int next;
+        boolean launched;
+
+        Planned(UUID id, Location spawn, Vector vel, long launchTick, MeteorShapes.Shape shape,
+                Material surfaceMat, Material coreMat, Material fillMat,
+                MeteorTicker.Trail trail, MeteorTicker.Trail innerTrail, int trailEvery, ToIntFunction<Planned> onLaunch) {
+            this.id = id;
+            this.world = spawn.getWorld();
+            this.x = spawn.getX(); this.y = spawn.getY(); this.z = spawn.getZ();
+            this.vx = vel.getX(); this.vy = vel.getY(); this.vz = vel.getZ();
+            this.launchTick = launchTick;
+            this.shape = shape;
+            this.surfaceMat = surfaceMat;
+            this.coreMat = coreMat;
+            this.fillMat = fillMat;
+            this.trail = trail;
+            this.innerTrail = innerTrail;
+            this.trailEvery = Math.max(1, trailEvery);
+            this.onLaunch = onLaunch;
+        }
+
+        int pieces() { return shape.pieces(); }
+
+        Material mat(int i) { return i < shape.surfaceEnd ? surfaceMat : i < shape.coreEnd ? coreMat : fillMat; }
+
+        MeteorTicker.Trail trail(int i) {
+            if (i % trailEvery != 0) return null;
+            return i < shape.surfaceEnd ? trail : innerTrail;
+        }
+
+        Location center() { return new Location(world, x, y, z); }
+
+        Vector velocity() { return new Vector(vx, vy, vz); }
+
+        /** FallingBlock 한 틱: 중력 → 이동 → 감쇠 */
+        void step() {
+            vy -= DisplayMeteor.GRAVITY;
+            x += vx; y += vy; z += vz;
+            vx *= DisplayMeteor.DRAG; vy *= DisplayMeteor.DRAG; vz *= DisplayMeteor.DRAG;
+        }
+    }
+
+    private final List<Planned> queue = new ArrayList<>(); // launchTick 오름차순
+    private final PieceSpawner spawner;
+    private final Location at = new Location(null, 0, 0, 0); // 생성 위치 재사용 (spawnFallingBlock 이 복사함)
+    private int budget = 240;
+    private long now;
+
+    // 통계
+    private int lastSpawned, peakSpawned;
+    private long deferred, dropped;
+
+    MeteorSpawnQueue(PieceSpawner spawner) {
+        this.spawner = spawner;
+    }
+
+    void configure(int spawnBudgetPerTick) {
+        this.budget = Math.max(1, spawnBudgetPerTick);
+    }
+
+    /** 현재 큐 틱 (발사 틱 계산 기준) */
+    long now() { return now; }
+
+    boolean isEmpty() { return queue.isEmpty(); }
+
+    /** 아직 만들지 않은 파트 수 */
+    int pendingPieces() {
+        int n = 0;
+        for (Planned m : queue) n += m.pieces() - m.next;
+        return n;
+    }
+
+    void add(Planned m) {
+        int i = queue.size();
+        while (i > 0 && queue.get(i - 1).launchTick > m.launchTick) i--;
+        queue.add(i, m);
+    }
+
+    /** 폭발/정리된 메테오의 남은 파트는 버림 */
+    void remove(UUID meteorId) {
+        for (int i = queue.size() - 1; i >= 0; i--) {
+            Planned m = queue.get(i);
+            if (m.id.equals(meteorId)) {
+                dropped += m.pieces() - m.next;
+                queue.remove(i);
+            }
+        }
+    }
+
+    void tick() {
+        now++;
+        int left = budget;
+        int spawned = 0;
+
+        for (int i = 0; i < queue.size(); ) {
+            Planned m = queue.get(i);
+            if (m.launchTick > now) break;
+
+            if (!m.launched) {
+                m.launched = true;
+                int cost = m.onLaunch.applyAsInt(m);
+                left -= cost;
+                spawned += cost;
+            } else {
+                m.step();
+            }
+
+            Vector vel = null;
+            while (m.next < m.pieces() && left > 0) {
+                if (vel == null) { vel = m.velocity(); at.setWorld(m.world); }
+                m.shape.offset(at, m.x, m.y, m.z, m.next);
+                spawner.spawn(m, at, m.mat(m.next), vel, m.trail(m.next));
+                m.next++;
+                left--;
+                spawned++;
+            }
+
+            if (m.next >= m.pieces()) queue.remove(i);
+            else { deferred += m.pieces() - m.next; i++; }
+        }
+
+        lastSpawned = spawned;
+        if (spawned > peakSpawned) peakSpawned = spawned;
+    }
+
+    int getLastSpawned() { return lastSpawned; }
+    int getPeakSpawned() { return peakSpawned; }
+    /** 예산 때문에 다음 틱으로 밀린 파트-틱 누계 */
+    long getDeferred() { return deferred; }
+    /** 생성 전에 메테오가 폭발해 버려진 파트 수 */
+    long getDropped() { return dropped; }
+
+    void clear() {
+        queue.clear();
+        at.setWorld(null);
+    }
+}
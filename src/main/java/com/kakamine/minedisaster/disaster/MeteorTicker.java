@@ -0,0 +1,219 @@
+package com.kakamine.minedisaster.disaster;
+
+import com.kakamine.minedisaster.MineDisaster;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.Particle;
+import org.bukkit.World;
+import org.bukkit.entity.FallingBlock;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+/**
+ * 메테오 공용 티커
+ * - 낙하 중인 파트를 촘촘한 배열에 모아 작업 하나로 꼬리 파티클 처리 (파트마다 runTaskTimer 를 두지 않음)
+ * - 꼬리를 낼 파트는 추가 시점에 결정(Trail == null 이면 위치만 추적)
+ * - 유효하지 않은 파트는 순회 중 마지막 원소와 자리 바꿔 제거
+ * - display 모드 본체(DisplayMeteor)는 매 틱 적분, period 마다 조각 이동/꼬리
+ * - 우박 분산 생성 큐(MeteorSpawnQueue)도 같은 틱에서 처리
+ */
+final class MeteorTicker {
+
+    /** 메테오 하나의 꼬리 설정 (파트끼리 공유) */
+    static final class Trail {
+        final Particle particle;
+        final int density;
+
+        Trail(Particle particle, int density) {
+            this.particle = particle;
+            this.density = density;
+        }
+    }
+
+    private final MineDisaster plugin;
+    private final Random rnd = new Random();
+
+    private FallingBlock[] parts = new FallingBlock[256];
+    private UUID[] meteorOf = new UUID[256];
+    private Trail[] trails = new Trail[256];
+    private int size;
+
+    // display 모드 본체 + 충돌 시 호출 (본체, 충돌 위치)
+    private final List<DisplayMeteor> bodies = new ArrayList<>();
+    private BiConsumer<DisplayMeteor, Location> onImpact;
+
+    // 발사 대기 중인 메테오
+    private final MeteorSpawnQueue spawns;
+
+    private BukkitTask task;
+    private int period = 2;
+    private int lodInterval = 10;
+    private long ticks;
+
+    // 통계
+    private int lastParts, lastParticles, peakParts;
+    private long totalParticles;
+
+    MeteorTicker(MineDisaster plugin, MeteorSpawnQueue.PieceSpawner spawner) {
+        this.plugin = plugin;
+        this.spawns = new MeteorSpawnQueue(spawner);
+    }
+
+    /** @param periodTicks 꼬리/조각 이동 주기(틱) */
+    void configure(int periodTicks, int lodIntervalTicks) {
+        this.period = Math.max(1, periodTicks);
+        this.lodInterval = Math.max(1, lodIntervalTicks);
+    }
+
+    void setImpactHandler(BiConsumer<DisplayMeteor, Location> onImpact) {
+        this.onImpact = onImpact;
+    }
+
+    int period() { return period; }
+
+    MeteorSpawnQueue spawns() { return spawns; }
+
+    /** 발사 예약 (큐 기준 틱은 spawns().now()) */
+    void plan(MeteorSpawnQueue.Planned m) {
+        spawns.add(m);
+        ensureRunning();
+    }
+
+    void addBody(DisplayMeteor body) {
+        body.updateLod(period);
+        bodies.add(body);
+        ensureRunning();
+    }
+
+    private void ensureRunning() {
+        if (task == null) task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+    }
+
+    /** @param trail null 이면 꼬리 없이 추적만 */
+    void add(FallingBlock fb, UUID meteorId, Trail trail) {
+        if (size == parts.length) {
+            int n = size << 1;
+            parts = Arrays.copyOf(parts, n);
+            meteorOf = Arrays.copyOf(meteorOf, n);
+            trails = Arrays.copyOf(trails, n);
+        }
+        parts[size] = fb;
+        meteorOf[size] = meteorId;
+        trails[size] = trail;
+        size++;
+        if (size > peakParts) peakParts = size;
+        ensureRunning();
+    }
+
+    /** 메테오 하나의 파트를 추적에서 제외 (FallingBlock 제거는 호출자 몫, display 조각은 여기서 제거) */
+    void removeMeteor(UUID meteorId) {
+        spawns.remove(meteorId);
+        for (int i = size - 1; i >= 0; i--) {
+            if (meteorId.equals(meteorOf[i])) removeAt(i);
+        }
+        for (int i = bodies.size() - 1; i >= 0; i--) {
+            DisplayMeteor b = bodies.get(i);
+            if (b.id.equals(meteorId)) { b.removePieces(); removeBody(i); }
+        }
+    }
+
+    private void removeBody(int i) {
+        int last = bodies.size() - 1;
+        bodies.set(i, bodies.get(last));
+        bodies.remove(last);
+    }
+
+    private void removeAt(int i) {
+        int last = --size;
+        parts[i] = parts[last];
+        meteorOf[i] = meteorOf[last];
+        trails[i] = trails[last];
+        parts[last] = null;
+        meteorOf[last] = null;
+        trails[last] = null;
+    }
+
+    private void tick() {
+        ticks++;
+        final boolean trailTick = ticks % period == 0;
+        int particles = 0;
+
+        // display 본체: 매 틱 적분, 조각 이동/꼬리는 period 마다
+        for (int i = bodies.size() - 1; i >= 0; i--) {
+            DisplayMeteor b = bodies.get(i);
+            if (b.step()) {
+                removeBody(i);
+                b.removePieces();
+                if (onImpact != null) onImpact.accept(b, b.location());
+                continue;
+            }
+            if (b.age % lodInterval == 0) b.updateLod(period);
+            if (!trailTick) continue;
+            b.sync();
+            if (b.trail != null) {
+                int n = b.trail.density * 4;
+                double r = b.surfaceR * 0.6;
+                b.world.spawnParticle(b.trail.particle, b.x, b.y, b.z, n, r, r, r, 0);
+                particles += n;
+            }
+        }
+        if (trailTick) {
+            for (int i = size - 1; i >= 0; i--) {
+                FallingBlock fb = parts[i];
+                if (!fb.isValid()) { removeAt(i); continue; }
+                Trail t = trails[i];
+                if (t == null) continue;
+
+                Location l = fb.getLocation();
+                World w = l.getWorld();
+                w.spawnParticle(t.particle, l, t.density, 0, 0, 0, 0);
+                particles += t.density;
+                if (rnd.nextBoolean()) { w.spawnParticle(Particle.SMALL_FLAME, l, 1, 0, 0, 0, 0); particles++; }
+            }
+            lastParts = size + bodies.size();
+            lastParticles = particles;
+            totalParticles += particles;
+        }
+
+        // 이번 틱 생성분은 다음 틱부터 움직임
+        spawns.tick();
+
+        if (size == 0 && bodies.isEmpty() && spawns.isEmpty()) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    int getLiveParts() { return size; }
+    int getBodies() { return bodies.size(); }
+
+    /** display 조각 엔티티 수 */
+    int getDisplayPieces() {
+        int n = 0;
+        for (DisplayMeteor b : bodies) n += b.pieceCount();
+        return n;
+    }
+
+    int getLastParts() { return lastParts; }
+    int getLastParticles() { return lastParticles; }
+    int getPeakParts() { return peakParts; }
+    long getTotalParticles() { return totalParticles; }
+    boolean isRunning() { return task != null; }
+
+    void clear() {
+        Arrays.fill(parts, 0, size, null);
+        Arrays.fill(meteorOf, 0, size, null);
+        Arrays.fill(trails, 0, size, null);
+        size = 0;
+        for (DisplayMeteor b : bodies) b.removePieces();
+        bodies.clear();
+        spawns.clear();
+        if (task != null) { task.cancel(); task = null; }
+    }
+}
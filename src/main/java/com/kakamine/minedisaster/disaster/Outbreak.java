@@ -0,0 +1,91 @@
+package com.kakamine.minedisaster.disaster;
+
+import com.kakamine.minedisaster.util.TimerWheel;
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.util.function.LongConsumer;
+
+/**
+ * 박테리아 발병 하나의 상태
+ * - 각자 감염 레지스트리/프런티어/수명 휠을 가짐
+ * - 확산/원복 로직은 BacteriaManager 가 공용 티커에서 수행
+ */
+public final class Outbreak {
+
+    /** 발병별 config 덮어쓰기 (null = config 값 사용) */
+    public static final class Overrides {
+        public Integer perTick;
+        public Double spreadChance;
+        public Integer lifetimeTicks;
+        public Boolean frontier;
+        public Integer maxActive;
+        public Boolean visual;
+    }
+
+    final int id;
+    final World world;
+    final Location origin;
+    final int radius;
+
+    // 시작 시점에 확정된 설정
+    final int perTickCap;
+    final double spreadChance;
+    final int lifetimeTicks;
+    final boolean frontierMode;
+    final int maxActive;
+    final boolean visual; // 월드는 그대로, 주변 플레이어에게만 보이기
+
+    final InfectionRegistry infected = new InfectionRegistry();
+    final InfectionRegistry frontier = new InfectionRegistry();
+    final TimerWheel expiry = new TimerWheel();
+    LongConsumer expireFn;
+
+    int delayTicks;     // 시작 지연 남은 틱
+    int lastShare;      // 직전 확산 틱에 받은 작업량
+    long infectionCount;
+    long spreadNanos;
+    long spreadInfections;
+    final long startedAt = System.currentTimeMillis();
+
+    Outbreak(int id, Location origin, int radius, int perTickCap, double spreadChance,
+             int lifetimeTicks, boolean frontierMode, int maxActive, boolean visual, int delayTicks) {
+        this.id = id;
+        this.world = origin.getWorld();
+        this.origin = origin.clone();
+        this.radius = radius;
+        this.perTickCap = perTickCap;
+        this.spreadChance = spreadChance;
+        this.lifetimeTicks = lifetimeTicks;
+        this.frontierMode = frontierMode;
+        this.maxActive = maxActive;
+        this.visual = visual;
+        this.delayTicks = delayTicks;
+    }
+
+    public int getId() { return id; }
+    public World getWorld() { return world; }
+    public Location getOrigin() { return origin.clone(); }
+    public int getRadius() { return radius; }
+    public int getPerTickCap() { return perTickCap; }
+    public double getSpreadChance() { return spreadChance; }
+    public int getLifetimeTicks() { return lifetimeTicks; }
+    public String getSpreadMode() { return frontierMode ? "frontier" : "random"; }
+    public boolean isVisual() { return visual; }
+    public int getInfectedCount() { return infected.size(); }
+    public int getFrontierSize() { return frontier.size(); }
+    public int getPendingExpiry() { return expiry.pending(); }
+    public int getExpiryBacklog() { return expiry.backlog(); }
+    public int getLastShare() { return lastShare; }
+    public long getAgeSeconds() { return (System.currentTimeMillis() - startedAt) / 1000L; }
+
+    /** 확산 루프 기준 처리량(감염/ms) */
+    public double getInfectionsPerMs() {
+        return spreadNanos == 0 ? 0.0 : spreadInfections / (spreadNanos / 1_000_000.0);
+    }
+
+    /** 확산 재료가 남아 있는지 */
+    boolean hasSources() {
+        return !(frontierMode ? frontier : infected).isEmpty();
+    }
+}
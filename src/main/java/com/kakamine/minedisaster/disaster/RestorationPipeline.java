@@ -0,0 +1,173 @@
+package com.kakamine.minedisaster.disaster;
+
+import com.kakamine.minedisaster.MineDisaster;
+import com.kakamine.minedisaster.util.BlockKeys;
+import com.kakamine.minedisaster.util.LongObjectMap;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.function.LongPredicate;
+
+/**
+ * 감염 흔적 정리 파이프라인
+ * - 정리할 좌표를 청크별로 묶어 청크 단위로 처리(같은 청크를 연달아 건드림)
+ * - 틱당 budgetMs 안에서만 원복하고 나머지는 다음 틱으로
+ * - 진행 상황은 요청한 sender 에게 주기적으로 전송
+ */
+public final class RestorationPipeline {
+
+    /** 한 청크에 속한 정리 대상 */
+    private static final class ChunkBatch {
+        long[] cells = new long[16];
+        int size;
+
+        void add(long key) {
+            if (size == cells.length) cells = Arrays.copyOf(cells, size << 1);
+            cells[size++] = key;
+        }
+    }
+
+    /** 정리 요청 하나 */
+    private static final class Job {
+        final World world;
+        final Material from, to;
+        final CommandSender sender;
+        final LongPredicate keep;
+        final ArrayDeque<ChunkBatch> chunks = new ArrayDeque<>();
+        final int total;
+        int done, skipped;
+        int cursor; // 현재 청크 안에서의 위치
+
+        Job(World world, Material from, Material to, CommandSender sender, LongPredicate keep, int total) {
+            this.world = world; this.from = from; this.to = to;
+            this.sender = sender; this.keep = keep; this.total = total;
+        }
+    }
+
+    private static final int PROGRESS_INTERVAL_TICKS = 20;
+    private static final int TIME_CHECK_EVERY = 32;
+
+    private final MineDisaster plugin;
+    private final ArrayDeque<Job> jobs = new ArrayDeque<>();
+    private BukkitTask task;
+    private int ticks;
+
+    private long budgetNanos = 5_000_000L;
+    private boolean physics = true;
+
+    public RestorationPipeline(MineDisaster plugin) {
+        this.plugin = plugin;
+    }
+
+    /** @param budgetMs 틱당 정리 시간 상한 */
+    public void configure(double budgetMs, boolean physics) {
+        this.budgetNanos = (long) (Math.max(0.5, budgetMs) * 1_000_000L);
+        this.physics = physics;
+    }
+
+    /** 남은 정리 블록 수(모든 작업 합) */
+    public int remaining() {
+        int n = 0;
+        for (Job j : jobs) n += j.total - j.done - j.skipped;
+        return n;
+    }
+
+    /**
+     * 정리 작업 등록
+     * @param keep 정리 시점에 true 면 건너뜀(그 사이 새로 시작된 감염이 같은 칸을 쓰는 경우 등)
+     */
+    public void enqueue(World world, long[] cells, Material from, Material to, CommandSender sender, LongPredicate keep) {
+        if (world == null || cells.length == 0) {
+            if (sender != null) sender.sendMessage("§a[MineDisaster] 정리할 흔적이 없습니다.");
+            return;
+        }
+
+        // 청크별 묶기 (처음 나온 순서대로 처리)
+        LongObjectMap<ChunkBatch> byChunk = new LongObjectMap<>(Math.max(16, cells.length / 64));
+        Job job = new Job(world, from, to, sender, keep, cells.length);
+        for (long key : cells) {
+            long ck = BlockKeys.chunkOf(key);
+            ChunkBatch b = byChunk.get(ck);
+            if (b == null) {
+                b = new ChunkBatch();
+                byChunk.put(ck, b);
+                job.chunks.add(b);
+            }
+            b.add(key);
+        }
+        jobs.add(job);
+
+        if (sender != null) {
+            sender.sendMessage("§a[MineDisaster] 흔적 정리 시작: §f" + cells.length + "블록 §7("
+                    + byChunk.size() + "청크, 틱당 " + (budgetNanos / 1_000_000.0) + "ms)");
+        }
+        if (task == null) {
+            ticks = 0;
+            task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+        }
+    }
+
+    private void tick() {
+        final long deadline = System.nanoTime() + budgetNanos;
+        ticks++;
+
+        int n = 0;
+        while (!jobs.isEmpty()) {
+            Job job = jobs.peek();
+            ChunkBatch batch = job.chunks.peek();
+            if (batch == null) {
+                jobs.poll();
+                report(job, true);
+                continue;
+            }
+
+            while (job.cursor < batch.size) {
+                long key = batch.cells[job.cursor++];
+                if (job.keep != null && job.keep.test(key)) {
+                    job.skipped++;
+                } else {
+                    Block b = job.world.getBlockAt(BlockKeys.x(key), BlockKeys.y(key), BlockKeys.z(key));
+                    if (b.getType() == job.from) b.setType(job.to, physics);
+                    job.done++;
+                }
+                if (++n % TIME_CHECK_EVERY == 0 && System.nanoTime() >= deadline) {
+                    progress();
+                    return;
+                }
+            }
+            job.chunks.poll();
+            job.cursor = 0;
+        }
+
+        task.cancel();
+        task = null;
+    }
+
+    private void progress() {
+        if (ticks % PROGRESS_INTERVAL_TICKS != 0) return;
+        Job job = jobs.peek();
+        if (job != null) report(job, false);
+    }
+
+    private void report(Job job, boolean finished) {
+        CommandSender s = job.sender;
+        if (s == null) return;
+        if (s instanceof Player p && !p.isOnline()) return;
+
+        if (finished) {
+            s.sendMessage("§a[MineDisaster] 흔적 정리 완료: §f" + job.done + "블록"
+                    + (job.skipped > 0 ? " §7(새 감염과 겹쳐 건너뜀 " + job.skipped + ")" : ""));
+        } else {
+            int handled = job.done + job.skipped;
+            s.sendMessage("§7[MineDisaster] 흔적 정리 중... §f" + handled + "/" + job.total
+                    + " §7(" + (handled * 100 / Math.max(1, job.total)) + "%)");
+        }
+    }
+}
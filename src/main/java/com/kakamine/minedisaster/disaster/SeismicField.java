@@ -0,0 +1,88 @@
+package com.kakamine.minedisaster.disaster;
+
+/**
+ * 지진 강도 필드 (진앙 중심 2D 격자, 지진 시작 때 한 번 계산)
+ * - 칸마다 감쇠(1 - 거리/반경, 최소 0.1), 위상(거리/파장), P파/S파 도달 틱을 보관
+ * - 흔들림/소리/파티클/지표 붕괴는 좌표 → 칸 번호 → 배열 조회만 (거리 sqrt 없음)
+ * - P파가 먼저 약하게(p-strength), S파가 도달하면 전체 강도로 바깥쪽으로 퍼짐
+ */
+final class SeismicField {
+
+    final int centerX, centerZ, radius, cell;
+    private final int half, side;
+    private final float[] atten;   // 0 = 반경 밖
+    private final float[] phase;   // 라디안
+    private final int[] pArrive, sArrive;
+    private final float pStrength;
+    private final int lastArrival;
+
+    /**
+     * @param cell       칸 크기(블록)
+     * @param pSpeed     P파 속도(블록/틱)
+     * @param sSpeed     S파 속도(블록/틱)
+     * @param wavelength 위상 한 바퀴 거리(블록)
+     * @param pStrength  S파 도달 전 P파 강도 비율(0~1)
+     */
+    SeismicField(int centerX, int centerZ, int radius, int cell,
+                 double pSpeed, double sSpeed, double wavelength, double pStrength) {
+        this.centerX = centerX;
+        this.centerZ = centerZ;
+        this.radius = Math.max(1, radius);
+        this.cell = Math.max(1, cell);
+        this.half = (this.radius + this.cell - 1) / this.cell;
+        this.side = half * 2 + 1;
+        this.pStrength = (float) Math.max(0.0, Math.min(1.0, pStrength));
+
+        int n = side * side;
+        atten = new float[n];
+        phase = new float[n];
+        pArrive = new int[n];
+        sArrive = new int[n];
+
+        double ps = Math.max(0.05, pSpeed), ss = Math.max(0.05, Math.min(sSpeed, ps));
+        double k = 2 * Math.PI / Math.max(1.0, wavelength);
+        int last = 0;
+        for (int gz = 0; gz < side; gz++) {
+            for (int gx = 0; gx < side; gx++) {
+                int i = gz * side + gx;
+                double dx = (gx - half) * (double) this.cell, dz = (gz - half) * (double) this.cell;
+                double d = Math.sqrt(dx * dx + dz * dz);
+                if (d > this.radius) continue;
+                atten[i] = (float) Math.max(0.1, 1.0 - d / this.radius);
+                phase[i] = (float) ((d * k) % (2 * Math.PI));
+                pArrive[i] = (int) (d / ps);
+                sArrive[i] = (int) (d / ss);
+                if (sArrive[i] > last) last = sArrive[i];
+            }
+        }
+        this.lastArrival = last;
+    }
+
+    /** 블록 좌표 → 칸 번호 (반경 밖이면 -1) */
+    int index(double x, double z) {
+        int gx = Math.floorDiv((int) Math.floor(x) - centerX + cell / 2, cell) + half;
+        int gz = Math.floorDiv((int) Math.floor(z) - centerZ + cell / 2, cell) + half;
+        if (gx < 0 || gz < 0 || gx >= side || gz >= side) return -1;
+        int i = gz * side + gx;
+        return atten[i] > 0 ? i : -1;
+    }
+
+    /** tick 시점 강도 (0~1): 파가 아직 안 왔으면 0, P파만 왔으면 감쇠 × pStrength */
+    float intensity(int i, int tick) {
+        if (i < 0 || tick < pArrive[i]) return 0f;
+        return tick < sArrive[i] ? atten[i] * pStrength : atten[i];
+    }
+
+    float attenuation(int i) { return i < 0 ? 0f : atten[i]; }
+    float phase(int i) { return phase[i]; }
+    boolean sWaveArrived(int i, int tick) { return i >= 0 && tick >= sArrive[i]; }
+
+    /** 칸 번호 → 칸 중심 블록 좌표 */
+    int cellX(int i) { return centerX + (i % side - half) * cell; }
+    int cellZ(int i) { return centerZ + (i / side - half) * cell; }
+
+    int cells() { return side * side; }
+
+    /** 가장 먼 칸까지 S파가 닿는 틱 */
+    int lastArrival() { return lastArrival; }
+}
@@ -0,0 +1,187 @@
+package com.kakamine.minedisaster.disaster;
+
+import com.kakamine.minedisaster.util.BlockKeys;
+import com.kakamine.minedisaster.util.LongIntMap;
+import com.kakamine.minedisaster.util.LongObjectMap;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.block.data.Levelled;
+import org.bukkit.block.data.Waterlogged;
+
+import java.util.Arrays;
+
+/**
+ * ChunkSnapshot 위의 SurfaceAccess (워커 스레드용)
+ * - 읽기: 스냅샷 + 계획 중 변경(오버레이), 스냅샷 없는 청크는 null → 규칙이 건너뜀 (청크 경계에서 잘림)
+ * - 쓰기: 월드는 건드리지 않고 Plan 에 기록 → 메인 스레드가 ms 예산 안에서 나눠 적용
+ */
+final class SnapshotSurface implements SurfaceAccess {
+
+    private static final Material[] MATS = Material.values();
+    private static final int CLEAR_WATERLOGGED = -1;
+
+    private final LongObjectMap<ChunkSnapshot> chunks;
+    private final LongIntMap overlay = new LongIntMap(256, -1);   // 키 → Material ordinal
+    private final LongIntMap dried = new LongIntMap(64, 0);       // 워터로그드 제거한 칸
+    private final int minY, maxY, seaLevel;
+    final Plan plan = new Plan();
+
+    SnapshotSurface(LongObjectMap<ChunkSnapshot> chunks, int minY, int maxY, int seaLevel) {
+        this.chunks = chunks;
+        this.minY = minY;
+        this.maxY = maxY;
+        this.seaLevel = seaLevel;
+    }
+
+    private ChunkSnapshot chunk(int x, int z) {
+        return chunks.get(BlockKeys.chunk(x >> 4, z >> 4));
+    }
+
+    /** World.getHighestBlockYAt 과 같은 기준(움직임을 막는 블록/액체), 스냅샷 높이맵에서 아래로 내려가며 찾음 */
+    @Override
+    public int highestY(int x, int z) {
+        ChunkSnapshot s = chunk(x, z);
+        if (s == null) return Integer.MIN_VALUE;
+        int y = Math.min(maxY - 1, s.getHighestBlockYAt(x & 15, z & 15) + 1);
+        for (; y > minY; y--) {
+            Material m = type(x, y, z);
+            if (m.isSolid() || DoomsdayRules.isWater(m) || m == Material.LAVA) return y;
+        }
+        return minY;
+    }
+
+    @Override
+    public Material type(int x, int y, int z) {
+        if (y < minY || y >= maxY) return Material.AIR;
+        int o = overlay.get(BlockKeys.pack(x, y, z));
+        if (o >= 0) return MATS[o];
+        ChunkSnapshot s = chunk(x, z);
+        return s == null ? null : s.getBlockType(x & 15, y, z & 15);
+    }
+
+    private BlockData data(int x, int y, int z) {
+        if (y < minY || y >= maxY || overlay.containsKey(BlockKeys.pack(x, y, z))) return null;
+        ChunkSnapshot s = chunk(x, z);
+        return s == null ? null : s.getBlockData(x & 15, y, z & 15);
+    }
+
+    @Override
+    public int waterLevel(int x, int y, int z) {
+        if (type(x, y, z) != Material.WATER) return -1;
+        return data(x, y, z) instanceof Levelled lv ? lv.getLevel() : 0;
+    }
+
+    @Override
+    public boolean isWaterlogged(int x, int y, int z) {
+        if (dried.get(BlockKeys.pack(x, y, z)) != 0) return false;
+        return data(x, y, z) instanceof Waterlogged wl && wl.isWaterlogged();
+    }
+
+    @Override
+    public boolean isOceanic(int x, int y, int z) {
+        ChunkSnapshot s = chunk(x, z);
+        if (s == null) return false;
+        return DoomsdayRules.isOceanicBiome(s.getBiome(x & 15, Math.max(minY, Math.min(maxY - 1, y)), z & 15).name());
+    }
+
+    @Override
+    public int seaLevel() { return seaLevel; }
+
+    @Override
+    public void setType(int x, int y, int z, Material m, boolean physics) {
+        Material before = original(x, y, z);
+        if (before == null) return;
+        long k = BlockKeys.pack(x, y, z);
+        overlay.put(k, m.ordinal());
+        plan.put(k, before.ordinal(), m.ordinal(), physics);
+    }
+
+    @Override
+    public void clearWaterlogged(int x, int y, int z) {
+        Material before = original(x, y, z);
+        if (before == null) return;
+        long k = BlockKeys.pack(x, y, z);
+        dried.put(k, 1);
+        plan.put(k, before.ordinal(), CLEAR_WATERLOGGED, false);
+    }
+
+    /** 스냅샷 원본 (범위 밖이면 null) */
+    private Material original(int x, int y, int z) {
+        if (y < minY || y >= maxY) return null;
+        ChunkSnapshot s = chunk(x, z);
+        return s == null ? null : s.getBlockType(x & 15, y, z & 15);
+    }
+
+    /**
+     * 변경 계획 (키마다 최종 값 하나) + 적용 커서
+     * - 메인 스레드가 틱을 넘어 나눠 적용, 스냅샷 이후 바뀐 칸은 건너뜀
+     */
+    static final class Plan {
+        private long[] keys = new long[128];
+        private int[] expected = new int[128];   // 스냅샷 당시 ordinal
+        private int[] to = new int[128];         // 목표 ordinal, CLEAR_WATERLOGGED = 물기만 제거
+        private boolean[] physics = new boolean[128];
+        private int size, cursor;
+        private final LongIntMap index = new LongIntMap(128, -1);
+
+        int samples, chunkCount;
+        long planNanos;
+
+        private void put(long key, int original, int target, boolean applyPhysics) {
+            int i = index.get(key);
+            if (i >= 0) {
+                // 물기 제거 뒤 다른 블록으로 바뀌면 바뀐 블록이 우선
+                if (target != CLEAR_WATERLOGGED || to[i] == CLEAR_WATERLOGGED) { to[i] = target; physics[i] = applyPhysics; }
+                return;
+            }
+            if (size == keys.length) {
+                int n = size << 1;
+                keys = Arrays.copyOf(keys, n);
+                expected = Arrays.copyOf(expected, n);
+                to = Arrays.copyOf(to, n);
+                physics = Arrays.copyOf(physics, n);
+            }
+            keys[size] = key;
+            expected[size] = original;
+            to[size] = target;
+            physics[size] = applyPhysics;
+            index.put(key, size);
+            size++;
+        }
+
+        int size() { return size; }
+        int remaining() { return size - cursor; }
+        boolean isDone() { return cursor >= size; }
+
+        /**
+         * deadline(nanoTime) 까지 적용
+         * @param counts [적용, 바뀌어서 건너뜀] 에 더함
+         */
+        void apply(World w, long deadline, long[] counts) {
+            while (cursor < size) {
+                int i = cursor++;
+                long k = keys[i];
+                int x = BlockKeys.x(k), z = BlockKeys.z(k);
+                if (!w.isChunkLoaded(x >> 4, z >> 4)) { counts[1]++; continue; } // 그 사이 언로드 → 다시 로드하지 않음
+                Block b = w.getBlockAt(x, BlockKeys.y(k), z);
+                if (b.getType().ordinal() != expected[i]) { counts[1]++; continue; }
+                if (to[i] == CLEAR_WATERLOGGED) {
+                    if (b.getBlockData() instanceof Waterlogged wl && wl.isWaterlogged()) {
+                        wl.setWaterlogged(false);
+                        b.setBlockData(wl, false);
+                        counts[0]++;
+                    } else {
+                        counts[1]++;
+                    }
+                } else if (to[i] != expected[i]) {
+                    b.setType(MATS[to[i]], physics[i]);
+                    counts[0]++;
+                }
+                if ((cursor & 15) == 0 && System.nanoTime() >= deadline) return;
+            }
+        }
+    }
+}
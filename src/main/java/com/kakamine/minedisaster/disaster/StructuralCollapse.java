@@ -0,0 +1,264 @@
+package com.kakamine.minedisaster.disaster;
+
+import com.kakamine.minedisaster.util.BlockKeys;
+import com.kakamine.minedisaster.util.BlockUtils;
+import com.kakamine.minedisaster.util.LongIntMap;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.entity.FallingBlock;
+
+import java.util.Arrays;
+
+/**
+ * 지진 구조 붕괴 (월드 하나)
+ * - 블록이 부서지면 주변 6칸을 "점검 대기"에 넣고, 틱당 정해진 노드 수만큼만 지지 탐색을 진행 (탐색은 틱을 넘어 이어감)
+ * - 지지 탐색: 시작 블록에서 단단한 블록을 따라 BFS, 수평으로 reach 칸 안에서 "접지" 블록을 찾으면 지지됨
+ *   · 접지 = 바로 아래 ground-depth 칸이 모두 단단함 (두꺼운 지반/기둥)
+ *   · 지지됨으로 판정된 블록은 캐시, 다른 탐색이 닿으면 바로 성공
+ *   · 캐시는 주변 3×3 청크에서 블록이 사라지기 전까지만 유효 (지지 경로는 시작점에서 reach(≤8) 안이라 충분)
+ * - 실패 시: 연결 덩어리가 범위 안에서 끝났으면(떠 있는 건물/섬) 덩어리 전체를 낙하 대기열에,
+ *   범위 밖으로 이어지면(긴 돌출부) 시작 블록만 → 이웃이 다시 점검되며 끝에서부터 무너짐
+ * - 낙하(블록 제거 + FallingBlock + 이웃 점검 예약)는 대기열에서 틱당 상한만큼만, 노드 예산에서도 차감
+ *   대기 중인 블록은 탐색에서 이미 빠진 것으로 봄
+ *   보관함(상자 등)은 내용물을 그 자리에 떨군 뒤 낙하
+ * - 불러오지 않은 청크는 건드리지 않음: 탐색이 닿으면 지지된 것으로, 점검/낙하 대상이면 건너뜀
+ */
+final class StructuralCollapse {
+
+    private static final int[] DX = {1, -1, 0, 0, 0, 0};
+    private static final int[] DY = {0, 0, 1, -1, 0, 0};
+    private static final int[] DZ = {0, 0, 0, 0, 1, -1};
+
+    final World world;
+    private final int minY, maxY;
+
+    // 점검 대기 (중복은 pending 으로 거름)
+    private long[] dirty = new long[256];
+    private int dHead, dSize;
+    private final LongIntMap pending = new LongIntMap(256, 0);
+
+    // 지지 캐시: 키 → 판정한 세대, 청크 → 마지막으로 블록이 사라진 세대
+    private final LongIntMap supported = new LongIntMap(1024, 0);
+    private final LongIntMap chunkGen = new LongIntMap(64, 0);
+    private int gen = 1;
+
+    // 진행 중인 탐색 하나
+    private long start;
+    private long[] queue = new long[256];
+    private int qHead, qTail;
+    private final LongIntMap visited = new LongIntMap(256, 0);
+    private boolean searching, touchedEdge;
+
+    // 낙하 대기 (아직 월드에 있는 블록, 중복은 falling 으로 거름)
+    private long[] fallKeys = new long[256];
+    private int fHead, fSize;
+    private final LongIntMap falling = new LongIntMap(256, 0);
+
+    // 통계
+    long checks, sections, dropped, spawned;
+
+    StructuralCollapse(World world) {
+        this.world = world;
+        this.minY = world.getMinHeight();
+        this.maxY = world.getMaxHeight();
+    }
+
+    boolean isIdle() { return dSize == 0 && !searching && fSize == 0; }
+
+    /** (x,y,z) 블록이 사라짐 → 이웃 점검 예약 */
+    void blockRemoved(int x, int y, int z) {
+        gen++;
+        int cx = x >> 4, cz = z >> 4;
+        for (int i = -1; i <= 1; i++) for (int j = -1; j <= 1; j++) chunkGen.put(BlockKeys.chunk(cx + i, cz + j), gen);
+        for (int d = 0; d < 6; d++) markDirty(x + DX[d], y + DY[d], z + DZ[d]);
+    }
+
+    private void markDirty(int x, int y, int z) {
+        if (y < minY || y >= maxY) return;
+        long k = BlockKeys.pack(x, y, z);
+        if (pending.get(k) != 0) return;
+        pending.put(k, 1);
+        if (dSize == dirty.length) {
+            long[] n = new long[dirty.length << 1];
+            for (int i = 0; i < dSize; i++) n[i] = dirty[(dHead + i) % dirty.length];
+            dirty = n;
+            dHead = 0;
+        }
+        dirty[(dHead + dSize) % dirty.length] = k;
+        dSize++;
+    }
+
+    private long popDirty() {
+        long k = dirty[dHead];
+        dHead = (dHead + 1) % dirty.length;
+        dSize--;
+        pending.remove(k);
+        return k;
+    }
+
+    /**
+     * @param budget     이번 틱 노드 방문 상한
+     * @param maxFalling 이번 틱 낙하 상한 (블록 제거 + FallingBlock 생성)
+     */
+    void tick(int budget, int maxFalling, int reach, int groundDepth, int maxNodes) {
+        budget -= fall(Math.min(maxFalling, budget));
+        while (budget > 0) {
+            if (!searching) {
+                if (dSize == 0) break;
+                long k = popDirty();
+                budget--;
+                if (!loaded(k) || isSupported(k) || !solid(k)) continue;
+                begin(k);
+            }
+            budget -= step(budget, reach, groundDepth, maxNodes);
+        }
+    }
+
+    private void begin(long k) {
+        start = k;
+        qHead = qTail = 0;
+        visited.clear();
+        visited.put(k, 1);
+        push(k);
+        searching = true;
+        touchedEdge = false;
+        checks++;
+    }
+
+    /** 탐색을 최대 budget 노드 진행, @return 사용한 노드 수 */
+    private int step(int budget, int reach, int groundDepth, int maxNodes) {
+        int used = 0;
+        int sx = BlockKeys.x(start), sz = BlockKeys.z(start);
+        while (used < budget && qHead < qTail) {
+            long k = queue[qHead++];
+            used++;
+            if (isSupported(k) || grounded(k, groundDepth)) { succeed(); return used; }
+
+            int x = BlockKeys.x(k), y = BlockKeys.y(k), z = BlockKeys.z(k);
+            for (int d = 0; d < 6; d++) {
+                int nx = x + DX[d], ny = y + DY[d], nz = z + DZ[d];
+                if (ny < minY || ny >= maxY) continue;
+                long nk = BlockKeys.pack(nx, ny, nz);
+                if (visited.get(nk) != 0) continue;
+                if (!loaded(nk)) { succeed(); return used; } // 모르는 쪽으로 이어지면 지지된 것으로
+                if (!solid(nk)) continue;
+                if (Math.abs(nx - sx) > reach || Math.abs(nz - sz) > reach) { touchedEdge = true; continue; }
+                visited.put(nk, 1);
+                push(nk);
+            }
+            // 너무 큰 덩어리는 지지된 것으로 간주 (대형 기지/지형)
+            if (visited.size() > maxNodes) { succeed(); return used; }
+        }
+        if (qHead >= qTail) fail();
+        return Math.max(1, used);
+    }
+
+    private boolean isSupported(long k) {
+        int g = supported.get(k);
+        return g != 0 && g >= chunkGen.get(BlockKeys.chunk(BlockKeys.x(k) >> 4, BlockKeys.z(k) >> 4));
+    }
+
+    private void succeed() {
+        for (int i = 0; i < qTail; i++) supported.put(queue[i], gen);
+        if (supported.size() > 1 << 16 || chunkGen.size() > 1 << 12) {
+            supported.clear();
+            chunkGen.clear();
+        }
+        searching = false;
+    }
+
+    /** 떠 있는 덩어리면 전체, 범위 밖으로 이어지면 시작 블록만 낙하 대기열에 */
+    private void fail() {
+        searching = false;
+        if (!touchedEdge) {
+            sections++;
+            for (int i = 0; i < qTail; i++) queueFall(queue[i]);
+        } else {
+            queueFall(start);
+        }
+    }
+
+    private void queueFall(long k) {
+        if (falling.get(k) != 0) return;
+        falling.put(k, 1);
+        if (fSize == fallKeys.length) {
+            long[] n = new long[fallKeys.length << 1];
+            for (int i = 0; i < fSize; i++) n[i] = fallKeys[(fHead + i) % fallKeys.length];
+            fallKeys = n;
+            fHead = 0;
+        }
+        fallKeys[(fHead + fSize) % fallKeys.length] = k;
+        fSize++;
+    }
+
+    /** 대기열에서 최대 max 개 낙하, @return 처리한 수 */
+    private int fall(int max) {
+        int n = 0;
+        for (; n < max && fSize > 0; n++) {
+            long k = fallKeys[fHead];
+            fHead = (fHead + 1) % fallKeys.length;
+            fSize--;
+            falling.remove(k);
+            if (!loaded(k)) continue;
+
+            int x = BlockKeys.x(k), y = BlockKeys.y(k), z = BlockKeys.z(k);
+            Block b = world.getBlockAt(x, y, z);
+            Material m = b.getType();
+            if (!m.isSolid() || m == Material.BEDROCK) continue;
+            BlockData data = b.getBlockData();
+            BlockUtils.dropContainerContents(b); // FallingBlock 은 BlockData 만 옮기므로
+            b.setType(Material.AIR, false);
+            dropped++;
+
+            FallingBlock fb = world.spawnFallingBlock(new Location(world, x + 0.5, y, z + 0.5), data);
+            fb.setDropItem(false);
+            fb.setHurtEntities(true);
+            spawned++;
+            blockRemoved(x, y, z);
+        }
+        return n;
+    }
+
+    private void push(long k) {
+        if (qTail == queue.length) queue = Arrays.copyOf(queue, qTail << 1);
+        queue[qTail++] = k;
+    }
+
+    private boolean loaded(long k) {
+        return world.isChunkLoaded(BlockKeys.x(k) >> 4, BlockKeys.z(k) >> 4);
+    }
+
+    /** 단단한 블록 (낙하 대기 중이면 이미 없는 것으로) */
+    private boolean solid(long k) {
+        if (falling.get(k) != 0) return false;
+        Material m = world.getBlockAt(BlockKeys.x(k), BlockKeys.y(k), BlockKeys.z(k)).getType();
+        return m.isSolid();
+    }
+
+    /** 바로 아래 depth 칸이 모두 단단하거나 월드 바닥 근처면 접지 */
+    private boolean grounded(long k, int depth) {
+        int x = BlockKeys.x(k), y = BlockKeys.y(k), z = BlockKeys.z(k);
+        for (int i = 1; i <= depth; i++) {
+            if (y - i < minY) return true;
+            if (!world.getBlockAt(x, y - i, z).getType().isSolid()) return false;
+        }
+        return true;
+    }
+
+    int backlog() { return dSize + fSize; }
+
+    void clear() {
+        dHead = dSize = 0;
+        pending.clear();
+        supported.clear();
+        chunkGen.clear();
+        visited.clear();
+        qHead = qTail = 0;
+        searching = false;
+        falling.clear();
+        fHead = fSize = 0;
+    }
+}
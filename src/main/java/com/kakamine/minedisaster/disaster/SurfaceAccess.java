@@ -0,0 +1,29 @@
+package com.kakamine.minedisaster.disaster;
+
+import org.bukkit.Material;
+
+/**
+ * 지구 멸망 규칙(DoomsdayRules)이 읽고 쓰는 지형 (블록 좌표 기준)
+ * - 읽기 범위 밖이면 type() = null, highestY() = Integer.MIN_VALUE → 규칙은 그 칸을 건너뜀
+ * - 쓰기는 바로 월드에 반영할 수도, 변경 목록으로 모을 수도 있음 (오프라인 도구는 리전 파일에)
+ */
+public interface SurfaceAccess {
+
+    int highestY(int x, int z);
+
+    Material type(int x, int y, int z);
+
+    /** WATER 의 Levelled 레벨 (0 = 근원), 물이 아니면 -1 */
+    int waterLevel(int x, int y, int z);
+
+    boolean isWaterlogged(int x, int y, int z);
+
+    /** 바다/강/해변 바이옴 */
+    boolean isOceanic(int x, int y, int z);
+
+    int seaLevel();
+
+    void setType(int x, int y, int z, Material m, boolean physics);
+
+    void clearWaterlogged(int x, int y, int z);
+}
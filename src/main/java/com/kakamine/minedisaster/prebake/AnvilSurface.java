@@ -0,0 +1,321 @@
+package com.kakamine.minedisaster.prebake;
+
+import com.kakamine.minedisaster.disaster.DoomsdayRules;
+import com.kakamine.minedisaster.disaster.SurfaceAccess;
+import com.kakamine.minedisaster.util.BlockKeys;
+import com.kakamine.minedisaster.util.LongObjectMap;
+import org.bukkit.Material;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 리전 파일에서 읽은 청크들 위의 SurfaceAccess (오프라인)
+ * - 섹션(16×16×16)은 처음 접근할 때만 팔레트/비트 배열을 풀어 둠 (보통 표면 근처 2~3개)
+ * - 쓰기는 섹션 배열에 바로 반영, 저장할 때 팔레트를 다시 모아(안 쓰는 항목 제거) 비트 배열로 묶음
+ * - 바뀐 청크는 높이맵을 지우고 isLightOn=0 → 서버가 처음 로드할 때 높이맵/빛을 다시 계산
+ * - 없는 청크는 null → 규칙이 건너뜀 (리전 경계에서 잘림)
+ */
+final class AnvilSurface implements SurfaceAccess {
+
+    /** 블록 상태 하나 (팔레트 항목) */
+    private record State(String name, Map<String, Object> props, Material mat) {
+        String prop(String key) {
+            return props == null ? null : Nbt.string(props, key);
+        }
+    }
+
+    /** 섹션 하나: NBT 원본 + 풀어 둔 팔레트/인덱스 */
+    private static final class Section {
+        final Map<String, Object> nbt;
+        List<State> palette;
+        short[] blocks;        // 4096 칸 팔레트 인덱스, null = 아직 안 풂
+        List<String> biomes;
+        byte[] biomeIndex;     // 64 칸 (4×4×4)
+        boolean dirty;
+
+        Section(Map<String, Object> nbt) { this.nbt = nbt; }
+    }
+
+    /** 청크 하나 */
+    static final class Column {
+        final int index;           // 리전 안 인덱스
+        final int cx, cz;
+        final Map<String, Object> root;
+        private final Section[] sections;
+        private final int minSection;
+        boolean dirty;
+
+        private Column(int index, int cx, int cz, Map<String, Object> root, Section[] sections, int minSection) {
+            this.index = index;
+            this.cx = cx;
+            this.cz = cz;
+            this.root = root;
+            this.sections = sections;
+            this.minSection = minSection;
+        }
+    }
+
+    private static final State AIR = new State("minecraft:air", null, Material.AIR);
+
+    private final LongObjectMap<Column> columns = new LongObjectMap<>(128);
+    private final int seaLevel;
+    long changed;
+
+    AnvilSurface(int seaLevel) {
+        this.seaLevel = seaLevel;
+    }
+
+    /**
+     * 청크 NBT 등록 (생성이 끝난 청크만, 아니면 null)
+     * @return 등록된 청크
+     */
+    Column add(int index, Map<String, Object> root) {
+        String status = Nbt.string(root, "Status");
+        if (status == null || !status.endsWith("full")) return null;
+        Nbt.ListTag list = Nbt.list(root, "sections");
+        if (list == null) return null;
+        int cx = Nbt.intValue(root, "xPos", 0), cz = Nbt.intValue(root, "zPos", 0);
+
+        int lo = Integer.MAX_VALUE, hi = Integer.MIN_VALUE;
+        for (Object o : list.items) {
+            @SuppressWarnings("unchecked") Map<String, Object> s = (Map<String, Object>) o;
+            if (Nbt.compound(s, "block_states") == null) continue; // 빛 전용 섹션
+            int y = Nbt.intValue(s, "Y", 0);
+            lo = Math.min(lo, y);
+            hi = Math.max(hi, y);
+        }
+        if (lo > hi) return null;
+        Section[] sections = new Section[hi - lo + 1];
+        for (Object o : list.items) {
+            @SuppressWarnings("unchecked") Map<String, Object> s = (Map<String, Object>) o;
+            if (Nbt.compound(s, "block_states") == null) continue;
+            sections[Nbt.intValue(s, "Y", 0) - lo] = new Section(s);
+        }
+        Column c = new Column(index, cx, cz, root, sections, lo);
+        columns.put(BlockKeys.chunk(cx, cz), c);
+        return c;
+    }
+
+    void remove(Column c) { columns.remove(BlockKeys.chunk(c.cx, c.cz)); }
+
+    private Column column(int x, int z) {
+        return columns.get(BlockKeys.chunk(x >> 4, z >> 4));
+    }
+
+    /** 칸이 속한 섹션 (풀어서), 세로 범위 밖이면 null */
+    private static Section section(Column c, int y) {
+        int i = (y >> 4) - c.minSection;
+        if (i < 0 || i >= c.sections.length || c.sections[i] == null) return null;
+        Section s = c.sections[i];
+        if (s.blocks == null) decodeBlocks(s);
+        return s;
+    }
+
+    private static int blockIndex(int x, int y, int z) {
+        return ((y & 15) << 8) | ((z & 15) << 4) | (x & 15);
+    }
+
+    private State state(int x, int y, int z) {
+        Column c = column(x, z);
+        if (c == null) return null;
+        Section s = section(c, y);
+        if (s == null) return AIR;
+        return s.palette.get(s.blocks[blockIndex(x, y, z)]);
+    }
+
+    /* ---------------- SurfaceAccess ---------------- */
+
+    @Override
+    public int highestY(int x, int z) {
+        Column c = column(x, z);
+        if (c == null) return Integer.MIN_VALUE;
+        for (int i = c.sections.length - 1; i >= 0; i--) {
+            Section s = c.sections[i];
+            if (s == null || onlyAir(s)) continue;
+            if (s.blocks == null) decodeBlocks(s);
+            int base = (c.minSection + i) << 4;
+            for (int ly = 15; ly >= 0; ly--) {
+                Material m = s.palette.get(s.blocks[blockIndex(x, ly, z)]).mat;
+                if (m.isSolid() || DoomsdayRules.isWater(m) || m == Material.LAVA) return base + ly;
+            }
+        }
+        return c.minSection << 4;
+    }
+
+    @Override
+    public Material type(int x, int y, int z) {
+        State st = state(x, y, z);
+        return st == null ? null : st.mat;
+    }
+
+    @Override
+    public int waterLevel(int x, int y, int z) {
+        State st = state(x, y, z);
+        if (st == null || st.mat != Material.WATER) return -1;
+        String lv = st.prop("level");
+        try { return lv == null ? 0 : Integer.parseInt(lv); }
+        catch (NumberFormatException ex) { return 0; }
+    }
+
+    @Override
+    public boolean isWaterlogged(int x, int y, int z) {
+        State st = state(x, y, z);
+        return st != null && "true".equals(st.prop("waterlogged"));
+    }
+
+    @Override
+    public boolean isOceanic(int x, int y, int z) {
+        Column c = column(x, z);
+        if (c == null) return false;
+        Section s = section(c, y);
+        if (s == null) return false;
+        if (s.biomeIndex == null) decodeBiomes(s);
+        if (s.biomes.isEmpty()) return false;
+        int i = (((y & 15) >> 2) << 4) | (((z & 15) >> 2) << 2) | ((x & 15) >> 2);
+        String name = s.biomes.get(s.biomeIndex[i]);
+        int colon = name.indexOf(':');
+        return DoomsdayRules.isOceanicBiome(name.substring(colon + 1).toUpperCase(Locale.ROOT));
+    }
+
+    @Override
+    public int seaLevel() { return seaLevel; }
+
+    @Override
+    public void setType(int x, int y, int z, Material m, boolean physics) {
+        write(x, y, z, new State("minecraft:" + m.name().toLowerCase(Locale.ROOT), null, m));
+    }
+
+    @Override
+    public void clearWaterlogged(int x, int y, int z) {
+        State st = state(x, y, z);
+        if (st == null || st.props == null) return;
+        Map<String, Object> props = new LinkedHashMap<>(st.props);
+        props.put("waterlogged", "false");
+        write(x, y, z, new State(st.name, props, st.mat));
+    }
+
+    private void write(int x, int y, int z, State st) {
+        Column c = column(x, z);
+        if (c == null) return;
+        Section s = section(c, y);
+        if (s == null) return;
+        int p = s.palette.indexOf(st);
+        if (p < 0) { s.palette.add(st); p = s.palette.size() - 1; }
+        s.blocks[blockIndex(x, y, z)] = (short) p;
+        s.dirty = true;
+        c.dirty = true;
+        changed++;
+    }
+
+    /* ---------------- 섹션 풀기/묶기 ---------------- */
+
+    private static boolean onlyAir(Section s) {
+        if (s.palette != null) return false;
+        Nbt.ListTag pal = Nbt.list(Nbt.compound(s.nbt, "block_states"), "palette");
+        if (pal == null || pal.items.size() != 1) return false;
+        @SuppressWarnings("unchecked") Map<String, Object> e = (Map<String, Object>) pal.items.get(0);
+        String n = Nbt.string(e, "Name");
+        return "minecraft:air".equals(n) || "minecraft:cave_air".equals(n) || "minecraft:void_air".equals(n);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void decodeBlocks(Section s) {
+        Map<String, Object> bs = Nbt.compound(s.nbt, "block_states");
+        Nbt.ListTag pal = Nbt.list(bs, "palette");
+        s.palette = new ArrayList<>(pal == null ? 1 : pal.items.size() + 4);
+        if (pal != null) {
+            for (Object o : pal.items) {
+                Map<String, Object> e = (Map<String, Object>) o;
+                String name = Objects.requireNonNullElse(Nbt.string(e, "Name"), "minecraft:air");
+                Material m = Material.matchMaterial(name);
+                s.palette.add(new State(name, Nbt.compound(e, "Properties"), m == null ? Material.BEDROCK : m)); // 모르는 블록은 건드리지 않도록
+            }
+        }
+        if (s.palette.isEmpty()) s.palette.add(AIR);
+
+        s.blocks = new short[4096];
+        Object data = bs.get("data");
+        if (s.palette.size() > 1 && data instanceof long[] packed) {
+            unpack(packed, Math.max(4, bitsFor(s.palette.size())), s.blocks);
+        }
+    }
+
+    private static void decodeBiomes(Section s) {
+        Map<String, Object> bm = Nbt.compound(s.nbt, "biomes");
+        s.biomes = new ArrayList<>();
+        s.biomeIndex = new byte[64];
+        Nbt.ListTag pal = bm == null ? null : Nbt.list(bm, "palette");
+        if (pal == null) return;
+        for (Object o : pal.items) s.biomes.add((String) o);
+        Object data = bm.get("data");
+        if (s.biomes.size() > 1 && data instanceof long[] packed) {
+            short[] idx = new short[64];
+            unpack(packed, bitsFor(s.biomes.size()), idx);
+            for (int i = 0; i < 64; i++) s.biomeIndex[i] = (byte) idx[i];
+        }
+    }
+
+    /** 바뀐 섹션을 NBT 로 되돌리고 높이맵/빛 재계산 표시 */
+    static void encode(Column c) {
+        for (Section s : c.sections) {
+            if (s == null || !s.dirty) continue;
+            // 쓰이는 팔레트 항목만 남기고 번호 다시 매김
+            int[] remap = new int[s.palette.size()];
+            Arrays.fill(remap, -1);
+            List<State> used = new ArrayList<>();
+            for (int i = 0; i < 4096; i++) {
+                int p = s.blocks[i];
+                if (remap[p] < 0) { remap[p] = used.size(); used.add(s.palette.get(p)); }
+                s.blocks[i] = (short) remap[p];
+            }
+            s.palette = used;
+
+            Nbt.ListTag pal = new Nbt.ListTag(Nbt.COMPOUND, new ArrayList<>(used.size()));
+            for (State st : used) {
+                Map<String, Object> e = new LinkedHashMap<>();
+                e.put("Name", st.name);
+                if (st.props != null && !st.props.isEmpty()) e.put("Properties", st.props);
+                pal.items.add(e);
+            }
+            Map<String, Object> bs = new LinkedHashMap<>();
+            bs.put("palette", pal);
+            if (used.size() > 1) bs.put("data", pack(s.blocks, Math.max(4, bitsFor(used.size()))));
+            s.nbt.put("block_states", bs);
+            s.dirty = false;
+        }
+        c.root.remove("Heightmaps");
+        c.root.put("isLightOn", (byte) 0);
+        c.dirty = false;
+    }
+
+    private static int bitsFor(int n) {
+        return n <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(n - 1);
+    }
+
+    /** 1.16+ 형식: 값이 long 경계를 넘지 않음 */
+    private static void unpack(long[] packed, int bits, short[] out) {
+        if (bits == 0) return;
+        int perLong = 64 / bits;
+        long mask = (1L << bits) - 1;
+        for (int i = 0; i < out.length; i++) {
+            int li = i / perLong;
+            if (li >= packed.length) break;
+            out[i] = (short) ((packed[li] >>> ((i % perLong) * bits)) & mask);
+        }
+    }
+
+    private static long[] pack(short[] values, int bits) {
+        int perLong = 64 / bits;
+        long[] out = new long[(values.length + perLong - 1) / perLong];
+        for (int i = 0; i < values.length; i++) {
+            out[i / perLong] |= ((long) values[i]) << ((i % perLong) * bits);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,191 @@
+package com.kakamine.minedisaster.prebake;
+
+import com.kakamine.minedisaster.disaster.DoomsdayRules;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Stream;
+
+/**
+ * 지구 멸망 오프라인 사전 적용 도구 (서버를 끄고 월드 폴더에 직접)
+ * - region 폴더의 r.X.Z.mca 를 ForkJoinPool 에서 리전 단위로 병렬 처리
+ * - 리전 안에서는 청크 3줄(앞/현재/뒤)만 메모리에 두고 줄 단위로 진행 → 이웃 청크로 번지는 증발도 반영
+ * - 청크마다 DoomsdayRules.catchUpChunk (서버의 따라잡기와 같은 규칙: 잔디/눈/물/나무/목조물)
+ *   나무/목조물은 char 모드: 불 대신 그을린 결과를 제자리에 씀
+ * - --out 이면 외부 저장 청크 파일(c.X.Z.mcc)도 함께 복사 (리전 파일이 그대로 참조하므로)
+ *
+ * 사용: java -cp MineDisaster.jar:spigot-api.jar com.kakamine.minedisaster.prebake.DoomsdayPrebake
+ *         <region 폴더> <강도 0~1> [--rounds 4] [--threads N] [--config config.yml] [--out 폴더] [--seed N] [--sea-level 63]
+ */
+public final class DoomsdayPrebake {
+
+    /** 리전 하나 결과 */
+    private record Result(Path file, int chunks, int changedChunks, long blocks, int errors, String failure) {}
+
+    private final DoomsdayRules.Params params;
+    private final double severity;
+    private final int rounds, seaLevel;
+    private final long seed;
+    private final Path out;
+
+    private DoomsdayPrebake(DoomsdayRules.Params params, double severity, int rounds, int seaLevel, long seed, Path out) {
+        this.params = params;
+        this.severity = severity;
+        this.rounds = rounds;
+        this.seaLevel = seaLevel;
+        this.seed = seed;
+        this.out = out;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("사용법: DoomsdayPrebake <region 폴더> <강도 0~1> [--rounds 4] [--threads N] [--config config.yml] [--out 폴더] [--seed N] [--sea-level 63]");
+            System.exit(2);
+        }
+        Path dir = Paths.get(args[0]);
+        double severity = Math.max(0.0, Math.min(1.0, Double.parseDouble(args[1])));
+        int rounds = 4, seaLevel = 63;
+        long mem = Runtime.getRuntime().maxMemory();
+        int threads = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), (int) (mem / (256L << 20))));
+        long seed = System.nanoTime();
+        ConfigurationSection cfg = null;
+        Path out = dir;
+        for (int i = 2; i + 1 < args.length; i += 2) {
+            String v = args[i + 1];
+            switch (args[i]) {
+                case "--rounds" -> rounds = Math.max(1, Integer.parseInt(v));
+                case "--threads" -> threads = Math.max(1, Integer.parseInt(v));
+                case "--config" -> cfg = YamlConfiguration.loadConfiguration(Paths.get(v).toFile()).getConfigurationSection("doomsday");
+                case "--out" -> out = Paths.get(v);
+                case "--seed" -> seed = Long.parseLong(v);
+                case "--sea-level" -> seaLevel = Integer.parseInt(v);
+                default -> { System.err.println("알 수 없는 옵션: " + args[i]); System.exit(2); }
+            }
+        }
+
+        List<Path> files;
+        try (Stream<Path> s = Files.list(dir)) {
+            files = s.filter(p -> p.getFileName().toString().endsWith(".mca")).sorted().toList();
+        }
+        if (files.isEmpty()) { System.err.println(".mca 파일이 없습니다: " + dir); System.exit(1); }
+        Files.createDirectories(out);
+        int external = out.equals(dir) ? 0 : copyExternal(dir, out);
+
+        System.out.println("[MineDisaster] 사전 적용: 리전 " + files.size() + "개, 강도=" + severity
+                + " 라운드=" + rounds + " 스레드=" + threads + (out.equals(dir) ? " (제자리 덮어쓰기)" : " → " + out)
+                + (external > 0 ? " (외부 청크 " + external + "개 복사)" : ""));
+        DoomsdayPrebake job = new DoomsdayPrebake(DoomsdayRules.Params.read(cfg), severity, rounds, seaLevel, seed, out);
+
+        long t0 = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        List<ForkJoinTask<Result>> tasks = new ArrayList<>(files.size());
+        for (Path f : files) tasks.add(pool.submit(() -> job.bake(f)));
+
+        long chunks = 0, changed = 0, blocks = 0, errors = 0;
+        int done = 0;
+        for (ForkJoinTask<Result> t : tasks) {
+            Result r = t.join();
+            done++;
+            chunks += r.chunks();
+            changed += r.changedChunks();
+            blocks += r.blocks();
+            errors += r.errors();
+            System.out.println("  [" + done + "/" + files.size() + "] " + r.file().getFileName()
+                    + (r.failure() != null ? " 실패: " + r.failure()
+                    : " 청크=" + r.chunks() + " 바뀐 청크=" + r.changedChunks() + " 블록=" + r.blocks()
+                      + (r.errors() > 0 ? " 읽기 실패=" + r.errors() : "")));
+        }
+        pool.shutdown();
+
+        double sec = (System.nanoTime() - t0) / 1e9;
+        System.out.println("[MineDisaster] 완료: 청크=" + chunks + " 바뀐 청크=" + changed + " 블록=" + blocks
+                + (errors > 0 ? " 읽기 실패=" + errors : "")
+                + String.format(" %.1f초, %.0f 청크/초", sec, sec <= 0 ? 0.0 : chunks / sec));
+    }
+
+    /** 외부 저장 청크(c.X.Z.mcc) 복사, @return 복사한 파일 수 */
+    private static int copyExternal(Path dir, Path out) throws IOException {
+        List<Path> mcc;
+        try (Stream<Path> s = Files.list(dir)) {
+            mcc = s.filter(p -> {
+                String n = p.getFileName().toString();
+                return n.startsWith("c.") && n.endsWith(".mcc");
+            }).toList();
+        }
+        for (Path p : mcc) Files.copy(p, out.resolve(p.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+        return mcc.size();
+    }
+
+    /** 리전 하나: 줄 단위로 읽기 → 한 줄 뒤 처리 → 두 줄 뒤 저장/해제 */
+    private Result bake(Path file) {
+        try {
+            RegionFile region = RegionFile.open(file);
+            if (region == null) return new Result(file, 0, 0, 0, 0, "리전 파일 이름이 아님");
+
+            AnvilSurface surface = new AnvilSurface(seaLevel);
+            DoomsdayRules rules = new DoomsdayRules(params,
+                    new Random(seed ^ (region.regionX * 341873128712L + region.regionZ * 132897987541L)), true);
+            AnvilSurface.Column[][] rows = new AnvilSurface.Column[32][];
+            int chunks = 0, changed = 0, errors = 0;
+
+            for (int row = 0; row <= 32; row++) {
+                if (row < 32) {
+                    rows[row] = new AnvilSurface.Column[32];
+                    for (int x = 0; x < 32; x++) {
+                        int i = row * 32 + x;
+                        if (!region.exists(i)) continue;
+                        try {
+                            Map<String, Object> root = region.read(i);
+                            if (root == null) continue;
+                            AnvilSurface.Column c = surface.add(i, root);
+                            if (c != null) { rows[row][x] = c; chunks++; }
+                        } catch (IOException | RuntimeException ex) {
+                            errors++;
+                        }
+                    }
+                }
+                if (row >= 1) {
+                    for (AnvilSurface.Column c : rows[row - 1]) {
+                        if (c != null) rules.catchUpChunk(surface, c.cx, c.cz, severity, rounds);
+                    }
+                }
+                if (row >= 2) changed += flush(region, surface, rows, row - 2);
+            }
+            changed += flush(region, surface, rows, 31);
+
+            Path target = out.resolve(file.getFileName());
+            if (region.replacedCount() > 0) region.save(target);
+            else if (!target.equals(file)) Files.copy(file, target, StandardCopyOption.REPLACE_EXISTING);
+            return new Result(file, chunks, changed, surface.changed, errors, null);
+        } catch (IOException | RuntimeException ex) {
+            return new Result(file, 0, 0, 0, 0, ex.toString());
+        }
+    }
+
+    /** 한 줄 저장(바뀐 청크만 다시 압축) 후 메모리에서 내림 */
+    private static int flush(RegionFile region, AnvilSurface surface, AnvilSurface.Column[][] rows, int row) throws IOException {
+        int changed = 0;
+        for (AnvilSurface.Column c : rows[row]) {
+            if (c == null) continue;
+            if (c.dirty) {
+                AnvilSurface.encode(c);
+                region.replace(c.index, c.root);
+                changed++;
+            }
+            surface.remove(c);
+        }
+        rows[row] = null;
+        return changed;
+    }
+}
@@ -0,0 +1,166 @@
+package com.kakamine.minedisaster.prebake;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 최소 NBT 읽기/쓰기 (청크 저장 형식용)
+ * - 컴파운드 = LinkedHashMap (순서 유지), 리스트 = ListTag (빈 리스트도 원소 타입 유지)
+ * - 나머지는 Byte/Short/Integer/Long/Float/Double/String/byte[]/int[]/long[] 그대로
+ */
+final class Nbt {
+
+    static final byte END = 0, BYTE = 1, SHORT = 2, INT = 3, LONG = 4, FLOAT = 5, DOUBLE = 6,
+            BYTE_ARRAY = 7, STRING = 8, LIST = 9, COMPOUND = 10, INT_ARRAY = 11, LONG_ARRAY = 12;
+
+    /** 원소 타입을 기억하는 리스트 태그 */
+    static final class ListTag {
+        byte type;
+        final List<Object> items;
+
+        ListTag(byte type, List<Object> items) {
+            this.type = type;
+            this.items = items;
+        }
+    }
+
+    private Nbt() {}
+
+    /** 이름 있는 루트 컴파운드 하나 읽기 */
+    static Map<String, Object> readRoot(DataInput in) throws IOException {
+        byte type = in.readByte();
+        if (type != COMPOUND) throw new IOException("루트가 컴파운드가 아님: " + type);
+        in.readUTF();
+        return readCompound(in);
+    }
+
+    static void writeRoot(DataOutput out, Map<String, Object> root) throws IOException {
+        out.writeByte(COMPOUND);
+        out.writeUTF("");
+        writeCompound(out, root);
+    }
+
+    private static Map<String, Object> readCompound(DataInput in) throws IOException {
+        Map<String, Object> m = new LinkedHashMap<>();
+        while (true) {
+            byte type = in.readByte();
+            if (type == END) return m;
+            String name = in.readUTF();
+            m.put(name, readPayload(in, type));
+        }
+    }
+
+    private static Object readPayload(DataInput in, byte type) throws IOException {
+        switch (type) {
+            case BYTE: return in.readByte();
+            case SHORT: return in.readShort();
+            case INT: return in.readInt();
+            case LONG: return in.readLong();
+            case FLOAT: return in.readFloat();
+            case DOUBLE: return in.readDouble();
+            case BYTE_ARRAY: {
+                byte[] a = new byte[in.readInt()];
+                in.readFully(a);
+                return a;
+            }
+            case STRING: return in.readUTF();
+            case LIST: {
+                byte et = in.readByte();
+                int n = in.readInt();
+                List<Object> items = new ArrayList<>(Math.max(0, n));
+                for (int i = 0; i < n; i++) items.add(readPayload(in, et));
+                return new ListTag(et, items);
+            }
+            case COMPOUND: return readCompound(in);
+            case INT_ARRAY: {
+                int[] a = new int[in.readInt()];
+                for (int i = 0; i < a.length; i++) a[i] = in.readInt();
+                return a;
+            }
+            case LONG_ARRAY: {
+                long[] a = new long[in.readInt()];
+                for (int i = 0; i < a.length; i++) a[i] = in.readLong();
+                return a;
+            }
+            default: throw new IOException("알 수 없는 NBT 타입: " + type);
+        }
+    }
+
+    private static void writeCompound(DataOutput out, Map<String, Object> m) throws IOException {
+        for (Map.Entry<String, Object> e : m.entrySet()) {
+            byte type = typeOf(e.getValue());
+            out.writeByte(type);
+            out.writeUTF(e.getKey());
+            writePayload(out, type, e.getValue());
+        }
+        out.writeByte(END);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void writePayload(DataOutput out, byte type, Object v) throws IOException {
+        switch (type) {
+            case BYTE -> out.writeByte((Byte) v);
+            case SHORT -> out.writeShort((Short) v);
+            case INT -> out.writeInt((Integer) v);
+            case LONG -> out.writeLong((Long) v);
+            case FLOAT -> out.writeFloat((Float) v);
+            case DOUBLE -> out.writeDouble((Double) v);
+            case BYTE_ARRAY -> { byte[] a = (byte[]) v; out.writeInt(a.length); out.write(a); }
+            case STRING -> out.writeUTF((String) v);
+            case LIST -> {
+                ListTag l = (ListTag) v;
+                out.writeByte(l.items.isEmpty() ? l.type : typeOf(l.items.get(0)));
+                out.writeInt(l.items.size());
+                for (Object o : l.items) writePayload(out, typeOf(o), o);
+            }
+            case COMPOUND -> writeCompound(out, (Map<String, Object>) v);
+            case INT_ARRAY -> { int[] a = (int[]) v; out.writeInt(a.length); for (int x : a) out.writeInt(x); }
+            case LONG_ARRAY -> { long[] a = (long[]) v; out.writeInt(a.length); for (long x : a) out.writeLong(x); }
+            default -> throw new IOException("쓸 수 없는 NBT 타입: " + type);
+        }
+    }
+
+    private static byte typeOf(Object v) {
+        if (v instanceof Byte) return BYTE;
+        if (v instanceof Short) return SHORT;
+        if (v instanceof Integer) return INT;
+        if (v instanceof Long) return LONG;
+        if (v instanceof Float) return FLOAT;
+        if (v instanceof Double) return DOUBLE;
+        if (v instanceof byte[]) return BYTE_ARRAY;
+        if (v instanceof String) return STRING;
+        if (v instanceof ListTag) return LIST;
+        if (v instanceof Map) return COMPOUND;
+        if (v instanceof int[]) return INT_ARRAY;
+        if (v instanceof long[]) return LONG_ARRAY;
+        throw new IllegalArgumentException("NBT 로 쓸 수 없는 값: " + v);
+    }
+
+    /* ── 조회 도우미 ── */
+
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> compound(Map<String, Object> m, String key) {
+        Object v = m.get(key);
+        return v instanceof Map ? (Map<String, Object>) v : null;
+    }
+
+    static ListTag list(Map<String, Object> m, String key) {
+        Object v = m.get(key);
+        return v instanceof ListTag l ? l : null;
+    }
+
+    static String string(Map<String, Object> m, String key) {
+        Object v = m.get(key);
+        return v instanceof String s ? s : null;
+    }
+
+    static int intValue(Map<String, Object> m, String key, int def) {
+        Object v = m.get(key);
+        return v instanceof Number n ? n.intValue() : def;
+    }
+}
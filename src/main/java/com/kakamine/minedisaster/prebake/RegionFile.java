@@ -0,0 +1,178 @@
+package com.kakamine.minedisaster.prebake;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+
+/**
+ * Anvil 리전 파일(r.X.Z.mca) 하나
+ * - 읽기: 열 때 파일 전체를 힙 버퍼로 읽고 바로 닫음, 청크는 요청할 때만 버퍼에서 압축 해제
+ *   (메모리 매핑은 풀 방법이 없어 Windows 에서 같은 파일을 교체할 수 없음)
+ * - 쓰기: 바꾼 청크만 zlib 로 다시 압축, 나머지는 원본 바이트 그대로 → 임시 파일에 쓰고 교체
+ * - 외부(.mcc) 청크와 LZ4 압축 청크는 읽지 않고 원본 유지
+ */
+final class RegionFile {
+
+    static final int SECTOR = 4096;
+    private static final int GZIP = 1, ZLIB = 2, NONE = 3, EXTERNAL = 128;
+
+    final Path path;
+    final int regionX, regionZ;
+    private final ByteBuffer data;
+    private final int[] offset = new int[1024];    // 청크 데이터(압축 타입 바이트 다음) 시작 위치, 0 = 없음
+    private final int[] length = new int[1024];    // 압축 데이터 길이
+    private final byte[] compression = new byte[1024];
+    private final int[] timestamps = new int[1024];
+    private final byte[][] replaced = new byte[1024][]; // 다시 압축한 청크 (zlib)
+
+    private RegionFile(Path path, int regionX, int regionZ, ByteBuffer data) {
+        this.path = path;
+        this.regionX = regionX;
+        this.regionZ = regionZ;
+        this.data = data;
+        int size = data.capacity();
+        if (size < SECTOR * 2) return;
+        for (int i = 0; i < 1024; i++) {
+            int loc = data.getInt(i * 4);
+            timestamps[i] = data.getInt(SECTOR + i * 4);
+            int pos = (loc >>> 8) * SECTOR;
+            if (pos == 0 || pos + 5 > size) continue;
+            int len = data.getInt(pos);
+            if (len < 1 || pos + 4 + len > size) continue;
+            offset[i] = pos + 5;
+            length[i] = len - 1;
+            compression[i] = data.get(pos + 4);
+        }
+    }
+
+    /** r.X.Z.mca 이름에서 좌표를 읽고 파일 전체를 읽어 둠 (이름이 다르면 null) */
+    static RegionFile open(Path path) throws IOException {
+        String[] parts = path.getFileName().toString().split("\\.");
+        if (parts.length != 4 || !parts[0].equals("r") || !parts[3].equals("mca")) return null;
+        int rx, rz;
+        try {
+            rx = Integer.parseInt(parts[1]);
+            rz = Integer.parseInt(parts[2]);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+        return new RegionFile(path, rx, rz, ByteBuffer.wrap(Files.readAllBytes(path)));
+    }
+
+    /** 청크 인덱스 = (z & 31) * 32 + (x & 31) */
+    static int index(int cx, int cz) { return (cz & 31) * 32 + (cx & 31); }
+
+    boolean exists(int i) { return offset[i] != 0; }
+
+    /** 청크 NBT (없거나 외부/지원 안 하는 압축이면 null) */
+    Map<String, Object> read(int i) throws IOException {
+        if (offset[i] == 0 || (compression[i] & EXTERNAL) != 0) return null;
+        ByteBuffer src = data.slice(offset[i], length[i]);
+        InputStream in;
+        switch (compression[i]) {
+            case ZLIB -> in = new ByteArrayInputStream(inflate(src));
+            case GZIP -> in = new GZIPInputStream(new ByteArrayInputStream(copy(src)));
+            case NONE -> in = new ByteArrayInputStream(copy(src));
+            default -> { return null; }
+        }
+        try (DataInputStream nbt = new DataInputStream(in)) {
+            return Nbt.readRoot(nbt);
+        }
+    }
+
+    /** 바꾼 청크 NBT 를 zlib 로 압축해 두기 (save 때 씀) */
+    void replace(int i, Map<String, Object> root) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes))) {
+            Nbt.writeRoot(out, root);
+        }
+        // 한 청크 255 섹터(약 1MB) 제한, 넘으면 원본 유지
+        if ((bytes.size() + 5 + SECTOR - 1) / SECTOR > 255) return;
+        replaced[i] = bytes.toByteArray();
+    }
+
+    int replacedCount() {
+        int n = 0;
+        for (byte[] r : replaced) if (r != null) n++;
+        return n;
+    }
+
+    /** out 위치에 새 리전 파일 작성 (같은 경로면 임시 파일 → 교체) */
+    void save(Path out) throws IOException {
+        int now = (int) (System.currentTimeMillis() / 1000L);
+        ByteBuffer header = ByteBuffer.allocate(SECTOR * 2);
+        ByteArrayOutputStream body = new ByteArrayOutputStream(data.capacity());
+        int sector = 2;
+        byte[] pad = new byte[SECTOR];
+        for (int i = 0; i < 1024; i++) {
+            byte[] payload;
+            byte type;
+            if (replaced[i] != null) { payload = replaced[i]; type = ZLIB; }
+            else if (offset[i] != 0) { payload = copy(data.slice(offset[i], length[i])); type = compression[i]; }
+            else continue;
+
+            int total = 5 + payload.length;
+            int sectors = (total + SECTOR - 1) / SECTOR;
+            header.putInt(i * 4, (sector << 8) | sectors);
+            header.putInt(SECTOR + i * 4, replaced[i] != null ? now : timestamps[i]);
+            DataOutputStream d = new DataOutputStream(body);
+            d.writeInt(payload.length + 1);
+            d.writeByte(type);
+            d.write(payload);
+            d.write(pad, 0, sectors * SECTOR - total);
+            sector += sectors;
+        }
+
+        Path tmp = out.resolveSibling(out.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            header.rewind();
+            while (header.hasRemaining()) ch.write(header);
+            ByteBuffer b = ByteBuffer.wrap(body.toByteArray());
+            while (b.hasRemaining()) ch.write(b);
+        }
+        Files.move(tmp, out, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static byte[] copy(ByteBuffer src) {
+        byte[] a = new byte[src.remaining()];
+        src.get(a);
+        return a;
+    }
+
+    /** 버퍼 구간에서 바로 zlib 해제 (중간 복사 없음) */
+    private static byte[] inflate(ByteBuffer src) throws IOException {
+        Inflater inf = new Inflater();
+        try {
+            inf.setInput(src);
+            byte[] out = new byte[Math.max(1024, src.remaining() * 4)];
+            int n = 0;
+            while (!inf.finished()) {
+                if (n == out.length) out = Arrays.copyOf(out, out.length << 1);
+                int r = inf.inflate(out, n, out.length - n);
+                if (r == 0 && (inf.needsInput() || inf.needsDictionary())) throw new IOException("청크 압축 데이터가 잘림");
+                n += r;
+            }
+            return n == out.length ? out : Arrays.copyOf(out, n);
+        } catch (DataFormatException ex) {
+            throw new IOException("청크 압축 해제 실패", ex);
+        } finally {
+            inf.end();
+        }
+    }
+}
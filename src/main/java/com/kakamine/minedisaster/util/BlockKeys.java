@@ -0,0 +1,56 @@
+package com.kakamine.minedisaster.util;
+
+/**
+ * 블록/섹션/청크 좌표를 long 하나로 압축하는 유틸.
+ * - 블록: x 26bit | z 26bit | y 12bit (바닐라 BlockPos 와 같은 배치)
+ * - 섹션: x 22bit | z 22bit | y 20bit
+ * - 청크: z 상위 32bit | x 하위 32bit
+ */
+public final class BlockKeys {
+
+    private BlockKeys() {}
+
+    public static long pack(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+    }
+
+    public static int x(long key) { return (int) (key >> 38); }
+    public static int y(long key) { return (int) (key << 52 >> 52); }
+    public static int z(long key) { return (int) (key << 26 >> 38); }
+
+    /** 섹션(16×16×16) 키 */
+    public static long section(int sx, int sy, int sz) {
+        return ((long) (sx & 0x3FFFFF) << 42) | ((long) (sz & 0x3FFFFF) << 20) | (sy & 0xFFFFF);
+    }
+
+    /** 블록 키가 속한 섹션 키 */
+    public static long sectionOf(long key) {
+        return section(x(key) >> 4, y(key) >> 4, z(key) >> 4);
+    }
+
+    public static int sectionX(long s) { return (int) (s >> 42); }
+    public static int sectionY(long s) { return (int) (s << 44 >> 44); }
+    public static int sectionZ(long s) { return (int) (s << 22 >> 42); }
+
+    /** 섹션 내부 인덱스(0~4095): y<<8 | z<<4 | x */
+    public static int localIndex(long key) {
+        return ((y(key) & 15) << 8) | ((z(key) & 15) << 4) | (x(key) & 15);
+    }
+
+    public static long chunk(int cx, int cz) {
+        return ((long) cz << 32) | (cx & 0xFFFFFFFFL);
+    }
+
+    public static long chunkOf(long key) {
+        return chunk(x(key) >> 4, z(key) >> 4);
+    }
+
+    public static int chunkX(long c) { return (int) c; }
+    public static int chunkZ(long c) { return (int) (c >> 32); }
+
+    /** 해시 테이블용 비트 섞기 */
+    public static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 29) ^ (h >>> 47));
+    }
+}
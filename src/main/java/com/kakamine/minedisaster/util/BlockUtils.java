@@ -2,6 +2,9 @@ package com.kakamine.minedisaster.util;
 
 import org.bukkit.*;
 import org.bukkit.block.Block;
+import org.bukkit.block.BlockState;
+import org.bukkit.block.Container;
+import org.bukkit.inventory.ItemStack;
 
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -32,10 +35,35 @@ public final class BlockUtils {
         BREAKABLE.remove(Material.REINFORCED_DEEPSLATE);
     }
 
+    /** Material ordinal → 보관함 여부 (0 = 아직 모름, 1 = 아님, 2 = 보관함), 메인 스레드 전용 */
+    private static final byte[] CONTAINER = new byte[Material.values().length];
+
     private BlockUtils() {}
 
     public static boolean canBreak(Material m) { return BREAKABLE.contains(m); }
 
+    /**
+     * 보관함(상자/화로/호퍼 등)이면 내용물을 그 자리에 떨굼. setType 으로 지우기 전에 호출
+     * - setType 은 블록 엔티티를 먼저 지워서 내용물이 그냥 사라짐
+     * - 재질마다 처음 한 번만 getState 로 확인, 보관함이 아닌 재질은 이후 배열 조회만
+     * @return 보관함이었는지
+     */
+    public static boolean dropContainerContents(Block b) {
+        int ord = b.getType().ordinal();
+        if (CONTAINER[ord] == 1) return false;
+        BlockState st = b.getState();
+        boolean container = st instanceof Container;
+        CONTAINER[ord] = (byte) (container ? 2 : 1);
+        if (!container) return false;
+
+        // 스냅샷 인벤토리 = 이 블록 것만 (큰 상자도 반쪽씩)
+        Location at = b.getLocation().add(0.5, 0.5, 0.5);
+        for (ItemStack it : ((Container) st).getSnapshotInventory().getContents()) {
+            if (it != null && !it.getType().isAir()) b.getWorld().dropItemNaturally(at, it);
+        }
+        return true;
+    }
+
     /**
      * (x,z) 칸에서 위로 훑어 가장 위의 단단/액체 블록을 찾음.
      * @param startY 탐색 시작 높이(보통 중심 Y+여유)
@@ -0,0 +1,150 @@
+package com.kakamine.minedisaster.util;
+
+import java.util.Arrays;
+
+/**
+ * long → int 오픈 어드레싱 해시맵 (박싱 없음).
+ * - 선형 탐사 + 삭제 시 뒤쪽 당기기(backward shift)라 톰스톤이 남지 않음
+ * - Long.MIN_VALUE 는 빈 칸 표시로 예약 (BlockKeys 좌표 범위에서는 나오지 않음)
+ */
+public final class LongIntMap {
+
+    public static final long EMPTY = Long.MIN_VALUE;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private final int missing;
+
+    public LongIntMap(int missing) { this(16, missing); }
+
+    public LongIntMap(int expected, int missing) {
+        this.missing = missing;
+        int cap = capacityFor(expected);
+        keys = new long[cap];
+        values = new int[cap];
+        Arrays.fill(keys, EMPTY);
+        mask = cap - 1;
+    }
+
+    private static int capacityFor(int expected) {
+        int cap = 16;
+        while (cap < expected * 2) cap <<= 1;
+        return cap;
+    }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+
+    /** 없으면 생성자에서 지정한 missing 값 */
+    public int get(long key) {
+        int i = BlockKeys.mix(key) & mask;
+        while (true) {
+            long k = keys[i];
+            if (k == EMPTY) return missing;
+            if (k == key) return values[i];
+            i = (i + 1) & mask;
+        }
+    }
+
+    public boolean containsKey(long key) {
+        int i = BlockKeys.mix(key) & mask;
+        while (true) {
+            long k = keys[i];
+            if (k == EMPTY) return false;
+            if (k == key) return true;
+            i = (i + 1) & mask;
+        }
+    }
+
+    /** @return 이전 값(없으면 missing) */
+    public int put(long key, int value) {
+        int i = BlockKeys.mix(key) & mask;
+        while (true) {
+            long k = keys[i];
+            if (k == EMPTY) break;
+            if (k == key) { int old = values[i]; values[i] = value; return old; }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size * 2 > keys.length) rehash(keys.length << 1);
+        return missing;
+    }
+
+    /** 기존 값에 delta 를 더함(없으면 delta 로 생성). @return 새 값 */
+    public int addTo(long key, int delta) {
+        int i = BlockKeys.mix(key) & mask;
+        while (true) {
+            long k = keys[i];
+            if (k == EMPTY) break;
+            if (k == key) return values[i] += delta;
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = delta;
+        if (++size * 2 > keys.length) rehash(keys.length << 1);
+        return delta;
+    }
+
+    /** @return 제거된 값(없었으면 missing) */
+    public int remove(long key) {
+        int i = BlockKeys.mix(key) & mask;
+        while (true) {
+            long k = keys[i];
+            if (k == EMPTY) return missing;
+            if (k == key) break;
+            i = (i + 1) & mask;
+        }
+        int old = values[i];
+        shiftBack(i);
+        size--;
+        return old;
+    }
+
+    private void shiftBack(int hole) {
+        int i = hole;
+        while (true) {
+            i = (i + 1) & mask;
+            long k = keys[i];
+            if (k == EMPTY) break;
+            int home = BlockKeys.mix(k) & mask;
+            // home 이 (hole, i] 구간 밖이면 hole 로 당김
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                keys[hole] = k;
+                values[hole] = values[i];
+                hole = i;
+            }
+        }
+        keys[hole] = EMPTY;
+    }
+
+    private void rehash(int cap) {
+        long[] ok = keys;
+        int[] ov = values;
+        keys = new long[cap];
+        values = new int[cap];
+        Arrays.fill(keys, EMPTY);
+        mask = cap - 1;
+        for (int j = 0; j < ok.length; j++) {
+            long k = ok[j];
+            if (k == EMPTY) continue;
+            int i = BlockKeys.mix(k) & mask;
+            while (keys[i] != EMPTY) i = (i + 1) & mask;
+            keys[i] = k;
+            values[i] = ov[j];
+        }
+    }
+
+    public void clear() {
+        if (size == 0) return;
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+
+    /* 할당 없는 순회: for (i < capacity()) if (keyAt(i) != EMPTY) ... */
+    public int capacity() { return keys.length; }
+    public long keyAt(int slot) { return keys[slot]; }
+    public int valueAt(int slot) { return values[slot]; }
+}
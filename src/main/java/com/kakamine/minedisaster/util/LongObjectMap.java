@@ -0,0 +1,118 @@
+package com.kakamine.minedisaster.util;
+
+import java.util.Arrays;
+
+/**
+ * long → V 오픈 어드레싱 해시맵 (박싱 없음).
+ * - LongIntMap 과 같은 규칙: 선형 탐사, backward shift 삭제, Long.MIN_VALUE 예약
+ * - null 값은 저장하지 않음(get 의 null = 없음)
+ */
+public final class LongObjectMap<V> {
+
+    public static final long EMPTY = Long.MIN_VALUE;
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+
+    public LongObjectMap() { this(16); }
+
+    public LongObjectMap(int expected) {
+        int cap = 16;
+        while (cap < expected * 2) cap <<= 1;
+        keys = new long[cap];
+        values = new Object[cap];
+        Arrays.fill(keys, EMPTY);
+        mask = cap - 1;
+    }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int i = BlockKeys.mix(key) & mask;
+        while (true) {
+            long k = keys[i];
+            if (k == EMPTY) return null;
+            if (k == key) return (V) values[i];
+            i = (i + 1) & mask;
+        }
+    }
+
+    public boolean containsKey(long key) { return get(key) != null; }
+
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        int i = BlockKeys.mix(key) & mask;
+        while (true) {
+            long k = keys[i];
+            if (k == EMPTY) break;
+            if (k == key) { V old = (V) values[i]; values[i] = value; return old; }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size * 2 > keys.length) rehash(keys.length << 1);
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        int i = BlockKeys.mix(key) & mask;
+        while (true) {
+            long k = keys[i];
+            if (k == EMPTY) return null;
+            if (k == key) break;
+            i = (i + 1) & mask;
+        }
+        V old = (V) values[i];
+        int hole = i;
+        while (true) {
+            i = (i + 1) & mask;
+            long k = keys[i];
+            if (k == EMPTY) break;
+            int home = BlockKeys.mix(k) & mask;
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                keys[hole] = k;
+                values[hole] = values[i];
+                hole = i;
+            }
+        }
+        keys[hole] = EMPTY;
+        values[hole] = null;
+        size--;
+        return old;
+    }
+
+    private void rehash(int cap) {
+        long[] ok = keys;
+        Object[] ov = values;
+        keys = new long[cap];
+        values = new Object[cap];
+        Arrays.fill(keys, EMPTY);
+        mask = cap - 1;
+        for (int j = 0; j < ok.length; j++) {
+            long k = ok[j];
+            if (k == EMPTY) continue;
+            int i = BlockKeys.mix(k) & mask;
+            while (keys[i] != EMPTY) i = (i + 1) & mask;
+            keys[i] = k;
+            values[i] = ov[j];
+        }
+    }
+
+    public void clear() {
+        if (size == 0) return;
+        Arrays.fill(keys, EMPTY);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /* 할당 없는 순회: for (i < capacity()) if (keyAt(i) != EMPTY) ... */
+    public int capacity() { return keys.length; }
+    public long keyAt(int slot) { return keys[slot]; }
+    @SuppressWarnings("unchecked")
+    public V valueAt(int slot) { return (V) values[slot]; }
+}
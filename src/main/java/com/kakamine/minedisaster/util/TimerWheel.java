@@ -0,0 +1,141 @@
+package com.kakamine.minedisaster.util;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * 계층형 타이머 휠 (long 키 전용, 항목당 객체 할당 없음)
+ * - 0단: 256칸 × 1틱, 1단: 64칸 × 256틱, 2단: 64칸 × 16384틱, 그 이상은 overflow
+ * - tick() 으로 한 틱 전진 → 만료된 키는 due 큐로 이동
+ * - drain(max, fn) 으로 틱당 처리량을 제한 (남은 양 = backlog())
+ */
+public final class TimerWheel {
+
+    private static final int L0_BITS = 8, L1_BITS = 6, L2_BITS = 6;
+    private static final int L0 = 1 << L0_BITS, L1 = 1 << L1_BITS, L2 = 1 << L2_BITS;
+    private static final long SPAN0 = L0;
+    private static final long SPAN1 = SPAN0 << L1_BITS;
+    private static final long SPAN2 = SPAN1 << L2_BITS;
+
+    /** (키, 만료틱) 쌍을 이어 붙여 담는 버킷. 비워도 배열은 재사용 */
+    private static final class Bucket {
+        long[] data = new long[8];
+        int size; // 항목 수(쌍 단위)
+
+        void add(long key, long deadline) {
+            int i = size << 1;
+            if (i + 2 > data.length) data = Arrays.copyOf(data, data.length << 1);
+            data[i] = key;
+            data[i + 1] = deadline;
+            size++;
+        }
+    }
+
+    private final Bucket[] level0 = buckets(L0);
+    private final Bucket[] level1 = buckets(L1);
+    private final Bucket[] level2 = buckets(L2);
+    private final Bucket overflow = new Bucket();
+
+    // 만료되었지만 아직 처리 안 된 키 (원형 큐)
+    private long[] due = new long[256];
+    private int dueHead, dueSize;
+
+    private long[] scratch = new long[8];
+    private long now;
+    private int pending;
+
+    private static Bucket[] buckets(int n) {
+        Bucket[] b = new Bucket[n];
+        for (int i = 0; i < n; i++) b[i] = new Bucket();
+        return b;
+    }
+
+    /** 현재 틱 */
+    public long now() { return now; }
+
+    /** 아직 만료되지 않은 예약 수 */
+    public int pending() { return pending; }
+
+    /** 만료되었지만 처리 대기 중인 수 */
+    public int backlog() { return dueSize; }
+
+    /** delayTicks 뒤 만료 (최소 1틱) */
+    public void schedule(long key, long delayTicks) {
+        pending++;
+        place(key, now + Math.max(1, delayTicks));
+    }
+
+    private void place(long key, long deadline) {
+        long d = deadline - now;
+        if (d <= 0) { pushDue(key); pending--; return; }
+        if (d < SPAN0)      level0[(int) (deadline & (L0 - 1))].add(key, deadline);
+        else if (d < SPAN1) level1[(int) ((deadline >>> L0_BITS) & (L1 - 1))].add(key, deadline);
+        else if (d < SPAN2) level2[(int) ((deadline >>> (L0_BITS + L1_BITS)) & (L2 - 1))].add(key, deadline);
+        else overflow.add(key, deadline);
+    }
+
+    /** 한 틱 전진: 상위 단 내려보내기 → 이번 칸 만료 */
+    public void tick() {
+        now++;
+        if ((now & (SPAN1 - 1)) == 0) {
+            cascade(level2[(int) ((now >>> (L0_BITS + L1_BITS)) & (L2 - 1))]);
+            cascade(overflow);
+        }
+        if ((now & (SPAN0 - 1)) == 0) {
+            cascade(level1[(int) ((now >>> L0_BITS) & (L1 - 1))]);
+        }
+
+        Bucket b = level0[(int) (now & (L0 - 1))];
+        long[] data = b.data;
+        for (int i = 0, n = b.size << 1; i < n; i += 2) pushDue(data[i]);
+        pending -= b.size;
+        b.size = 0;
+    }
+
+    private void cascade(Bucket b) {
+        int n = b.size;
+        if (n == 0) return;
+        // place() 가 같은 버킷(overflow)에 다시 넣을 수 있으므로 예비 배열과 맞바꿔 순회
+        long[] data = b.data;
+        b.data = scratch;
+        b.size = 0;
+        scratch = data;
+        for (int i = 0; i < n << 1; i += 2) place(data[i], data[i + 1]);
+    }
+
+    private void pushDue(long key) {
+        if (dueSize == due.length) {
+            long[] grown = new long[due.length << 1];
+            int first = Math.min(dueSize, due.length - dueHead);
+            System.arraycopy(due, dueHead, grown, 0, first);
+            System.arraycopy(due, 0, grown, first, dueSize - first);
+            due = grown;
+            dueHead = 0;
+        }
+        due[(dueHead + dueSize) & (due.length - 1)] = key;
+        dueSize++;
+    }
+
+    /** 만료 키를 최대 max 개 꺼내 fn 에 전달. @return 처리 수 */
+    public int drain(int max, LongConsumer fn) {
+        int n = Math.min(max, dueSize);
+        for (int i = 0; i < n; i++) {
+            long key = due[dueHead];
+            dueHead = (dueHead + 1) & (due.length - 1);
+            dueSize--;
+            fn.accept(key);
+        }
+        return n;
+    }
+
+    /** 모든 예약/대기 제거 (배열은 유지) */
+    public void clear() {
+        for (Bucket b : level0) b.size = 0;
+        for (Bucket b : level1) b.size = 0;
+        for (Bucket b : level2) b.size = 0;
+        overflow.size = 0;
+        dueHead = 0;
+        dueSize = 0;
+        pending = 0;
+    }
+}
@@ -0,0 +1,192 @@
+package com.kakamine.minedisaster.prebake;
+
+import org.bukkit.Material;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 리전 파일 왕복 검사 (서버 없이)
+ * - 픽스처 prebake/r.0.0.mca: 1.21 청크 형식(DataVersion 3953, zlib)의 2×2 청크, 섹션 Y -4..19
+ *   Y=4(지표) 섹션은 팔레트 19개 → 5비트, 나머지는 단일 팔레트/4비트, 바이옴 1비트 섹션 포함
+ * - 섹션 블록은 AnvilSurface 를 거치지 않고 여기서 따로 풀어 비교
+ */
+class RegionRoundTripTest {
+
+    private static final int SURFACE_SECTION = 4; // y 64..79
+
+    @TempDir
+    Path tmp;
+
+    /** 읽은 청크 NBT 를 다시 쓰면 원본(압축 해제) 바이트와 같아야 함 */
+    @Test
+    void nbtRewriteIsByteExact() throws IOException {
+        Path p = fixture();
+        byte[] file = Files.readAllBytes(p);
+        RegionFile region = RegionFile.open(p);
+        int chunks = 0;
+        for (int i = 0; i < 1024; i++) {
+            if (!region.exists(i)) continue;
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            Nbt.writeRoot(new DataOutputStream(out), region.read(i));
+            assertArrayEquals(inflate(file, i), out.toByteArray(), "청크 " + i);
+            chunks++;
+        }
+        assertEquals(4, chunks);
+    }
+
+    /** 한 청크만 바꿔 저장하면 나머지 청크는 압축 바이트/타임스탬프가 그대로 */
+    @Test
+    void untouchedChunksKeepTheirBytes() throws IOException {
+        Path p = fixture();
+        Path out = Files.createDirectories(tmp.resolve("out")).resolve("r.0.0.mca");
+        byte[] before = Files.readAllBytes(p);
+        replaceSnow(p, out);
+        byte[] after = Files.readAllBytes(out);
+
+        for (int i : new int[]{1, 32, 33}) {
+            assertArrayEquals(payload(before, i), payload(after, i), "청크 " + i);
+            assertEquals(timestamp(before, i), timestamp(after, i), "청크 " + i);
+        }
+        assertFalse(Arrays.equals(payload(before, 0), payload(after, 0)), "바꾼 청크가 그대로임");
+    }
+
+    /** 바꾼 섹션: 바꾼 칸만 달라지고, 안 쓰게 된 팔레트 항목은 빠지고, 비트 폭은 팔레트 크기에 맞음 */
+    @Test
+    void paletteReEncodes() throws IOException {
+        Path p = fixture();
+        String[] before = blocks(RegionFile.open(p).read(0), SURFACE_SECTION);
+        int snow = replaceSnow(p, p); // 제자리 저장
+        assertTrue(snow > 0, "픽스처에 눈이 없음");
+
+        Map<String, Object> root = RegionFile.open(p).read(0);
+        String[] after = blocks(root, SURFACE_SECTION);
+        for (int i = 0; i < 4096; i++) {
+            if (before[i].startsWith("minecraft:snow{")) assertEquals("minecraft:coarse_dirt", after[i], "칸 " + i);
+            else assertEquals(before[i], after[i], "칸 " + i);
+        }
+
+        Map<String, Object> bs = Nbt.compound(section(root, SURFACE_SECTION), "block_states");
+        List<Object> palette = Nbt.list(bs, "palette").items;
+        Set<String> used = new HashSet<>(Arrays.asList(after));
+        assertEquals(used.size(), palette.size(), "안 쓰는 팔레트 항목이 남음");
+        for (String s : used) assertFalse(s.startsWith("minecraft:snow{"));
+        int bits = Math.max(4, 32 - Integer.numberOfLeadingZeros(palette.size() - 1));
+        assertEquals((4096 + 64 / bits - 1) / (64 / bits), ((long[]) bs.get("data")).length);
+
+        // 다른 섹션은 그대로, 높이맵/빛은 서버가 다시 계산하도록
+        assertArrayEquals(inflateSection(p, 0, 3), inflateSection(fixture("orig"), 0, 3));
+        assertNull(root.get("Heightmaps"));
+        assertEquals((byte) 0, root.get("isLightOn"));
+    }
+
+    /* ---------------- 도우미 ---------------- */
+
+    private Path fixture() throws IOException {
+        return fixture(".");
+    }
+
+    /** 픽스처를 tmp/dir/r.0.0.mca 로 복사 (이름에서 리전 좌표를 읽으므로 이름은 그대로) */
+    private Path fixture(String dir) throws IOException {
+        Path p = Files.createDirectories(tmp.resolve(dir)).resolve("r.0.0.mca");
+        try (InputStream in = RegionRoundTripTest.class.getResourceAsStream("/prebake/r.0.0.mca")) {
+            assertNotNull(in, "픽스처 없음");
+            Files.copy(in, p);
+        }
+        return p;
+    }
+
+    /** 청크 (0,0) 지표 섹션의 눈(snow)을 모두 거친 흙으로 바꿔 out 에 저장, @return 바꾼 칸 수 */
+    private static int replaceSnow(Path in, Path out) throws IOException {
+        RegionFile region = RegionFile.open(in);
+        Map<String, Object> root = region.read(0);
+        String[] cells = blocks(root, SURFACE_SECTION);
+        AnvilSurface surface = new AnvilSurface(63);
+        AnvilSurface.Column c = surface.add(0, root);
+        assertNotNull(c);
+        int n = 0;
+        for (int i = 0; i < 4096; i++) {
+            if (!cells[i].startsWith("minecraft:snow{")) continue;
+            surface.setType(i & 15, (SURFACE_SECTION << 4) + (i >> 8), (i >> 4) & 15, Material.COARSE_DIRT, false);
+            n++;
+        }
+        AnvilSurface.encode(c);
+        region.replace(0, c.root);
+        region.save(out);
+        return n;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> section(Map<String, Object> root, int y) {
+        for (Object o : Nbt.list(root, "sections").items) {
+            Map<String, Object> s = (Map<String, Object>) o;
+            if (Nbt.intValue(s, "Y", Integer.MIN_VALUE) == y) return s;
+        }
+        return fail("섹션 " + y + " 없음");
+    }
+
+    /** 섹션 4096칸을 "이름{속성}" 으로 (1.16+ 비트 배열: 값이 long 경계를 넘지 않음) */
+    @SuppressWarnings("unchecked")
+    private static String[] blocks(Map<String, Object> root, int y) {
+        Map<String, Object> bs = Nbt.compound(section(root, y), "block_states");
+        List<Object> palette = Nbt.list(bs, "palette").items;
+        String[] names = new String[palette.size()];
+        for (int i = 0; i < names.length; i++) {
+            Map<String, Object> e = (Map<String, Object>) palette.get(i);
+            Map<String, Object> props = Nbt.compound(e, "Properties");
+            names[i] = Nbt.string(e, "Name") + (props == null ? "" : props.toString());
+        }
+        long[] data = (long[]) bs.get("data");
+        int bits = Math.max(4, 32 - Integer.numberOfLeadingZeros(Math.max(1, names.length - 1)));
+        int perLong = 64 / bits;
+        String[] out = new String[4096];
+        for (int i = 0; i < 4096; i++) {
+            int p = data == null ? 0 : (int) ((data[i / perLong] >>> ((i % perLong) * bits)) & ((1L << bits) - 1));
+            out[i] = names[p];
+        }
+        return out;
+    }
+
+    private static byte[] inflateSection(Path file, int chunk, int y) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Map<String, Object> root = RegionFile.open(file).read(chunk);
+        Nbt.writeRoot(new DataOutputStream(out), Map.of("s", section(root, y)));
+        return out.toByteArray();
+    }
+
+    /** 리전 파일에서 청크 i 의 [길이, 압축 타입, 데이터] 이후 데이터 부분 (압축 타입 포함) */
+    private static byte[] payload(byte[] file, int i) {
+        ByteBuffer b = ByteBuffer.wrap(file);
+        int pos = (b.getInt(i * 4) >>> 8) * RegionFile.SECTOR;
+        assertTrue(pos > 0, "청크 " + i + " 없음");
+        return Arrays.copyOfRange(file, pos + 4, pos + 4 + b.getInt(pos));
+    }
+
+    private static int timestamp(byte[] file, int i) {
+        return ByteBuffer.wrap(file).getInt(RegionFile.SECTOR + i * 4);
+    }
+
+    private static byte[] inflate(byte[] file, int i) throws IOException {
+        byte[] p = payload(file, i);
+        assertEquals(2, p[0], "zlib 가 아님");
+        try (InputStream in = new InflaterInputStream(new ByteArrayInputStream(p, 1, p.length - 1))) {
+            return in.readAllBytes();
+        }
+    }
+}